@@ -9,6 +9,7 @@ import android.widget.Button;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
 import com.davidread.quizgame.Utilities.DatabaseHelper;
 import com.google.android.material.textfield.TextInputEditText;
 
@@ -39,7 +40,7 @@ public class LoginActivity extends AppCompatActivity implements View.OnClickList
         Button buttonRegister = findViewById(R.id.button_register);
 
         // Setup database helper.
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
 
         // Setup click listeners for the login and register buttons.
         buttonLogin.setOnClickListener(this);
@@ -71,7 +72,6 @@ public class LoginActivity extends AppCompatActivity implements View.OnClickList
         if (id == R.id.button_login) {
 
             boolean invalidTextFieldDetected = false;
-            long userId = -1;
             String email = textInputEditTextEmail.getText().toString();
             String password = textInputEditTextPassword.getText().toString();
 
@@ -90,19 +90,19 @@ public class LoginActivity extends AppCompatActivity implements View.OnClickList
                 invalidTextFieldDetected = true;
             }
 
-            // Check for correctness of email/password combo. If correct, start the main activity.
+            /* Check for correctness of email/password combo off the main thread. If correct, start
+             * the main activity. */
             if (!invalidTextFieldDetected) {
-
-                userId = db.getUserId(email, password);
-
-                if (userId == -1) {
-                    textInputEditTextEmail.setError(getString(R.string.toast_error_login_invalid));
-                    textInputEditTextPassword.setError(getString(R.string.toast_error_login_invalid));
-                } else {
-                    Intent intent = new Intent(LoginActivity.this, MainActivity.class);
-                    intent.putExtra(MainActivity.EXTRA_LOGGED_IN_ID, userId);
-                    startActivity(intent);
-                }
+                DatabaseExecutor.getInstance().read(() -> db.getUserId(email, password), userId -> {
+                    if (userId == -1) {
+                        textInputEditTextEmail.setError(getString(R.string.toast_error_login_invalid));
+                        textInputEditTextPassword.setError(getString(R.string.toast_error_login_invalid));
+                    } else {
+                        Intent intent = new Intent(LoginActivity.this, MainActivity.class);
+                        intent.putExtra(MainActivity.EXTRA_LOGGED_IN_ID, userId);
+                        startActivity(intent);
+                    }
+                });
             }
         }
 
@@ -15,51 +15,52 @@ import androidx.drawerlayout.widget.DrawerLayout;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.ViewModelProvider;
 
 
+import com.davidread.quizgame.Fragments.ItemAnalysisFragment;
+import com.davidread.quizgame.Fragments.LeaderboardFragment;
 import com.davidread.quizgame.Fragments.ManageUserFragment;
-import com.davidread.quizgame.Fragments.QuestionMultipleAnswersFragment;
-import com.davidread.quizgame.Fragments.QuestionMultipleChoiceFragment;
+import com.davidread.quizgame.Fragments.QuestionFragment;
+import com.davidread.quizgame.Fragments.QuizResultFragment;
 import com.davidread.quizgame.Fragments.RulesFragment;
 import com.davidread.quizgame.Fragments.ResultsFragment;
-import com.davidread.quizgame.Models.Question;
 import com.davidread.quizgame.Models.Quiz;
-import com.davidread.quizgame.Models.User;
 import com.davidread.quizgame.R;
-import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+import com.davidread.quizgame.ViewModels.QuizViewModel;
 import com.google.android.material.navigation.NavigationView;
 
-import java.util.ArrayList;
 import java.util.Objects;
 
 /**
  * This activity class represents a user interface the user can access once they're logged in. It
- * has a navigation drawer interface that switches between several fragments.
+ * has a navigation drawer interface that switches between several fragments. Quiz state is held in
+ * a shared quiz view model, so it survives the activity being recreated.
  */
 public class MainActivity extends AppCompatActivity implements NavigationView.OnNavigationItemSelectedListener {
 
     // Intent extra constants.
     public static final String EXTRA_LOGGED_IN_ID = "logged_in_id";
 
+    // Saved instance state constants.
+    private static final String STATE_ACTION_BAR_LABEL = "action_bar_label";
+
     // Activity objects.
-    private DatabaseHelper db;
-    private User loggedInUser;
+    private long loggedInUserId;
     private DrawerLayout drawerLayout;
-    private Quiz quiz;
+    private QuizViewModel viewModel;
 
     /**
      * Called when the activity is initially created. Inflates a layout with a custom action bar and
-     * a fragment container. It also sets up database objects, custom action bar objects, navigation
-     * drawer objects. Lastly, it starts a fragment.
+     * a fragment container. It also sets up the quiz view model, custom action bar objects, navigation
+     * drawer objects. Lastly, it starts a fragment unless the previous fragment was restored.
      */
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        // Initialize database helper.
-        db = new DatabaseHelper(this);
-
         // Initialize custom action bar and use it instead of the default action bar.
         Toolbar toolbar = findViewById(R.id.toolbar_main);
         setSupportActionBar(toolbar);
@@ -72,6 +73,7 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         // Initialize text views in navigation drawer header.
         TextView textViewFullName = navigationView.getHeaderView(0).findViewById(R.id.text_view_drawer_header_main_name);
         TextView textViewEmail = navigationView.getHeaderView(0).findViewById(R.id.text_view_drawer_header_main_email);
+        TextView textViewStats = navigationView.getHeaderView(0).findViewById(R.id.text_view_drawer_header_main_stats);
 
         // Inflate items in navigation drawer and handle item clicks in onNavigationItemSelected().
         navigationView.inflateMenu(R.menu.drawer_menu_main);
@@ -82,77 +84,64 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         actionBarDrawerToggle.setDrawerIndicatorEnabled(true);
         actionBarDrawerToggle.syncState();
 
-        // Get information about the logged in user.
+        // Get the id of the logged in user.
         Intent intent = getIntent();
-        loggedInUser = db.getUser(intent.getLongExtra(EXTRA_LOGGED_IN_ID, -1));
-
-        // Populate navigation drawer header with information about the logged in user.
-        textViewFullName.setText(getString(R.string.format_full_name, loggedInUser.getFirstName(), loggedInUser.getLastName()));
-        textViewEmail.setText(loggedInUser.getEmail());
-
-        // Setup quiz questions in an array list.
-        ArrayList<Question> questions = new ArrayList<>();
-        questions.add(new Question(
-                "What types of Fragments are in Android?",
-                "Connected, sparse",
-                "Homologous, heterogeneous",
-                "Synchronous, asynchronous",
-                "Dynamic, static",
-                false,
-                false,
-                false,
-                true
-        ));
-        questions.add(new Question(
-                "Please check all of the traits that make fragments useful.",
-                "They are reusable",
-                "You can dynamically add or remove them during runtime",
-                "They can be used to build a flexible UI",
-                "Fragments have the same lifecycle as their host activity",
-                true,
-                true,
-                false,
-                true
-        ));
-        questions.add(new Question(
-                "In what version of Android was the concept of a Fragment introduced?",
-                "Android 3.4",
-                "Android 2.3",
-                "Android 3.0",
-                "Android 4.0",
-                false,
-                false,
-                true,
-                false
-        ));
-        questions.add(new Question(
-                "What is not a benefit of using Fragment components?",
-                "Fragment components simplify testing needs",
-                "Fragment components greatly improve code reuse",
-                "Fragment components make publication and application package management much less cumbersome",
-                "Fragment components improve battery life",
-                false,
-                false,
-                false,
-                true
-        ));
-        questions.add(new Question(
-                "An update or modification to a Fragment is performed using what?",
-                "A FragmentActivity",
-                "A FragmentTransaction",
-                "A FragmentView",
-                "A FragmentEdit",
-                false,
-                true,
-                false,
-                false
-        ));
-
-        // Initialize the quiz object with the questions in the array list.
-        quiz = new Quiz(questions, loggedInUser.getId(), this);
-
-        // Start the rules fragment by default.
-        startFragment(new RulesFragment(), getString(R.string.fragment_label_rules));
+        loggedInUserId = intent.getLongExtra(EXTRA_LOGGED_IN_ID, QuizViewModel.NO_USER_ID);
+
+        // Without a logged in user there is nothing to show, so go back to the login activity.
+        if (loggedInUserId == QuizViewModel.NO_USER_ID) {
+            finish();
+            return;
+        }
+
+        /* Get the quiz view model shared with the question fragments. If it is new, it loads the
+         * logged in user and draws the first quiz. */
+        viewModel = new ViewModelProvider(this).get(QuizViewModel.class);
+        boolean isNewViewModel = viewModel.init(loggedInUserId);
+
+        // Populate navigation drawer header with information about the logged in user once loaded.
+        viewModel.getLoggedInUser().observe(this, loggedInUser -> {
+            if (loggedInUser == null)
+                return;
+            textViewFullName.setText(getString(R.string.format_full_name, loggedInUser.getFirstName(), loggedInUser.getLastName()));
+            textViewEmail.setText(loggedInUser.getEmail());
+        });
+
+        // Show the logged in user's quiz statistics in the header, updating them as they change.
+        viewModel.getLoggedInUserStats().observe(this, userStats -> {
+            if (userStats == null)
+                return;
+            if (userStats.getCountAttempts() == 0)
+                textViewStats.setText(getString(R.string.text_view_user_stats_empty));
+            else
+                textViewStats.setText(getString(R.string.format_user_stats, userStats.getCountAttempts(), Math.round(userStats.getBestScore() * 100), Math.round(userStats.getAverageScore() * 100)));
+        });
+
+        /* Start the rules fragment by default. If the activity was recreated with its view model
+         * intact, keep the restored fragment and its action bar label instead. */
+        if (savedInstanceState == null || isNewViewModel)
+            startFragment(new RulesFragment(), getString(R.string.fragment_label_rules));
+        else
+            Objects.requireNonNull(getSupportActionBar()).setTitle(savedInstanceState.getCharSequence(STATE_ACTION_BAR_LABEL));
+    }
+
+    /**
+     * Saves the action bar label so it can be restored along with the current fragment.
+     */
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putCharSequence(STATE_ACTION_BAR_LABEL, Objects.requireNonNull(getSupportActionBar()).getTitle());
+    }
+
+    /**
+     * Called when the activity leaves the foreground. Writes any quiz results still waiting in the
+     * result write queue to the database.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+        ResultWriteQueue.getInstance(this).flush(null);
     }
 
     /**
@@ -172,14 +161,22 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
             startFragment(new RulesFragment(), getString(R.string.fragment_label_rules));
             return true;
         } else if (id == R.id.drawer_menu_main_quiz) {
-            startQuestionFragment(quiz.getCurrentQuestion());
+            // The quiz is unavailable until its questions have loaded.
+            if (viewModel.isQuizAvailable())
+                startCurrentQuestionFragment();
             return true;
         } else if (id == R.id.drawer_menu_main_results) {
-            startFragment(new ResultsFragment(), getString(R.string.fragment_label_results));
+            startResultsFragment();
+            return true;
+        } else if (id == R.id.drawer_menu_main_leaderboard) {
+            startFragment(new LeaderboardFragment(), getString(R.string.fragment_label_leaderboard));
+            return true;
+        } else if (id == R.id.drawer_menu_main_item_analysis) {
+            startFragment(new ItemAnalysisFragment(), getString(R.string.fragment_label_item_analysis));
             return true;
         } else if (id == R.id.drawer_menu_main_manage_user) {
             Bundle args = new Bundle();
-            args.putLong(ManageUserFragment.EXTRA_USER_ID, loggedInUser.getId());
+            args.putLong(ManageUserFragment.EXTRA_USER_ID, loggedInUserId);
             startFragmentWithArgs(new ManageUserFragment(), getString(R.string.fragment_label_manage_user), args);
             return true;
         } else if (id == R.id.drawer_menu_main_log_out){
@@ -205,6 +202,13 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         drawerLayout.closeDrawer(GravityCompat.START);
     }
 
+    /**
+     * Starts a results fragment in the fragment container.
+     */
+    public void startResultsFragment() {
+        startFragment(new ResultsFragment(), getString(R.string.fragment_label_results));
+    }
+
     /**
      * Starts a given fragment in the fragment container.
      *
@@ -238,70 +242,38 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
     }
 
     /**
-     * Starts a question fragment in the fragment container for the specified question object.
-     *
-     * @param question   Question object to be displayed in fragment.
+     * Loads the quiz's current question off the main thread. Then, if a question fragment is
+     * already in the fragment container, it only updates the action bar label and lets the
+     * fragment rebind itself to the new question. Otherwise, it starts a question fragment.
      */
-    private void startQuestionFragment(Question question) {
-
-        Fragment fragment;
-        Bundle args = new Bundle();
-
-        // Select the appropriate fragment and arguments based on the number of correct answers in the current question.
-        if (question.getNumberOfCorrectAnswers() == 1) {
-
-            fragment = new QuestionMultipleChoiceFragment();
-
-            args.putString(QuestionMultipleChoiceFragment.EXTRA_QUESTION, question.getQuestion());
-            args.putString(QuestionMultipleChoiceFragment.EXTRA_OPTION_1, question.getOption1());
-            args.putString(QuestionMultipleChoiceFragment.EXTRA_OPTION_2, question.getOption2());
-            args.putString(QuestionMultipleChoiceFragment.EXTRA_OPTION_3, question.getOption3());
-            args.putString(QuestionMultipleChoiceFragment.EXTRA_OPTION_4, question.getOption4());
-        } else {
-
-            fragment = new QuestionMultipleAnswersFragment();
-
-            args.putString(QuestionMultipleAnswersFragment.EXTRA_QUESTION, question.getQuestion());
-            args.putString(QuestionMultipleAnswersFragment.EXTRA_OPTION_1, question.getOption1());
-            args.putString(QuestionMultipleAnswersFragment.EXTRA_OPTION_2, question.getOption2());
-            args.putString(QuestionMultipleAnswersFragment.EXTRA_OPTION_3, question.getOption3());
-            args.putString(QuestionMultipleAnswersFragment.EXTRA_OPTION_4, question.getOption4());
-        }
-
-        // Start the selected question fragment with arguments.
-        startFragmentWithArgs(
-                fragment,
-                getString(R.string.fragment_label_question, Integer.toString(quiz.getIndexCurrentQuestion() + 1), Integer.toString(quiz.getCountTotalQuestions())),
-                args
-        );
+    private void startCurrentQuestionFragment() {
+        viewModel.loadCurrentQuestion(question -> {
+            String actionBarLabel = getString(R.string.fragment_label_question, Integer.toString(viewModel.getIndexCurrentQuestion() + 1), Integer.toString(viewModel.getCountTotalQuestions()));
+            if (getSupportFragmentManager().findFragmentById(R.id.fragment_container_main) instanceof QuestionFragment)
+                Objects.requireNonNull(getSupportActionBar()).setTitle(actionBarLabel);
+            else
+                startFragment(new QuestionFragment(), actionBarLabel);
+        });
     }
 
     /**
-     * First it has the quiz object grade the current question and increment to the next question.
-     * Then, it starts a new question fragment for the new current question in the fragment
-     * container. If there are no further questions in the quiz, it has the quiz object record the
-     * quiz result and reset the quiz. Then, it starts a results fragment in the fragment container.
+     * First it has the quiz view model grade the current question and increment to the next
+     * question. Then, it loads the new current question, which the question fragment in the
+     * fragment container rebinds itself to. If there are no further questions in the quiz, the
+     * view model records the quiz result and draws a new quiz, and a quiz result fragment showing
+     * how the completed quiz ranks is started in the fragment container.
      *
-     * @param userSelectionOption1  User selection for option 1 of the question object to be graded.
-     * @param userSelectionOption2  User selection for option 2 of the question object to be graded.
-     * @param userSelectionOption3  User selection for option 3 of the question object to be graded.
-     * @param userSelectionOption4  User selection for option 4 of the question object to be graded.
+     * @param userSelection  Bitmask of the options the user selected, where bit i is set if the
+     *                       option shown at position i was selected.
      */
-    public void incrementQuiz(boolean userSelectionOption1, boolean userSelectionOption2, boolean userSelectionOption3, boolean userSelectionOption4) {
-
-        // Have quiz object grade the current question and increment to the next question.
-        quiz.gradeCurrentQuestion(userSelectionOption1, userSelectionOption2, userSelectionOption3, userSelectionOption4);
-        quiz.incrementCurrentQuestion();
-
-        /* If the quiz is not complete, start a question fragment for the new current question.
-         * Otherwise, have quiz object record the quiz result and reset the quiz. Then, start a
-         * results fragment. */
-        if (!quiz.isQuizComplete()) {
-            startQuestionFragment(quiz.getCurrentQuestion());
-        } else {
-            quiz.recordQuizResult();
-            quiz.resetQuiz();
-            startFragment(new ResultsFragment(), getString(R.string.fragment_label_results));
-        }
+    public void incrementQuiz(long userSelection) {
+        if (viewModel.submitAnswer(userSelection)) {
+            Quiz completedQuiz = viewModel.getCompletedQuiz();
+            Bundle args = new Bundle();
+            args.putInt(QuizResultFragment.EXTRA_COUNT_QUESTIONS_CORRECT, completedQuiz.getCountQuestionsCorrect());
+            args.putInt(QuizResultFragment.EXTRA_COUNT_TOTAL_QUESTIONS, completedQuiz.getCountTotalQuestions());
+            startFragmentWithArgs(new QuizResultFragment(), getString(R.string.fragment_label_quiz_result), args);
+        } else
+            startCurrentQuestionFragment();
     }
 }
@@ -9,6 +9,7 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
 import com.davidread.quizgame.Utilities.DatabaseHelper;
 import com.google.android.material.datepicker.CalendarConstraints;
 import com.google.android.material.datepicker.DateValidatorPointBackward;
@@ -48,7 +49,7 @@ public class RegisterActivity extends AppCompatActivity implements MaterialPicke
         buttonRegister = findViewById(R.id.button_register);
 
         // Setup database helper.
-        db = new DatabaseHelper(this);
+        db = DatabaseHelper.getInstance(this);
 
         /* Setup calendar constraints for date picker. Use it to restrict the date picker to dates
          * before the current date. */
@@ -137,9 +138,6 @@ public class RegisterActivity extends AppCompatActivity implements MaterialPicke
             } else if (!Patterns.EMAIL_ADDRESS.matcher(email).matches()) {
                 textInputEditTextEmail.setError(getString(R.string.toast_error_email_field_invalid));
                 invalidTextFieldDetected = true;
-            } else if (db.isEmailTakenByUser(email)) {
-                textInputEditTextEmail.setError(getString(R.string.toast_error_email_field_taken));
-                invalidTextFieldDetected = true;
             }
 
             // Validate password field.
@@ -151,11 +149,18 @@ public class RegisterActivity extends AppCompatActivity implements MaterialPicke
                 invalidTextFieldDetected = true;
             }
 
-            // If no invalid fields detected, insert a new user into the database and finish the activity.
+            /* If no invalid fields detected, insert a new user into the database and finish the
+             * activity. The email check and the insert run together on the database writer thread
+             * so that two registrations cannot claim the same email. */
             if (!invalidTextFieldDetected) {
-                db.insertUser(firstName, lastName, dateOfBirth, email, password);
-                Toast.makeText(RegisterActivity.this, R.string.toast_success_user_created, Toast.LENGTH_SHORT).show();
-                finish();
+                DatabaseExecutor.getInstance().write(() -> db.isEmailTakenByUser(email) ? -1 : db.insertUser(firstName, lastName, dateOfBirth, email, password), userId -> {
+                    if (userId == -1) {
+                        textInputEditTextEmail.setError(getString(R.string.toast_error_email_field_taken));
+                    } else {
+                        Toast.makeText(RegisterActivity.this, R.string.toast_success_user_created, Toast.LENGTH_SHORT).show();
+                        finish();
+                    }
+                });
             }
         }
     }
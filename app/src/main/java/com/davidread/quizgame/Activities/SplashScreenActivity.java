@@ -5,33 +5,91 @@ import androidx.appcompat.app.AppCompatActivity;
 import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 
 import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
+import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+import com.davidread.quizgame.Utilities.StartupMetrics;
+import com.davidread.quizgame.ViewModels.QuizViewModel;
 
 /**
- * This activity class represents a splash screen.
+ * This activity class represents a splash screen. While it is shown, startup work runs in the
+ * background so that later screens find the database ready.
  */
 public class SplashScreenActivity extends AppCompatActivity {
 
+    // Minimum time the splash screen is shown, so that it does not just flash on a fast start.
+    private static final long MIN_DISPLAY_MILLIS = 500;
+
+    // Activity objects.
+    private long createdUptimeMillis;
+    private String startType;
+    private int pendingTaskCount;
+    private long warmUpMillis;
+
     /**
      * Called when activity is initially created. Hides the action bar, inflates a splash screen
-     * layout, and waits two seconds before starting the login activity.
+     * layout, and starts the warm-up work. The login activity is started once the work is done and
+     * the splash screen has been shown for its minimum time.
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdUptimeMillis = SystemClock.uptimeMillis();
+        startType = StartupMetrics.beginStart();
 
         // Hide the action bar and inflate the splash screen layout.
         getSupportActionBar().hide();
         setContentView(R.layout.activity_splash_screen);
 
-        // Wait two seconds before starting the login activity.
-        new Handler().postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                Intent intent = new Intent(SplashScreenActivity.this, LoginActivity.class);
-                startActivity(intent);
-            }
-        }, 2000);
+        DatabaseHelper db = DatabaseHelper.getInstance(this);
+        DatabaseExecutor executor = DatabaseExecutor.getInstance();
+        pendingTaskCount = 3;
+
+        /* Open the database, which creates or migrates it, and compile the hot statements on the
+         * writer thread. At the same time, prefetch the question bank on a reader thread, which
+         * waits for the database to open and then runs alongside the statement compilation. */
+        executor.write(db::warmUp, this::onTaskComplete);
+        executor.read(() -> db.prefetchQuestions(QuizViewModel.QUIZ_CATEGORY), questionCount -> onTaskComplete());
+
+        // Replay any quiz results left over from the last process and write them to the database.
+        ResultWriteQueue.getInstance(this).flush(this::onTaskComplete);
+
+        /* Delete answer events past their retention period. This is queued behind the warm-up
+         * work on the writer thread and the splash screen does not wait for it. */
+        executor.write(() -> {
+            db.deleteExpiredAnswerEvents();
+        }, null);
+    }
+
+    /**
+     * Called on the main thread when a warm-up task finishes. Once every task is done, starts the
+     * login activity as soon as the minimum display time has passed.
+     */
+    private void onTaskComplete() {
+        if (--pendingTaskCount > 0)
+            return;
+
+        warmUpMillis = SystemClock.uptimeMillis() - createdUptimeMillis;
+        long remainingMillis = Math.max(0, MIN_DISPLAY_MILLIS - warmUpMillis);
+        new Handler(Looper.getMainLooper()).postDelayed(this::startLoginActivity, remainingMillis);
+    }
+
+    /**
+     * Records the startup metrics and starts the login activity, unless the splash screen was
+     * destroyed in the meantime.
+     */
+    private void startLoginActivity() {
+        if (isDestroyed())
+            return;
+
+        long startMillis = SystemClock.uptimeMillis() - StartupMetrics.getStartUptimeMillis(startType, createdUptimeMillis);
+        StartupMetrics.record(this, startType, startMillis, warmUpMillis);
+
+        Intent intent = new Intent(SplashScreenActivity.this, LoginActivity.class);
+        startActivity(intent);
     }
 }
\ No newline at end of file
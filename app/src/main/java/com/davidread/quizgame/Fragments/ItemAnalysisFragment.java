@@ -0,0 +1,68 @@
+package com.davidread.quizgame.Fragments;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.DefaultItemAnimator;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
+import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.ItemAnalysisAdapter;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+
+/**
+ * This fragment class represents a screen with the item analysis of the question bank. Every
+ * answered question is listed from the hardest to the easiest with its correct rate, attempts,
+ * average response time, and discrimination, and questions that may need review are flagged. The
+ * list comes from the question stats table, which is kept up to date as answers are recorded, so
+ * loading it does not read any answers.
+ */
+public class ItemAnalysisFragment extends Fragment {
+
+    /**
+     * Returns a view that represents the item analysis.
+     */
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+
+        // Inflate a layout for the item analysis.
+        View rootView = inflater.inflate(R.layout.fragment_item_analysis, container, false);
+
+        // Initialize recycler view and empty text view from the layout.
+        RecyclerView recyclerViewItemAnalysis = rootView.findViewById(R.id.recycler_view_item_analysis);
+        TextView textViewRecyclerViewItemAnalysisEmpty = rootView.findViewById(R.id.text_view_recycler_view_item_analysis_empty);
+
+        // Setup item analysis adapter and other aspects of the recycler view.
+        DatabaseHelper db = DatabaseHelper.getInstance(getContext());
+        ItemAnalysisAdapter itemAnalysisAdapter = new ItemAnalysisAdapter(getContext());
+        recyclerViewItemAnalysis.setAdapter(itemAnalysisAdapter);
+        recyclerViewItemAnalysis.setLayoutManager(new LinearLayoutManager(getContext().getApplicationContext()));
+        recyclerViewItemAnalysis.setItemAnimator(new DefaultItemAnimator());
+        recyclerViewItemAnalysis.addItemDecoration(new DividerItemDecoration(getContext(), DividerItemDecoration.VERTICAL));
+
+        /* Write any pending answers so that the analysis includes them, then load the stats off the
+         * main thread. Afterwards, change the visibility of the empty text view depending on
+         * whether any question has been answered. */
+        textViewRecyclerViewItemAnalysisEmpty.setVisibility(View.GONE);
+        ResultWriteQueue.getInstance(getContext()).flush(() ->
+                DatabaseExecutor.getInstance().read(db::getQuestionStats, questionStatsList -> {
+                    if (getView() == null)
+                        return;
+                    itemAnalysisAdapter.setQuestionStats(questionStatsList);
+                    textViewRecyclerViewItemAnalysisEmpty.setVisibility(questionStatsList.isEmpty() ? View.VISIBLE : View.GONE);
+                }));
+
+        return rootView;
+    }
+}
@@ -0,0 +1,96 @@
+package com.davidread.quizgame.Fragments;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.DefaultItemAnimator;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
+import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.LeaderboardAdapter;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+
+/**
+ * This fragment class represents a screen with a leaderboard of the top users, ranked by either
+ * their best or their average score. The ranking comes from the user stats table, which is kept up
+ * to date as results are recorded and deleted, so loading it does not read any results.
+ */
+public class LeaderboardFragment extends Fragment implements RadioGroup.OnCheckedChangeListener {
+
+    // Number of users shown on the leaderboard.
+    private static final int LEADERBOARD_SIZE = 50;
+
+    // Fragment objects.
+    private DatabaseHelper db;
+    private LeaderboardAdapter leaderboardAdapter;
+    private TextView textViewRecyclerViewLeaderboardEmpty;
+
+    // Number of leaderboard loads started, used to drop loads that were overtaken by a newer one.
+    private int loadCount;
+
+    /**
+     * Returns a view that represents a leaderboard.
+     */
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+
+        // Inflate a layout for a leaderboard.
+        View rootView = inflater.inflate(R.layout.fragment_leaderboard, container, false);
+
+        // Initialize radio group, recycler view, and empty text view from the layout.
+        RadioGroup radioGroupRanking = rootView.findViewById(R.id.radio_group_leaderboard_ranking);
+        RecyclerView recyclerViewLeaderboard = rootView.findViewById(R.id.recycler_view_leaderboard);
+        textViewRecyclerViewLeaderboardEmpty = rootView.findViewById(R.id.text_view_recycler_view_leaderboard_empty);
+
+        // Setup leaderboard adapter and other aspects of the recycler view.
+        db = DatabaseHelper.getInstance(getContext());
+        leaderboardAdapter = new LeaderboardAdapter(getContext());
+        recyclerViewLeaderboard.setAdapter(leaderboardAdapter);
+        recyclerViewLeaderboard.setLayoutManager(new LinearLayoutManager(getContext().getApplicationContext()));
+        recyclerViewLeaderboard.setItemAnimator(new DefaultItemAnimator());
+        recyclerViewLeaderboard.addItemDecoration(new DividerItemDecoration(getContext(), DividerItemDecoration.VERTICAL));
+
+        /* Reload the leaderboard whenever the ranking is switched, and write any pending quiz
+         * results before the first load so that the leaderboard includes them. */
+        radioGroupRanking.setOnCheckedChangeListener(this);
+        textViewRecyclerViewLeaderboardEmpty.setVisibility(View.GONE);
+        ResultWriteQueue.getInstance(getContext()).flush(() -> loadLeaderboard(radioGroupRanking.getCheckedRadioButtonId() == R.id.radio_button_leaderboard_average_score));
+
+        return rootView;
+    }
+
+    /**
+     * Called when the ranking is switched. Reloads the leaderboard in the new ranking.
+     */
+    @Override
+    public void onCheckedChanged(RadioGroup group, int checkedId) {
+        loadLeaderboard(checkedId == R.id.radio_button_leaderboard_average_score);
+    }
+
+    /**
+     * Loads the leaderboard off the main thread and shows it, ranked by average score if the flag
+     * is set and by best score otherwise. Then, changes the visibility of the empty text view
+     * depending on whether there are any entries.
+     */
+    private void loadLeaderboard(boolean isByAverageScore) {
+        int load = ++loadCount;
+        DatabaseExecutor.getInstance().read(() -> db.getLeaderboard(isByAverageScore, LEADERBOARD_SIZE), leaderboard -> {
+            if (load != loadCount || getView() == null)
+                return;
+            leaderboardAdapter.setLeaderboard(leaderboard, isByAverageScore);
+            textViewRecyclerViewLeaderboardEmpty.setVisibility(leaderboard.isEmpty() ? View.VISIBLE : View.GONE);
+        });
+    }
+}
@@ -4,12 +4,16 @@ import android.app.AlertDialog;
 import android.content.DialogInterface;
 import android.os.Bundle;
 
+import androidx.lifecycle.ViewModelProvider;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceFragmentCompat;
 
 import com.davidread.quizgame.Activities.MainActivity;
 import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
 import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+import com.davidread.quizgame.ViewModels.QuizViewModel;
 
 /**
  * This fragment class represents a settings screen for a single logged-in user.
@@ -26,6 +30,7 @@ public class ManageUserFragment extends PreferenceFragmentCompat implements Pref
     // Fragment objects.
     private long userId;
     private DatabaseHelper db;
+    private ResultWriteQueue resultWriteQueue;
     private AlertDialog alertDialogDeleteResults;
     private AlertDialog alertDialogDeleteUser;
 
@@ -52,8 +57,9 @@ public class ManageUserFragment extends PreferenceFragmentCompat implements Pref
         preferenceDeleteResults.setOnPreferenceClickListener(this);
         preferenceDeleteUser.setOnPreferenceClickListener(this);
 
-        // Initialize the database helper.
-        db = new DatabaseHelper(getContext());
+        // Initialize the database helper and the result write queue.
+        db = DatabaseHelper.getInstance(getContext());
+        resultWriteQueue = ResultWriteQueue.getInstance(getContext());
 
         // Setup confirmation dialogs for each preference.
         AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
@@ -93,17 +99,30 @@ public class ManageUserFragment extends PreferenceFragmentCompat implements Pref
     @Override
     public void onClick(DialogInterface dialog, int which) {
 
-        // Deletes results for the logged in user.
+        /* Deletes results for the logged in user, including any not yet written, and refreshes the
+         * stats shown for them. */
         if (dialog == alertDialogDeleteResults) {
-            db.deleteResultsForUser(userId);
+            DatabaseExecutor.getInstance().write(() -> {
+                resultWriteQueue.removePendingResultsForUser(userId);
+                db.deleteResultsForUser(userId);
+            }, () -> {
+                if (getActivity() != null)
+                    new ViewModelProvider(requireActivity()).get(QuizViewModel.class).refreshLoggedInUserStats();
+            });
         }
 
         /* Deletes results for the logged-in user, deletes the logged-in user, and logs the
-         * logged-in user out of the app. */
+         * logged-in user out of the app once both deletes are done. */
         else if (dialog == alertDialogDeleteUser) {
-            db.deleteResultsForUser(userId);
-            db.deleteUser(userId);
-            ((MainActivity)getActivity()).finish();
+            DatabaseExecutor.getInstance().write(() -> {
+                resultWriteQueue.removePendingResultsForUser(userId);
+                db.deleteResultsForUser(userId);
+                db.deleteUser(userId);
+            }, () -> {
+                MainActivity mainActivity = (MainActivity) getActivity();
+                if (mainActivity != null)
+                    mainActivity.finish();
+            });
         }
     }
 }
@@ -0,0 +1,241 @@
+package com.davidread.quizgame.Fragments;
+
+import android.app.AlertDialog;
+import android.content.DialogInterface;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.CompoundButton;
+import android.widget.LinearLayout;
+import android.widget.RadioGroup;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModelProvider;
+
+import com.davidread.quizgame.Activities.MainActivity;
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.R;
+import com.davidread.quizgame.ViewModels.QuizViewModel;
+
+import java.util.Arrays;
+
+/**
+ * This fragment class represents a screen with a quiz question with a text view for the question,
+ * an option for each answer to choose from, and a button to increment the quiz. A confirmation
+ * dialog is shown to confirm the increment of the quiz.
+ *
+ * The fragment stays attached for the whole quiz and rebinds itself in place whenever the current
+ * question of the shared quiz view model changes. Questions with one correct answer are shown with
+ * radio buttons and questions with several correct answers with checkboxes. Both kinds of option
+ * views are kept in pools that only grow, and unused views are hidden, so moving from question to
+ * question inflates nothing once the pools are large enough.
+ */
+public class QuestionFragment extends Fragment implements View.OnClickListener, DialogInterface.OnClickListener {
+
+    // Number of option views of each kind inflated up front.
+    private static final int INITIAL_POOL_SIZE = 4;
+
+    // Saved instance state constants.
+    private static final String STATE_QUESTION_INDEX = "question_index";
+    private static final String STATE_USER_SELECTION = "user_selection";
+
+    // Fragment objects.
+    private LayoutInflater inflater;
+    private TextView textViewQuestion;
+    private RadioGroup radioGroupOptions;
+    private LinearLayout linearLayoutOptions;
+    private Button buttonNext;
+    private AlertDialog alertDialog;
+    private QuizViewModel viewModel;
+
+    // Option view pools and the state of the bound question.
+    private CompoundButton[] radioButtonPool = new CompoundButton[0];
+    private CompoundButton[] checkBoxPool = new CompoundButton[0];
+    private CompoundButton[] boundOptions = radioButtonPool;
+    private int boundOptionCount;
+    private int boundQuestionIndex = -1;
+
+    // Selection made before the fragment was recreated, applied when its question is bound again.
+    private int restoredQuestionIndex = -1;
+    private long restoredUserSelection;
+
+    /**
+     * Returns a view that represents a quiz question.
+     */
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+
+        // Inflate a layout for a quiz question.
+        View rootView = inflater.inflate(R.layout.fragment_question, container, false);
+        this.inflater = inflater;
+
+        // Initialize text view, option containers, and button from the layout.
+        textViewQuestion = rootView.findViewById(R.id.text_view_question);
+        radioGroupOptions = rootView.findViewById(R.id.radio_group_options);
+        linearLayoutOptions = rootView.findViewById(R.id.linear_layout_options);
+        buttonNext = rootView.findViewById(R.id.button_next);
+
+        // Fill both option view pools so that typical questions need no inflation later.
+        radioButtonPool = growPool(radioButtonPool, radioGroupOptions, R.layout.view_option_radio_button, INITIAL_POOL_SIZE);
+        checkBoxPool = growPool(checkBoxPool, linearLayoutOptions, R.layout.view_option_checkbox, INITIAL_POOL_SIZE);
+        boundOptions = radioButtonPool;
+        boundOptionCount = 0;
+        boundQuestionIndex = -1;
+
+        // Keep the selection made before the fragment was recreated until its question is bound.
+        if (savedInstanceState != null) {
+            restoredQuestionIndex = savedInstanceState.getInt(STATE_QUESTION_INDEX, -1);
+            restoredUserSelection = savedInstanceState.getLong(STATE_USER_SELECTION);
+        }
+
+        // Setup button with listener.
+        buttonNext.setOnClickListener(this);
+
+        // Setup confirmation dialog.
+        AlertDialog.Builder builder = new AlertDialog.Builder(getContext());
+        builder.setTitle(getString(R.string.dialog_confirm_answer_title));
+        builder.setMessage(getString(R.string.dialog_confirm_answer_message));
+        builder.setPositiveButton(getString(R.string.dialog_confirm_positive_button), this);
+        builder.setNegativeButton(getString(R.string.dialog_confirm_negative_button), null);
+        alertDialog = builder.create();
+
+        return rootView;
+    }
+
+    /**
+     * Called once the view is created. Binds the view to the current question of the quiz view
+     * model shared with the main activity, and rebinds it each time the current question changes.
+     * While the next question loads, the next button is disabled.
+     */
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+
+        viewModel = new ViewModelProvider(requireActivity()).get(QuizViewModel.class);
+        viewModel.getCurrentQuestion().observe(getViewLifecycleOwner(), question -> {
+            if (question == null) {
+                buttonNext.setEnabled(false);
+            } else if (viewModel.getIndexCurrentQuestion() != boundQuestionIndex) {
+                bindQuestion(question, viewModel.getIndexCurrentQuestion(), viewModel.getOptionOrder());
+                buttonNext.setEnabled(true);
+            }
+        });
+    }
+
+    /**
+     * Saves the bound question index and the options the user has selected so far.
+     */
+    @Override
+    public void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        if (boundQuestionIndex != -1) {
+            outState.putInt(STATE_QUESTION_INDEX, boundQuestionIndex);
+            outState.putLong(STATE_USER_SELECTION, getUserSelection());
+        } else {
+            outState.putInt(STATE_QUESTION_INDEX, restoredQuestionIndex);
+            outState.putLong(STATE_USER_SELECTION, restoredUserSelection);
+        }
+    }
+
+    /**
+     * Rebinds the view to the given question. The question text is replaced, the option views of
+     * the right kind are given the question's options in the order the quiz shows them, and every
+     * other option view is hidden. Options are cleared unless they were selected for this question
+     * before the fragment was recreated.
+     */
+    private void bindQuestion(Question question, int questionIndex, int[] optionOrder) {
+
+        textViewQuestion.setText(question.getQuestion());
+
+        // Pick the radio buttons for a single correct answer and checkboxes otherwise.
+        boolean isMultipleChoice = question.getNumberOfCorrectAnswers() == 1;
+        int numberOfOptions = question.getNumberOfOptions();
+        if (isMultipleChoice) {
+            radioButtonPool = growPool(radioButtonPool, radioGroupOptions, R.layout.view_option_radio_button, numberOfOptions);
+            boundOptions = radioButtonPool;
+            radioGroupOptions.clearCheck();
+        } else {
+            checkBoxPool = growPool(checkBoxPool, linearLayoutOptions, R.layout.view_option_checkbox, numberOfOptions);
+            boundOptions = checkBoxPool;
+        }
+        radioGroupOptions.setVisibility(isMultipleChoice ? View.VISIBLE : View.GONE);
+        linearLayoutOptions.setVisibility(isMultipleChoice ? View.GONE : View.VISIBLE);
+
+        // Selections only carry over to the question they were made for.
+        long userSelection = questionIndex == restoredQuestionIndex ? restoredUserSelection : 0;
+        restoredQuestionIndex = -1;
+
+        // Populate the option views in use and hide the rest.
+        for (int i = 0; i < boundOptions.length; i++) {
+            CompoundButton option = boundOptions[i];
+            if (i < numberOfOptions) {
+                option.setText(question.getOption(optionOrder[i]));
+                option.setChecked((userSelection & (1L << i)) != 0);
+                option.setVisibility(View.VISIBLE);
+            } else {
+                option.setChecked(false);
+                option.setVisibility(View.GONE);
+            }
+        }
+
+        boundOptionCount = numberOfOptions;
+        boundQuestionIndex = questionIndex;
+    }
+
+    /**
+     * Returns the given pool, grown to at least the given size by inflating option views of the
+     * given layout into the container. New views are added in order before any other child views.
+     */
+    private CompoundButton[] growPool(CompoundButton[] pool, ViewGroup container, int layout, int size) {
+        if (pool.length >= size)
+            return pool;
+        CompoundButton[] grownPool = Arrays.copyOf(pool, size);
+        for (int i = pool.length; i < size; i++) {
+            grownPool[i] = (CompoundButton) inflater.inflate(layout, container, false);
+            grownPool[i].setVisibility(View.GONE);
+            container.addView(grownPool[i], i);
+        }
+        return grownPool;
+    }
+
+    /**
+     * Click listener for the next button. It shows the confirmation dialog if an answer selection
+     * has been made.
+     */
+    @Override
+    public void onClick(View v) {
+        if (getUserSelection() != 0)
+            alertDialog.show();
+        else
+            Toast.makeText(getContext(), getString(R.string.toast_error_answer_selection_empty), Toast.LENGTH_SHORT).show();
+    }
+
+    /**
+     * Click listener for the positive button in the confirmation dialog. It calls incrementQuiz()
+     * in the main activity.
+     */
+    @Override
+    public void onClick(DialogInterface dialog, int which) {
+        ((MainActivity)getActivity()).incrementQuiz(getUserSelection());
+    }
+
+    /**
+     * Returns a bitmask of the checked options of the bound question, where bit i is set if the
+     * option shown at position i is checked.
+     */
+    private long getUserSelection() {
+        long userSelection = 0;
+        for (int i = 0; i < boundOptionCount; i++) {
+            if (boundOptions[i].isChecked())
+                userSelection |= 1L << i;
+        }
+        return userSelection;
+    }
+}
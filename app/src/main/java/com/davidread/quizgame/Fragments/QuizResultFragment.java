@@ -0,0 +1,81 @@
+package com.davidread.quizgame.Fragments;
+
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.fragment.app.Fragment;
+
+import com.davidread.quizgame.Activities.MainActivity;
+import com.davidread.quizgame.Models.ScoreHistogram;
+import com.davidread.quizgame.R;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+import com.davidread.quizgame.Views.HistogramView;
+
+/**
+ * This fragment class represents the screen shown when a quiz is finished. It has the score of the
+ * quiz, the share of all other attempts it beat, a histogram of the scores of all attempts with the
+ * quiz's score highlighted, and a button to see the full list of results. The ranking and the
+ * histogram come from the score histogram table, so they take the same time to load no matter how
+ * many results are stored.
+ */
+public class QuizResultFragment extends Fragment implements View.OnClickListener {
+
+    // Intent extra constants.
+    public static final String EXTRA_COUNT_QUESTIONS_CORRECT = "count_questions_correct";
+    public static final String EXTRA_COUNT_TOTAL_QUESTIONS = "count_total_questions";
+
+    /**
+     * Returns a view that represents a finished quiz.
+     */
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
+
+        // Inflate a layout for a finished quiz.
+        View rootView = inflater.inflate(R.layout.fragment_quiz_result, container, false);
+
+        // Initialize text views, histogram view, and button from the layout.
+        TextView textViewScore = rootView.findViewById(R.id.text_view_quiz_result_score);
+        TextView textViewPercentile = rootView.findViewById(R.id.text_view_quiz_result_percentile);
+        HistogramView histogramView = rootView.findViewById(R.id.histogram_view_quiz_result);
+        Button buttonSeeAllResults = rootView.findViewById(R.id.button_see_all_results);
+        buttonSeeAllResults.setOnClickListener(this);
+
+        // Show the score of the finished quiz.
+        int countQuestionsCorrect = getArguments().getInt(EXTRA_COUNT_QUESTIONS_CORRECT);
+        int countTotalQuestions = getArguments().getInt(EXTRA_COUNT_TOTAL_QUESTIONS);
+        textViewScore.setText(getString(R.string.format_result, countQuestionsCorrect, countTotalQuestions));
+        int bucket = ScoreHistogram.getBucket(countQuestionsCorrect, countTotalQuestions);
+
+        /* Rank the score against every other attempt, including pending ones such as this one, and
+         * draw the histogram. */
+        ResultWriteQueue resultWriteQueue = ResultWriteQueue.getInstance(getContext());
+        DatabaseExecutor.getInstance().write(resultWriteQueue::getScoreHistogram, histogram -> {
+            if (getView() == null)
+                return;
+            if (histogram.getTotalCount() <= 1)
+                textViewPercentile.setText(getString(R.string.text_view_quiz_result_percentile_first));
+            else
+                textViewPercentile.setText(getString(R.string.format_quiz_result_percentile, Math.round(histogram.getFractionOfOthersBelow(bucket) * 100)));
+            histogramView.setHistogram(histogram, bucket);
+        });
+
+        return rootView;
+    }
+
+    /**
+     * Click listener for the see all results button. It starts the results fragment in the main
+     * activity.
+     */
+    @Override
+    public void onClick(View v) {
+        ((MainActivity) getActivity()).startResultsFragment();
+    }
+}
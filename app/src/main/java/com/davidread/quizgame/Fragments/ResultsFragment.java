@@ -14,19 +14,19 @@ import androidx.recyclerview.widget.DividerItemDecoration;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.davidread.quizgame.Models.Result;
-import com.davidread.quizgame.Models.User;
 import com.davidread.quizgame.R;
 import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
 import com.davidread.quizgame.Utilities.ResultsAdapter;
 
-import java.util.ArrayList;
-
 /**
  * This fragment class represents a screen with a list of quiz results of past attempts.
  */
 public class ResultsFragment extends Fragment {
 
+    // Number of unseen results left below the last visible row before the next page is loaded.
+    private static final int PREFETCH_DISTANCE = 10;
+
     /**
      * Returns a view that represents a list of quiz results.
      */
@@ -41,26 +41,36 @@ public class ResultsFragment extends Fragment {
         RecyclerView recyclerViewResults = rootView.findViewById(R.id.recycler_view_results);
         TextView textViewRecyclerViewResultsEmpty = rootView.findViewById(R.id.text_view_recycler_view_results_empty);
 
-        // Get array list of results and users from the database.
-        DatabaseHelper db = new DatabaseHelper(getContext());
-        ArrayList<Result> results = db.getAllResults();
-        ArrayList<User> users = db.getAllUsers();
-
         // Setup results adapter for recycler view.
-        ResultsAdapter resultsAdapter = new ResultsAdapter(getContext(), results, users);
+        DatabaseHelper db = DatabaseHelper.getInstance(getContext());
+        ResultsAdapter resultsAdapter = new ResultsAdapter(getContext(), db);
         recyclerViewResults.setAdapter(resultsAdapter);
 
+        /* Write any pending quiz results so that the list includes them, and load the first page.
+         * Then, change the visibility of the empty text view depending on whether there are any
+         * results. */
+        textViewRecyclerViewResultsEmpty.setVisibility(View.GONE);
+        ResultWriteQueue.getInstance(getContext()).flush(() -> resultsAdapter.loadNextPage(() -> {
+            if (resultsAdapter.getItemCount() > 0)
+                textViewRecyclerViewResultsEmpty.setVisibility(View.GONE);
+            else
+                textViewRecyclerViewResultsEmpty.setVisibility(View.VISIBLE);
+        }));
+
         // Setup other aspects of the recycler view.
-        RecyclerView.LayoutManager layoutManager = new LinearLayoutManager(getContext().getApplicationContext());
+        LinearLayoutManager layoutManager = new LinearLayoutManager(getContext().getApplicationContext());
         recyclerViewResults.setLayoutManager(layoutManager);
         recyclerViewResults.setItemAnimator(new DefaultItemAnimator());
         recyclerViewResults.addItemDecoration(new DividerItemDecoration(getContext(), DividerItemDecoration.VERTICAL));
 
-        // Change the visibility of the empty text view depending on whether there are results in the array list.
-        if (results.size() > 0)
-            textViewRecyclerViewResultsEmpty.setVisibility(View.GONE);
-        else
-            textViewRecyclerViewResultsEmpty.setVisibility(View.VISIBLE);
+        // Load the next page of results once the user scrolls near the end of the loaded results.
+        recyclerViewResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (resultsAdapter.hasMorePages() && layoutManager.findLastVisibleItemPosition() >= resultsAdapter.getItemCount() - PREFETCH_DISTANCE)
+                    resultsAdapter.loadNextPage(null);
+            }
+        });
 
         return rootView;
     }
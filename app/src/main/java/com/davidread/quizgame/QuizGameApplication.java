@@ -0,0 +1,32 @@
+package com.davidread.quizgame;
+
+import android.app.Application;
+import android.os.StrictMode;
+
+import com.davidread.quizgame.Utilities.StartupMetrics;
+
+/**
+ * This application class sets up process-wide state before any activity is created.
+ */
+public class QuizGameApplication extends Application {
+
+    /**
+     * Called when the application process is created. It marks the start of the process for the
+     * startup metrics. In debug builds, it enables a StrictMode policy that reports disk reads and
+     * writes on the main thread. Database calls on the main thread are additionally rejected by the
+     * DatabaseHelper itself.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        StartupMetrics.markProcessStart();
+
+        if (BuildConfig.DEBUG) {
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .penaltyLog()
+                    .build());
+        }
+    }
+}
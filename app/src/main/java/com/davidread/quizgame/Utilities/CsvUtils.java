@@ -0,0 +1,116 @@
+package com.davidread.quizgame.Utilities;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * This utility class reads, parses, and formats records of comma-separated values. Fields may be
+ * wrapped in double quotes, in which case they may contain commas, doubled quotes, and line
+ * breaks, so a single record may span several lines.
+ */
+public class CsvUtils {
+
+    /**
+     * Reads the next record from the reader. This is one line, joined with as many following lines
+     * as it takes to close a quoted field that contains line breaks. Line breaks inside quoted
+     * fields are returned as \n. Returns null at the end of the stream, and throws if the stream
+     * ends inside a quoted field.
+     */
+    public static String readRecord(BufferedReader reader) throws IOException {
+
+        String line = reader.readLine();
+        if (line == null)
+            return null;
+
+        /* Every quote opens or closes a quoted field or is half of a doubled quote, so an odd
+         * count means the record continues on the next line. */
+        StringBuilder record = new StringBuilder(line);
+        int countQuotes = countQuotes(line);
+        while (countQuotes % 2 != 0) {
+            line = reader.readLine();
+            if (line == null)
+                throw new IOException("Quoted field is not closed before the end of the stream");
+            record.append('\n').append(line);
+            countQuotes += countQuotes(line);
+        }
+
+        return record.toString();
+    }
+
+    /**
+     * Returns the number of double quotes in the given line.
+     */
+    private static int countQuotes(String line) {
+        int count = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"')
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Splits a record of comma-separated values into its fields, removing any quoting.
+     */
+    public static String[] parseLine(String line) {
+
+        ArrayList<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    inQuotes = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Appends a field to the given builder, quoting it if it contains a comma, quote, or line
+     * break. A null field is appended as an empty field.
+     */
+    public static void appendField(StringBuilder builder, String field) {
+
+        if (field == null)
+            return;
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < field.length() && !needsQuotes; i++) {
+            char c = field.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            builder.append(field);
+            return;
+        }
+
+        builder.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"')
+                builder.append('"');
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+}
@@ -0,0 +1,217 @@
+package com.davidread.quizgame.Utilities;
+
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This utility class exports users and results from the database to an output stream, in the
+ * format read back by DataImporter. Rows are read from a cursor and written through a fixed-size
+ * buffer one at a time, so memory use stays constant no matter how many rows are exported. To
+ * write to a file descriptor, wrap it in a ParcelFileDescriptor.AutoCloseOutputStream.
+ *
+ * Exports only read the database and should be run on a database reader thread, for example
+ * through DatabaseExecutor.read().
+ */
+public class DataExporter {
+
+    // Tag used for logging.
+    private static final String TAG = "DataExporter";
+
+    // Size of the buffer rows are written through, in characters.
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    // Number of rows written between progress updates.
+    private static final int PROGRESS_INTERVAL = 500;
+
+    // Exporter objects.
+    private final DatabaseHelper db;
+
+    /**
+     * This class reports how much an export wrote and how quickly.
+     */
+    public static class ExportStats {
+
+        private final int rowCount;
+        private final long byteCount;
+        private final long elapsedMillis;
+
+        ExportStats(int rowCount, long byteCount, long elapsedMillis) {
+            this.rowCount = rowCount;
+            this.byteCount = byteCount;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        /**
+         * Returns the number of rows written per second.
+         */
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? rowCount * 1000.0 : rowCount * 1000.0 / elapsedMillis;
+        }
+
+        /**
+         * Returns the number of bytes written per second.
+         */
+        public double getBytesPerSecond() {
+            return elapsedMillis == 0 ? byteCount * 1000.0 : byteCount * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ExportStats{" +
+                    "rowCount=" + rowCount +
+                    ", byteCount=" + byteCount +
+                    ", elapsedMillis=" + elapsedMillis +
+                    ", rowsPerSecond=" + getRowsPerSecond() +
+                    ", bytesPerSecond=" + getBytesPerSecond() +
+                    '}';
+        }
+    }
+
+    /**
+     * Constructs a data exporter that reads from the given database.
+     */
+    public DataExporter(DatabaseHelper db) {
+        this.db = db;
+    }
+
+    /**
+     * Exports every user to the output stream in the given format. The stream is flushed but not
+     * closed.
+     */
+    public ExportStats exportUsers(OutputStream outputStream, DataFormat format, ProgressListener progressListener) throws IOException {
+        Cursor cursor = db.queryAllUsers(DataImporter.USER_COLUMNS);
+        try {
+            return export(cursor, DataImporter.USER_COLUMNS, false, outputStream, format, progressListener);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Exports every result whose user still exists to the output stream in the given format. Each
+     * result names its user by email. The stream is flushed but not closed.
+     */
+    public ExportStats exportResults(OutputStream outputStream, DataFormat format, ProgressListener progressListener) throws IOException {
+        Cursor cursor = db.queryAllResultsWithEmail();
+        try {
+            return export(cursor, DataImporter.RESULT_COLUMNS, true, outputStream, format, progressListener);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Writes every row of the cursor to the output stream. The cursor's columns must line up with
+     * the given column names. If hasNumericValues is true, every column after the first is written
+     * as a number in JSON Lines output.
+     */
+    private ExportStats export(Cursor cursor, String[] columns, boolean hasNumericValues, OutputStream outputStream, DataFormat format, ProgressListener progressListener) throws IOException {
+
+        long startTime = SystemClock.elapsedRealtime();
+        CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(countingOutputStream, StandardCharsets.UTF_8), CHUNK_SIZE);
+
+        // Reused for every row so that the loop allocates as little as possible.
+        StringBuilder line = new StringBuilder();
+        int rowCount = 0;
+
+        // CSV files start with a header row naming the columns.
+        if (format == DataFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0)
+                    line.append(',');
+                line.append(columns[i]);
+            }
+            line.append('\n');
+            writer.append(line);
+        }
+
+        while (cursor.moveToNext()) {
+            line.setLength(0);
+
+            if (format == DataFormat.CSV) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0)
+                        line.append(',');
+                    CsvUtils.appendField(line, cursor.getString(i));
+                }
+            } else {
+                line.append('{');
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0)
+                        line.append(',');
+                    line.append(JSONObject.quote(columns[i])).append(':');
+                    if (cursor.isNull(i))
+                        line.append("null");
+                    else if (hasNumericValues && i > 0)
+                        line.append(cursor.getLong(i));
+                    else
+                        line.append(JSONObject.quote(cursor.getString(i)));
+                }
+                line.append('}');
+            }
+            line.append('\n');
+            writer.append(line);
+
+            rowCount++;
+            if (progressListener != null && rowCount % PROGRESS_INTERVAL == 0)
+                progressListener.onProgress(rowCount);
+        }
+
+        writer.flush();
+
+        if (progressListener != null)
+            progressListener.onProgress(rowCount);
+
+        ExportStats stats = new ExportStats(rowCount, countingOutputStream.byteCount, SystemClock.elapsedRealtime() - startTime);
+        Log.i(TAG, "Export finished: " + stats);
+        return stats;
+    }
+
+    /**
+     * This class passes bytes through to another output stream while counting them.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long byteCount;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            byteCount++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            byteCount += len;
+        }
+    }
+}
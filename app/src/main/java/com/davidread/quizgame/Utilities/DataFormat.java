@@ -0,0 +1,13 @@
+package com.davidread.quizgame.Utilities;
+
+/**
+ * This enum lists the file formats users and results can be imported from and exported to.
+ */
+public enum DataFormat {
+
+    // Comma-separated values with a header row naming each column.
+    CSV,
+
+    // One JSON object per line, keyed by column name.
+    JSON_LINES
+}
@@ -0,0 +1,282 @@
+package com.davidread.quizgame.Utilities;
+
+import android.util.Log;
+
+import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Models.User;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This utility class imports users and results from an input stream into the database. The stream
+ * is read one record at a time and each row is inserted as soon as it is parsed, so memory use does
+ * not depend on the size of the import. Each import runs in a single transaction and is rolled
+ * back entirely if any row cannot be parsed.
+ *
+ * Users are matched by email: users whose email is already registered are skipped. Results name
+ * their user by email rather than id, so they can be moved between devices where the same user
+ * has a different id. Results whose email is not registered are skipped. The seed column of
+ * results is optional, so files exported before seeds were recorded can still be imported.
+ *
+ * Imports modify the database and must be run on the database writer thread, for example through
+ * DatabaseExecutor.write().
+ */
+public class DataImporter {
+
+    // Tag used for logging.
+    private static final String TAG = "DataImporter";
+
+    // Column names used in imported files.
+    public static final String COLUMN_EMAIL = User.COLUMN_EMAIL;
+    public static final String[] USER_COLUMNS = {User.COLUMN_FIRST_NAME, User.COLUMN_LAST_NAME, User.COLUMN_DATE_OF_BIRTH, User.COLUMN_EMAIL, User.COLUMN_PASSWORD};
+    public static final String[] RESULT_COLUMNS = {COLUMN_EMAIL, Result.COLUMN_TIMESTAMP, Result.COLUMN_COUNT_QUESTIONS_CORRECT, Result.COLUMN_COUNT_TOTAL_QUESTIONS, Result.COLUMN_SEED};
+
+    // Importer objects.
+    private final DatabaseHelper db;
+
+    /**
+     * Constructs a data importer that writes into the given database.
+     */
+    public DataImporter(DatabaseHelper db) {
+        this.db = db;
+    }
+
+    /**
+     * Imports users from the input stream in the given format. Returns the number of users
+     * inserted. The stream is not closed.
+     */
+    public int importUsers(InputStream inputStream, DataFormat format, ProgressListener progressListener) throws IOException {
+        RecordIterator<User> users = new RecordIterator<User>(inputStream, format) {
+            @Override
+            User toModel(Row row) throws IOException {
+                User user = new User();
+                user.setFirstName(row.getString(User.COLUMN_FIRST_NAME));
+                user.setLastName(row.getString(User.COLUMN_LAST_NAME));
+                user.setDateOfBirth(row.getString(User.COLUMN_DATE_OF_BIRTH));
+                user.setEmail(row.getRequiredString(User.COLUMN_EMAIL));
+                user.setPassword(row.getString(User.COLUMN_PASSWORD));
+                return user;
+            }
+        };
+        try {
+            return db.insertUsers(users, progressListener);
+        } catch (ImportException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Imports results from the input stream in the given format. Returns the number of results
+     * inserted. The stream is not closed. Each email is looked up in the database once per import,
+     * and its user id, or -1 if it is not registered, is reused for the email's other results. The
+     * cache holds at most one entry per registered user plus the unknown emails in the file.
+     */
+    public int importResults(InputStream inputStream, DataFormat format, ProgressListener progressListener) throws IOException {
+        HashMap<String, Long> userIdsByEmail = new HashMap<>();
+        RecordIterator<Result> results = new RecordIterator<Result>(inputStream, format) {
+            @Override
+            Result toModel(Row row) throws IOException {
+                String email = row.getRequiredString(COLUMN_EMAIL);
+                Long cachedUserId = userIdsByEmail.get(email);
+                if (cachedUserId == null) {
+                    cachedUserId = db.getUserId(email);
+                    userIdsByEmail.put(email, cachedUserId);
+                }
+                long userId = cachedUserId;
+                if (userId == -1) {
+                    Log.w(TAG, "Skipping result for unknown user on line " + row.lineNumber);
+                    return null;
+                }
+                return new Result(
+                        userId,
+                        row.getLong(Result.COLUMN_TIMESTAMP),
+                        (int) row.getLong(Result.COLUMN_COUNT_QUESTIONS_CORRECT),
+                        (int) row.getLong(Result.COLUMN_COUNT_TOTAL_QUESTIONS),
+                        row.getOptionalLong(Result.COLUMN_SEED, Result.NO_SEED)
+                );
+            }
+        };
+        try {
+            return db.insertResults(results, progressListener);
+        } catch (ImportException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * This class represents one parsed row of an imported file, giving access to its fields by
+     * column name.
+     */
+    private static class Row {
+
+        private final int lineNumber;
+        private final HashMap<String, Integer> csvColumnIndexes;
+        private String[] csvFields;
+        private JSONObject jsonObject;
+
+        Row(int lineNumber, HashMap<String, Integer> csvColumnIndexes) {
+            this.lineNumber = lineNumber;
+            this.csvColumnIndexes = csvColumnIndexes;
+        }
+
+        /**
+         * Returns the value of the given column, or null if the row has no such column.
+         */
+        String getString(String column) {
+            if (jsonObject != null)
+                return jsonObject.isNull(column) ? null : jsonObject.optString(column);
+            Integer index = csvColumnIndexes.get(column);
+            if (index == null || index >= csvFields.length)
+                return null;
+            return csvFields[index];
+        }
+
+        /**
+         * Returns the non-empty value of the given column, or throws if it is missing.
+         */
+        String getRequiredString(String column) throws IOException {
+            String value = getString(column);
+            if (value == null || value.isEmpty())
+                throw new IOException("Missing " + column + " on line " + lineNumber);
+            return value;
+        }
+
+        /**
+         * Returns the value of the given column as a number, or throws if it is missing or invalid.
+         */
+        long getLong(String column) throws IOException {
+            String value = getRequiredString(column);
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid " + column + " on line " + lineNumber, e);
+            }
+        }
+
+        /**
+         * Returns the value of the given column as a number, or the default value if it is missing.
+         * Throws if the value is present but invalid.
+         */
+        long getOptionalLong(String column, long defaultValue) throws IOException {
+            String value = getString(column);
+            if (value == null || value.isEmpty())
+                return defaultValue;
+            return getLong(column);
+        }
+    }
+
+    /**
+     * This class wraps an IO exception so that it may pass through the database helper's iterator
+     * loop, which rolls back the transaction before it is unwrapped.
+     */
+    private static class ImportException extends RuntimeException {
+
+        ImportException(IOException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized IOException getCause() {
+            return (IOException) super.getCause();
+        }
+    }
+
+    /**
+     * This class lazily reads rows from an input stream and converts each one into a model object.
+     * Blank lines and rows the subclass chooses to skip are passed over.
+     */
+    private abstract static class RecordIterator<T> implements Iterator<T> {
+
+        private final BufferedReader reader;
+        private final DataFormat format;
+        private final HashMap<String, Integer> csvColumnIndexes;
+        private int lineNumber;
+        private T next;
+        private boolean isDone;
+
+        RecordIterator(InputStream inputStream, DataFormat format) {
+            this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+            this.format = format;
+            this.csvColumnIndexes = new HashMap<>();
+        }
+
+        /**
+         * Returns the model object for the given row, or null to skip the row.
+         */
+        abstract T toModel(Row row) throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !isDone) {
+                try {
+                    next = readNext();
+                } catch (IOException e) {
+                    throw new ImportException(e);
+                }
+                isDone = next == null;
+            }
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            T result = next;
+            next = null;
+            return result;
+        }
+
+        /**
+         * Reads records until one yields a model object. Returns null at the end of the stream. A
+         * CSV record may span several lines if a quoted field contains line breaks, while a JSON
+         * Lines record is always one line.
+         */
+        private T readNext() throws IOException {
+            String line;
+            while ((line = format == DataFormat.CSV ? CsvUtils.readRecord(reader) : reader.readLine()) != null) {
+                int recordLineNumber = ++lineNumber;
+                for (int i = 0; i < line.length(); i++) {
+                    if (line.charAt(i) == '\n')
+                        lineNumber++;
+                }
+                if (line.trim().isEmpty())
+                    continue;
+
+                Row row = new Row(recordLineNumber, csvColumnIndexes);
+                if (format == DataFormat.CSV) {
+                    String[] fields = CsvUtils.parseLine(line);
+
+                    // The first line of a CSV file names the columns.
+                    if (csvColumnIndexes.isEmpty()) {
+                        for (int i = 0; i < fields.length; i++)
+                            csvColumnIndexes.put(fields[i].trim(), i);
+                        continue;
+                    }
+                    row.csvFields = fields;
+                } else {
+                    try {
+                        row.jsonObject = new JSONObject(line);
+                    } catch (JSONException e) {
+                        throw new IOException("Invalid JSON on line " + recordLineNumber, e);
+                    }
+                }
+
+                T model = toModel(row);
+                if (model != null)
+                    return model;
+            }
+            return null;
+        }
+    }
+}
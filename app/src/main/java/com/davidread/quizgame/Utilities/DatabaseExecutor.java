@@ -0,0 +1,101 @@
+package com.davidread.quizgame.Utilities;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This utility class runs database operations off the main thread. Writes are run one at a time on
+ * a single writer thread so that they are applied in the order they were submitted, while reads
+ * are spread across a small pool of reader threads that write-ahead logging lets run alongside the
+ * writer. Results are delivered back on the main thread.
+ */
+public class DatabaseExecutor {
+
+    // Number of threads that may read from the database at once.
+    private static final int READ_THREAD_COUNT = 2;
+
+    // Single process-wide instance.
+    private static DatabaseExecutor instance;
+
+    // Executor objects.
+    private final ExecutorService writeExecutor;
+    private final ExecutorService readExecutor;
+    private final Handler mainHandler;
+
+    /**
+     * This interface receives the value returned by a database operation on the main thread.
+     */
+    public interface Callback<T> {
+        void onComplete(T result);
+    }
+
+    /**
+     * Returns the process-wide database executor.
+     */
+    public static synchronized DatabaseExecutor getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a database executor.
+     */
+    private DatabaseExecutor() {
+        writeExecutor = Executors.newSingleThreadExecutor();
+        readExecutor = Executors.newFixedThreadPool(READ_THREAD_COUNT);
+        mainHandler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Runs a read-only task on a reader thread and passes its return value to the callback on the
+     * main thread. The callback may be null.
+     */
+    public <T> void read(Callable<T> task, Callback<T> callback) {
+        submit(readExecutor, task, callback);
+    }
+
+    /**
+     * Runs a task that modifies the database on the writer thread and passes its return value to
+     * the callback on the main thread. The callback may be null.
+     */
+    public <T> void write(Callable<T> task, Callback<T> callback) {
+        submit(writeExecutor, task, callback);
+    }
+
+    /**
+     * Runs a task that modifies the database on the writer thread and then runs the callback on the
+     * main thread. The callback may be null.
+     */
+    public void write(Runnable task, Runnable callback) {
+        write(() -> {
+            task.run();
+            return null;
+        }, callback == null ? null : result -> callback.run());
+    }
+
+    /**
+     * Runs a task on the given executor and posts its return value to the main thread. Any
+     * exception thrown by the task is rethrown on the main thread so that it is not silently lost.
+     */
+    private <T> void submit(ExecutorService executor, Callable<T> task, Callback<T> callback) {
+        executor.execute(() -> {
+            T result;
+            try {
+                result = task.call();
+            } catch (Exception e) {
+                mainHandler.post(() -> {
+                    throw new RuntimeException(e);
+                });
+                return;
+            }
+            if (callback != null)
+                mainHandler.post(() -> callback.onComplete(result));
+        });
+    }
+}
@@ -4,51 +4,638 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteException;
 import android.database.sqlite.SQLiteOpenHelper;
-
+import android.database.sqlite.SQLiteStatement;
+import android.os.Looper;
+import android.util.JsonReader;
+import android.util.LruCache;
+
+import com.davidread.quizgame.BuildConfig;
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.QuestionStats;
 import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Models.ScoreHistogram;
 import com.davidread.quizgame.Models.User;
+import com.davidread.quizgame.Models.UserStats;
+
+import org.json.JSONArray;
+import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
 
 /**
- * This utility class provides functions to manipulate the user and result objects stored in an
- * SQLite database.
+ * This utility class provides functions to manipulate the user, result, and question objects stored
+ * in an SQLite database.
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
 
-    private static final int DATABASE_VERSION = 1;
+    private static final int DATABASE_VERSION = 11;
     private static final String DATABASE_NAME = "db";
 
+    // Bundled asset the question bank is seeded from.
+    private static final String QUESTIONS_ASSET_NAME = "questions.json";
+
+    /* Layout of the questions table in schema version 3, which had exactly four options and a
+     * boolean column per option. Kept here so that upgrades from older versions still replay the
+     * version 3 step as it shipped. */
+    private static final String QUESTIONS_V3_CREATE_TABLE = "CREATE TABLE " + Question.TABLE_NAME + "("
+            + "id INTEGER PRIMARY KEY,"
+            + "category TEXT,"
+            + "question TEXT,"
+            + "option_1 TEXT,"
+            + "option_2 TEXT,"
+            + "option_3 TEXT,"
+            + "option_4 TEXT,"
+            + "is_option_1_correct INTEGER,"
+            + "is_option_2_correct INTEGER,"
+            + "is_option_3_correct INTEGER,"
+            + "is_option_4_correct INTEGER"
+            + ")";
+    private static final String QUESTIONS_V3_TABLE_NAME = "questions_v3";
+
+    // SQL for the hot lookup and insert paths. These are compiled once and reused.
+    private static final String SQL_GET_USER = "SELECT " + User.COLUMN_ID + ", " + User.COLUMN_FIRST_NAME + ", " + User.COLUMN_LAST_NAME + ", " + User.COLUMN_DATE_OF_BIRTH + ", " + User.COLUMN_EMAIL + ", " + User.COLUMN_PASSWORD +
+            " FROM " + User.TABLE_NAME +
+            " WHERE " + User.COLUMN_ID + " = ?";
+    private static final String SQL_GET_USER_ID = "SELECT " + User.COLUMN_ID +
+            " FROM " + User.TABLE_NAME +
+            " WHERE " + User.COLUMN_EMAIL + " = ? AND " + User.COLUMN_PASSWORD + " = ?";
+    private static final String SQL_IS_EMAIL_TAKEN = "SELECT COUNT(*) FROM " + User.TABLE_NAME +
+            " WHERE " + User.COLUMN_EMAIL + " = ?";
+    private static final String SQL_GET_USER_ID_BY_EMAIL = "SELECT " + User.COLUMN_ID +
+            " FROM " + User.TABLE_NAME +
+            " WHERE " + User.COLUMN_EMAIL + " = ?";
+    private static final String SQL_INSERT_USER_IF_ABSENT = "INSERT OR IGNORE INTO " + User.TABLE_NAME + "(" +
+            User.COLUMN_FIRST_NAME + ", " + User.COLUMN_LAST_NAME + ", " + User.COLUMN_DATE_OF_BIRTH + ", " + User.COLUMN_EMAIL + ", " + User.COLUMN_PASSWORD +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_QUESTION = "SELECT " + Question.COLUMN_ID + ", " + Question.COLUMN_CATEGORY + ", " + Question.COLUMN_QUESTION + ", " + Question.COLUMN_OPTIONS + ", " + Question.COLUMN_ANSWER_KEY +
+            " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_ID + " = ?";
+    private static final String SQL_INSERT_QUESTION_IF_ABSENT = "INSERT OR IGNORE INTO " + Question.TABLE_NAME + "(" +
+            Question.COLUMN_ID + ", " + Question.COLUMN_CATEGORY + ", " + Question.COLUMN_QUESTION + ", " + Question.COLUMN_OPTIONS + ", " + Question.COLUMN_ANSWER_KEY +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_FIRST_QUESTION_ID = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_GET_LAST_QUESTION_ID = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " ORDER BY " + Question.COLUMN_ID + " DESC LIMIT 1";
+    private static final String SQL_SEEK_QUESTION_ID = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_ID + " >= ?" +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_GET_FIRST_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ?" +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_GET_LAST_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ?" +
+            " ORDER BY " + Question.COLUMN_ID + " DESC LIMIT 1";
+    private static final String SQL_SEEK_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ? AND " + Question.COLUMN_ID + " >= ?" +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_INSERT_RESULT = "INSERT OR IGNORE INTO " + Result.TABLE_NAME + "(" +
+            Result.COLUMN_USER_ID + ", " + Result.COLUMN_TIMESTAMP + ", " + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", " + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", " + Result.COLUMN_SEED +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_USER_STATS = "SELECT " + UserStats.COLUMN_COUNT_ATTEMPTS + ", " + UserStats.COLUMN_SUM_QUESTIONS_CORRECT + ", " + UserStats.COLUMN_SUM_TOTAL_QUESTIONS + ", " + UserStats.COLUMN_BEST_SCORE + ", " + UserStats.COLUMN_LAST_SCORE + ", " + UserStats.COLUMN_LAST_TIMESTAMP + ", " + UserStats.COLUMN_ROLLING_AVERAGE_SCORE + ", " + UserStats.COLUMN_BEST_TIMESTAMP +
+            " FROM " + UserStats.TABLE_NAME +
+            " WHERE " + UserStats.COLUMN_USER_ID + " = ?";
+    private static final String SQL_GET_LEADERBOARD = "SELECT s." + UserStats.COLUMN_USER_ID + ", s." + UserStats.COLUMN_COUNT_ATTEMPTS + ", s." + UserStats.COLUMN_SUM_QUESTIONS_CORRECT + ", s." + UserStats.COLUMN_SUM_TOTAL_QUESTIONS + ", s." + UserStats.COLUMN_BEST_SCORE + ", s." + UserStats.COLUMN_LAST_SCORE + ", s." + UserStats.COLUMN_LAST_TIMESTAMP + ", s." + UserStats.COLUMN_ROLLING_AVERAGE_SCORE + ", s." + UserStats.COLUMN_BEST_TIMESTAMP + ", u." + User.COLUMN_FIRST_NAME + ", u." + User.COLUMN_LAST_NAME +
+            " FROM " + UserStats.TABLE_NAME + " s" +
+            " JOIN " + User.TABLE_NAME + " u ON u." + User.COLUMN_ID + " = s." + UserStats.COLUMN_USER_ID;
+    private static final String SQL_GET_LEADERBOARD_BY_BEST_SCORE = SQL_GET_LEADERBOARD +
+            " ORDER BY s." + UserStats.COLUMN_BEST_SCORE + " DESC, s." + UserStats.COLUMN_BEST_TIMESTAMP + " ASC" +
+            " LIMIT ?";
+    private static final String SQL_GET_LEADERBOARD_BY_AVERAGE_SCORE = SQL_GET_LEADERBOARD +
+            " ORDER BY s." + UserStats.COLUMN_AVERAGE_SCORE + " DESC, s." + UserStats.COLUMN_LAST_TIMESTAMP + " ASC" +
+            " LIMIT ?";
+    private static final String SQL_INSERT_ANSWER_EVENT = "INSERT OR IGNORE INTO " + AnswerEvent.TABLE_NAME + "(" +
+            AnswerEvent.COLUMN_ATTEMPT_ID + ", " + AnswerEvent.COLUMN_USER_ID + ", " + AnswerEvent.COLUMN_QUESTION_ID + ", " + AnswerEvent.COLUMN_SELECTION + ", " + AnswerEvent.COLUMN_IS_CORRECT + ", " + AnswerEvent.COLUMN_RESPONSE_MILLIS + ", " + AnswerEvent.COLUMN_TIMESTAMP +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_GET_QUESTION_STATS = "SELECT s." + QuestionStats.COLUMN_QUESTION_ID + ", s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + ", s." + QuestionStats.COLUMN_COUNT_CORRECT + ", s." + QuestionStats.COLUMN_MEAN_RESPONSE_MILLIS + ", s." + QuestionStats.COLUMN_M2_RESPONSE_MILLIS + ", s." + QuestionStats.COLUMN_MEAN_REST_SCORE + ", s." + QuestionStats.COLUMN_M2_REST_SCORE + ", s." + QuestionStats.COLUMN_COMOMENT + ", q." + Question.COLUMN_QUESTION +
+            " FROM " + QuestionStats.TABLE_NAME + " s" +
+            " JOIN " + Question.TABLE_NAME + " q ON q." + Question.COLUMN_ID + " = s." + QuestionStats.COLUMN_QUESTION_ID +
+            " WHERE s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + " > 0" +
+            " ORDER BY CAST(s." + QuestionStats.COLUMN_COUNT_CORRECT + " AS REAL) / s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + " ASC, s." + QuestionStats.COLUMN_QUESTION_ID + " ASC";
+    private static final String SQL_GET_SCORE_HISTOGRAM = "SELECT " + ScoreHistogram.COLUMN_BUCKET + ", " + ScoreHistogram.COLUMN_COUNT_RESULTS +
+            " FROM " + ScoreHistogram.TABLE_NAME;
+    private static final String SQL_INSERT_SCORE_HISTOGRAM_BUCKET = "INSERT INTO " + ScoreHistogram.TABLE_NAME + "(" +
+            ScoreHistogram.COLUMN_BUCKET + ", " + ScoreHistogram.COLUMN_COUNT_RESULTS +
+            ") VALUES (?, ?)";
+    private static final String SQL_INSERT_USER_STATS = "INSERT INTO " + UserStats.TABLE_NAME + "(" +
+            UserStats.COLUMN_USER_ID + ", " + UserStats.COLUMN_COUNT_ATTEMPTS + ", " + UserStats.COLUMN_SUM_QUESTIONS_CORRECT + ", " + UserStats.COLUMN_SUM_TOTAL_QUESTIONS + ", " + UserStats.COLUMN_BEST_SCORE + ", " + UserStats.COLUMN_LAST_SCORE + ", " + UserStats.COLUMN_LAST_TIMESTAMP + ", " + UserStats.COLUMN_ROLLING_AVERAGE_SCORE +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Number of rows inserted between progress updates during bulk inserts.
+    private static final int PROGRESS_INTERVAL = 500;
+
+    // Number of random seeks allowed per requested question before sampling falls back to a walk.
+    private static final int SAMPLE_SEEKS_PER_QUESTION = 4;
+
+    // Time answer events are kept before they are deleted.
+    private static final long ANSWER_EVENT_RETENTION_MILLIS = 90L * 24 * 60 * 60 * 1000;
+
+    // Number of question objects kept in memory after they are loaded or prefetched.
+    private static final int QUESTION_CACHE_SIZE = 64;
+
+    // Statements on the paths the app hits right after launch, compiled ahead of time by warmUp().
+    private static final String[] WARM_UP_STATEMENTS = {
+            SQL_GET_USER_ID,
+            SQL_IS_EMAIL_TAKEN,
+            SQL_GET_FIRST_QUESTION_ID_IN_CATEGORY,
+            SQL_GET_LAST_QUESTION_ID_IN_CATEGORY,
+            SQL_SEEK_QUESTION_ID_IN_CATEGORY,
+            SQL_INSERT_RESULT
+    };
+
+    // Single process-wide instance.
+    private static DatabaseHelper instance;
+
+    /* Compiled statements keyed by their SQL. Since the helper and its connection live for the
+     * whole process, each statement only needs to be prepared once. */
+    private final HashMap<String, SQLiteStatement> compiledStatements = new HashMap<>();
+
+    /* Question objects keyed by id. Questions never change once seeded, so cached objects stay
+     * valid for the life of the process. */
+    private final LruCache<Long, Question> questionCache = new LruCache<>(QUESTION_CACHE_SIZE);
+
+    // Application context used to read bundled assets.
+    private final Context context;
+
     /**
-     * Constructs a database helper with context from the activity where the object is created.
+     * Returns the process-wide database helper. It is tied to the application context so that it
+     * may outlive any activity or fragment that requests it. The underlying database connection is
+     * opened on first use and kept open for the life of the process.
      */
-    public DatabaseHelper(Context context) {
+    public static synchronized DatabaseHelper getInstance(Context context) {
+        if (instance == null) {
+            instance = new DatabaseHelper(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a database helper with the application context. Write-ahead logging is enabled so
+     * that reads do not block on a concurrent write.
+     */
+    private DatabaseHelper(Context context) {
         super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.context = context;
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Returns the database for writing. In debug builds, throws if called from the main thread so
+     * that database work reaching the UI thread fails fast instead of causing jank.
+     */
+    @Override
+    public SQLiteDatabase getWritableDatabase() {
+        assertNotOnMainThread();
+        return super.getWritableDatabase();
+    }
+
+    /**
+     * Returns the database for reading. In debug builds, throws if called from the main thread.
+     */
+    @Override
+    public SQLiteDatabase getReadableDatabase() {
+        assertNotOnMainThread();
+        return super.getReadableDatabase();
+    }
+
+    /**
+     * Throws an illegal state exception in debug builds if the calling thread is the main thread.
+     * Use the DatabaseExecutor to run database operations.
+     */
+    private void assertNotOnMainThread() {
+        if (BuildConfig.DEBUG && Looper.myLooper() == Looper.getMainLooper())
+            throw new IllegalStateException("Database accessed from the main thread. Use DatabaseExecutor instead.");
+    }
+
+    /**
+     * Returns the compiled statement for the given SQL, compiling and caching it on first use.
+     * A statement holds its own bindings, so callers must synchronize on the returned statement
+     * while binding and executing it. In debug builds, throws if called from the main thread, since
+     * cached statements never pass through getWritableDatabase() again.
+     */
+    private synchronized SQLiteStatement getCompiledStatement(String sql) {
+        assertNotOnMainThread();
+        SQLiteStatement statement = compiledStatements.get(sql);
+        if (statement == null) {
+            statement = getWritableDatabase().compileStatement(sql);
+            compiledStatements.put(sql, statement);
+        }
+        return statement;
     }
 
     /**
-     * Called when the object is initially created.
+     * Opens the database, which creates or migrates it if needed, and compiles the statements used
+     * right after launch so that the first screens do not pay for either. Meant to be run once in
+     * the background while the splash screen is shown.
+     */
+    public void warmUp() {
+        for (String sql : WARM_UP_STATEMENTS)
+            getCompiledStatement(sql);
+    }
+
+    /**
+     * Called when the object is initially created. Creates the version 1 schema and then applies
+     * every migration step so that fresh installs and upgraded installs end up identical.
      */
     @Override
     public void onCreate(SQLiteDatabase db) {
+
         // Create the users and results table.
         db.execSQL(User.CREATE_TABLE);
         db.execSQL(Result.CREATE_TABLE);
+
+        // Bring the schema up to the latest version.
+        onUpgrade(db, 1, DATABASE_VERSION);
     }
 
     /**
-     * Called when the database is upgraded.
+     * Called when the database is upgraded. Applies each migration step between the old and new
+     * version in order so that existing users and results are kept.
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        for (int version = oldVersion + 1; version <= newVersion; version++) {
+            switch (version) {
+                case 2:
+                    upgradeToVersion2(db);
+                    break;
+                case 3:
+                    upgradeToVersion3(db);
+                    break;
+                case 4:
+                    upgradeToVersion4(db);
+                    break;
+                case 5:
+                    upgradeToVersion5(db);
+                    break;
+                case 6:
+                    upgradeToVersion6(db);
+                    break;
+                case 7:
+                    upgradeToVersion7(db);
+                    break;
+                case 8:
+                    upgradeToVersion8(db);
+                    break;
+                case 9:
+                    upgradeToVersion9(db);
+                    break;
+                case 10:
+                    upgradeToVersion10(db);
+                    break;
+                case 11:
+                    upgradeToVersion11(db);
+                    break;
+            }
+        }
+    }
 
-        // Drop older tables if they exist.
-        db.execSQL("DROP TABLE IF EXISTS " + User.TABLE_NAME);
-        db.execSQL("DROP TABLE IF EXISTS " + Result.TABLE_NAME);
+    /**
+     * Version 2 adds a unique index on user emails, a (user id, timestamp) index on results, and a
+     * descending timestamp index on results. Version 1 allowed several users with the same email,
+     * so before the unique index is created, each set of such users is merged into the oldest one:
+     * the others' results are moved to it and the others are deleted.
+     */
+    private void upgradeToVersion2(SQLiteDatabase db) {
+        String isDuplicateUser = User.COLUMN_EMAIL + " IS NOT NULL AND EXISTS (SELECT 1 FROM " + User.TABLE_NAME + " k" +
+                " WHERE k." + User.COLUMN_EMAIL + " = " + User.TABLE_NAME + "." + User.COLUMN_EMAIL + " AND k." + User.COLUMN_ID + " < " + User.TABLE_NAME + "." + User.COLUMN_ID + ")";
+        db.execSQL("UPDATE " + Result.TABLE_NAME + " SET " + Result.COLUMN_USER_ID + " = (" +
+                "SELECT MIN(k." + User.COLUMN_ID + ") FROM " + User.TABLE_NAME + " u JOIN " + User.TABLE_NAME + " k ON k." + User.COLUMN_EMAIL + " = u." + User.COLUMN_EMAIL +
+                " WHERE u." + User.COLUMN_ID + " = " + Result.TABLE_NAME + "." + Result.COLUMN_USER_ID + ")" +
+                " WHERE " + Result.COLUMN_USER_ID + " IN (SELECT " + User.COLUMN_ID + " FROM " + User.TABLE_NAME + " WHERE " + isDuplicateUser + ")");
+        db.execSQL("DELETE FROM " + User.TABLE_NAME + " WHERE " + isDuplicateUser);
+        db.execSQL(User.CREATE_INDEX_EMAIL);
+        db.execSQL(Result.CREATE_INDEX_USER_ID_TIMESTAMP);
+        db.execSQL(Result.CREATE_INDEX_TIMESTAMP);
+    }
 
-        // Create tables again.
-        onCreate(db);
+    /**
+     * Version 3 adds the questions table with an index on category.
+     */
+    private void upgradeToVersion3(SQLiteDatabase db) {
+        db.execSQL(QUESTIONS_V3_CREATE_TABLE);
+        db.execSQL(Question.CREATE_INDEX_CATEGORY);
+    }
+
+    /**
+     * Version 4 stores each question's options as a JSON array and its correct options as an
+     * answer key bitmask, so questions may have any number of options up to 64. Existing questions
+     * are copied into the new layout, and then the bank is seeded from the bundled question asset.
+     */
+    private void upgradeToVersion4(SQLiteDatabase db) {
+
+        // Move the version 3 table aside and create the new one in its place.
+        db.execSQL("DROP INDEX IF EXISTS " + Question.INDEX_CATEGORY);
+        db.execSQL("ALTER TABLE " + Question.TABLE_NAME + " RENAME TO " + QUESTIONS_V3_TABLE_NAME);
+        db.execSQL(Question.CREATE_TABLE);
+        db.execSQL(Question.CREATE_INDEX_CATEGORY);
+
+        // Copy every version 3 question into the new layout.
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT_QUESTION_IF_ABSENT);
+        Cursor cursor = db.rawQuery("SELECT id, category, question, option_1, option_2, option_3, option_4, is_option_1_correct, is_option_2_correct, is_option_3_correct, is_option_4_correct FROM " + QUESTIONS_V3_TABLE_NAME, null);
+        try {
+            while (cursor.moveToNext()) {
+                JSONArray options = new JSONArray();
+                long answerKey = 0;
+                for (int i = 0; i < 4; i++) {
+                    options.put(cursor.getString(3 + i));
+                    if (cursor.getInt(7 + i) != 0)
+                        answerKey |= 1L << i;
+                }
+                statement.bindLong(1, cursor.getLong(0));
+                bindStringOrNull(statement, 2, cursor.getString(1));
+                bindStringOrNull(statement, 3, cursor.getString(2));
+                statement.bindString(4, options.toString());
+                statement.bindLong(5, answerKey);
+                statement.executeInsert();
+            }
+        } finally {
+            cursor.close();
+            statement.close();
+        }
+        db.execSQL("DROP TABLE " + QUESTIONS_V3_TABLE_NAME);
+
+        seedQuestions(db);
+    }
+
+    /**
+     * Version 5 adds a seed column to results so that quiz attempts can be reproduced. Results
+     * recorded before it have a null seed.
+     */
+    private void upgradeToVersion5(SQLiteDatabase db) {
+        db.execSQL(Result.ADD_COLUMN_SEED);
+    }
+
+    /**
+     * Version 6 adds the user stats table. It is filled from the existing results in one pass over
+     * the (user id, timestamp) index, folding each user's results in the order they were recorded.
+     * The triggers that keep it up to date are created by the step that last changed them.
+     */
+    private void upgradeToVersion6(SQLiteDatabase db) {
+
+        db.execSQL(UserStats.CREATE_TABLE);
+
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT_USER_STATS);
+        Cursor cursor = db.rawQuery("SELECT " + Result.COLUMN_USER_ID + ", " + Result.COLUMN_TIMESTAMP + ", " + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", " + Result.COLUMN_COUNT_TOTAL_QUESTIONS +
+                " FROM " + Result.TABLE_NAME +
+                " WHERE " + Result.COLUMN_USER_ID + " IS NOT NULL" +
+                " ORDER BY " + Result.COLUMN_USER_ID + ", " + Result.COLUMN_TIMESTAMP, null);
+        try {
+            UserStats userStats = null;
+            while (cursor.moveToNext()) {
+                long userId = cursor.getLong(0);
+                if (userStats == null || userStats.getUserId() != userId) {
+                    if (userStats != null)
+                        insertUserStats(statement, userStats);
+                    userStats = new UserStats(userId);
+                }
+                userStats.addResult(cursor.getLong(1), cursor.getInt(2), cursor.getInt(3));
+            }
+            if (userStats != null)
+                insertUserStats(statement, userStats);
+        } finally {
+            cursor.close();
+            statement.close();
+        }
+    }
+
+    /**
+     * Version 7 adds the leaderboard columns to the user stats table, the time each user's best
+     * score was first reached and their average score, and indexes the table in leaderboard order.
+     * Existing rows are filled from the results table, and the triggers are replaced with ones that
+     * maintain the new columns too.
+     */
+    private void upgradeToVersion7(SQLiteDatabase db) {
+        db.execSQL(UserStats.ADD_COLUMN_BEST_TIMESTAMP);
+        db.execSQL(UserStats.ADD_COLUMN_AVERAGE_SCORE);
+        db.execSQL("UPDATE " + UserStats.TABLE_NAME + " SET " +
+                UserStats.COLUMN_AVERAGE_SCORE + " = CASE WHEN " + UserStats.COLUMN_SUM_TOTAL_QUESTIONS + " > 0 THEN CAST(" + UserStats.COLUMN_SUM_QUESTIONS_CORRECT + " AS REAL) / " + UserStats.COLUMN_SUM_TOTAL_QUESTIONS + " ELSE 0 END, " +
+                UserStats.COLUMN_BEST_TIMESTAMP + " = COALESCE((SELECT MIN(r." + Result.COLUMN_TIMESTAMP + ") FROM " + Result.TABLE_NAME + " r" +
+                " WHERE r." + Result.COLUMN_USER_ID + " = " + UserStats.TABLE_NAME + "." + UserStats.COLUMN_USER_ID +
+                " AND (CASE WHEN r." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + " > 0 THEN CAST(r." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + " AS REAL) / r." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + " ELSE 0 END) >= " + UserStats.COLUMN_BEST_SCORE + "), 0)");
+        db.execSQL(UserStats.CREATE_INDEX_BEST_SCORE);
+        db.execSQL(UserStats.CREATE_INDEX_AVERAGE_SCORE);
+        createUserStatsTriggers(db);
+    }
+
+    /**
+     * Version 8 adds the score histogram table with one row per bucket, fills it from the existing
+     * results in a single grouped pass, and adds the triggers that keep it up to date.
+     */
+    private void upgradeToVersion8(SQLiteDatabase db) {
+
+        db.execSQL(ScoreHistogram.CREATE_TABLE);
+
+        // Count the existing results in each bucket.
+        long[] counts = new long[ScoreHistogram.BUCKET_COUNT];
+        Cursor cursor = db.rawQuery(ScoreHistogram.SELECT_BUCKET_COUNTS, null);
+        try {
+            while (cursor.moveToNext())
+                counts[cursor.getInt(0)] = cursor.getLong(1);
+        } finally {
+            cursor.close();
+        }
+
+        // Insert a row for every bucket, including empty ones, so that the triggers only update.
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT_SCORE_HISTOGRAM_BUCKET);
+        try {
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                statement.bindLong(1, bucket);
+                statement.bindLong(2, counts[bucket]);
+                statement.executeInsert();
+            }
+        } finally {
+            statement.close();
+        }
+
+        db.execSQL(ScoreHistogram.CREATE_TRIGGER_INSERT_RESULT);
+        db.execSQL(ScoreHistogram.CREATE_TRIGGER_DELETE_RESULT);
+    }
+
+    /**
+     * Version 9 adds the append-only answer events table with an index on timestamp for the
+     * retention delete.
+     */
+    private void upgradeToVersion9(SQLiteDatabase db) {
+        db.execSQL(AnswerEvent.CREATE_TABLE);
+        db.execSQL(AnswerEvent.CREATE_INDEX_TIMESTAMP);
+    }
+
+    /**
+     * Version 10 adds the question stats table and fills it from the answer events that are still
+     * kept, reading them grouped by attempt so that each answer's rest score can be worked out.
+     */
+    private void upgradeToVersion10(SQLiteDatabase db) {
+
+        db.execSQL(QuestionStats.CREATE_TABLE);
+
+        SQLiteStatement insertStatement = db.compileStatement(QuestionStats.INSERT_IF_ABSENT);
+        SQLiteStatement updateStatement = db.compileStatement(QuestionStats.UPDATE_ADD_ANSWER);
+        Cursor cursor = db.rawQuery("SELECT " + AnswerEvent.COLUMN_ATTEMPT_ID + ", " + AnswerEvent.COLUMN_USER_ID + ", " + AnswerEvent.COLUMN_QUESTION_ID + ", " + AnswerEvent.COLUMN_SELECTION + ", " + AnswerEvent.COLUMN_IS_CORRECT + ", " + AnswerEvent.COLUMN_RESPONSE_MILLIS + ", " + AnswerEvent.COLUMN_TIMESTAMP +
+                " FROM " + AnswerEvent.TABLE_NAME +
+                " ORDER BY " + AnswerEvent.COLUMN_ATTEMPT_ID + ", rowid", null);
+        try {
+            ArrayList<AnswerEvent> attempt = new ArrayList<>();
+            while (cursor.moveToNext()) {
+                if (!attempt.isEmpty() && attempt.get(0).getAttemptId() != cursor.getLong(0)) {
+                    addToQuestionStats(insertStatement, updateStatement, attempt, allInserted(attempt.size()));
+                    attempt.clear();
+                }
+                attempt.add(new AnswerEvent(cursor.getLong(0), cursor.getLong(1), cursor.getLong(2), cursor.getLong(3), cursor.getInt(4) != 0, cursor.getInt(5), cursor.getLong(6)));
+            }
+            addToQuestionStats(insertStatement, updateStatement, attempt, allInserted(attempt.size()));
+        } finally {
+            cursor.close();
+            insertStatement.close();
+            updateStatement.close();
+        }
+    }
+
+    /**
+     * Version 11 adds a unique index on result seeds and one on the attempt and question of answer
+     * events, so that a result or answer written twice, such as one replayed from the result
+     * journal after it was already committed, is only stored once. Before the indexes are created,
+     * every result sharing its seed with an earlier one is deleted, and the delete triggers take it
+     * back out of the user stats and score histogram. Likewise every answer event repeating an
+     * earlier one's attempt and question is deleted. Question stats cover every answer ever
+     * recorded and are not unwound.
+     */
+    private void upgradeToVersion11(SQLiteDatabase db) {
+        db.execSQL("DELETE FROM " + Result.TABLE_NAME + " WHERE " + Result.COLUMN_SEED + " IS NOT NULL AND " + Result.COLUMN_ID + " NOT IN (" +
+                "SELECT MIN(" + Result.COLUMN_ID + ") FROM " + Result.TABLE_NAME + " WHERE " + Result.COLUMN_SEED + " IS NOT NULL GROUP BY " + Result.COLUMN_SEED + ")");
+        db.execSQL(Result.CREATE_INDEX_SEED);
+        db.execSQL("DELETE FROM " + AnswerEvent.TABLE_NAME + " WHERE rowid NOT IN (" +
+                "SELECT MIN(rowid) FROM " + AnswerEvent.TABLE_NAME + " GROUP BY " + AnswerEvent.COLUMN_ATTEMPT_ID + ", " + AnswerEvent.COLUMN_QUESTION_ID + ")");
+        db.execSQL(AnswerEvent.CREATE_INDEX_ATTEMPT_ID_QUESTION_ID);
+    }
+
+    /**
+     * Folds the given answer events that are marked as inserted into the question stats table with
+     * the given compiled insert and update statements. The events of each attempt must be next to
+     * each other, see QuestionStats.foldAnswers().
+     */
+    private static void addToQuestionStats(SQLiteStatement insertStatement, SQLiteStatement updateStatement, List<AnswerEvent> answerEvents, boolean[] isInserted) {
+        QuestionStats.foldAnswers(answerEvents, isInserted, (answerEvent, restScore) -> {
+            insertStatement.bindLong(1, answerEvent.getQuestionId());
+            insertStatement.executeInsert();
+            updateStatement.bindLong(1, answerEvent.isCorrect() ? 1 : 0);
+            updateStatement.bindLong(2, answerEvent.getResponseMillis());
+            updateStatement.bindDouble(3, restScore);
+            updateStatement.bindLong(4, answerEvent.getQuestionId());
+            updateStatement.executeUpdateDelete();
+        });
+    }
+
+    /**
+     * Returns an array marking the given number of answer events as inserted.
+     */
+    private static boolean[] allInserted(int count) {
+        boolean[] isInserted = new boolean[count];
+        Arrays.fill(isInserted, true);
+        return isInserted;
+    }
+
+    /**
+     * Replaces the triggers that keep the user stats table up to date with their latest versions.
+     * This matches the latest table layout, so it is called from the migration step that last
+     * changed that layout.
+     */
+    private void createUserStatsTriggers(SQLiteDatabase db) {
+        db.execSQL("DROP TRIGGER IF EXISTS " + UserStats.TRIGGER_INSERT_RESULT);
+        db.execSQL("DROP TRIGGER IF EXISTS " + UserStats.TRIGGER_DELETE_RESULT);
+        db.execSQL(UserStats.CREATE_TRIGGER_INSERT_RESULT);
+        db.execSQL(UserStats.CREATE_TRIGGER_DELETE_RESULT);
+    }
+
+    /**
+     * Binds the given user stats object to the compiled user stats insert statement and executes
+     * it.
+     */
+    private void insertUserStats(SQLiteStatement statement, UserStats userStats) {
+        statement.bindLong(1, userStats.getUserId());
+        statement.bindLong(2, userStats.getCountAttempts());
+        statement.bindLong(3, userStats.getSumQuestionsCorrect());
+        statement.bindLong(4, userStats.getSumTotalQuestions());
+        statement.bindDouble(5, userStats.getBestScore());
+        statement.bindDouble(6, userStats.getLastScore());
+        statement.bindLong(7, userStats.getLastTimestamp());
+        statement.bindDouble(8, userStats.getRollingAverageScore());
+        statement.executeInsert();
+    }
+
+    /**
+     * Inserts every question in the bundled question asset that is not already in the questions
+     * table. The asset is a JSON array of objects with an id, a category, the question, an array of
+     * options, and an array of booleans marking the correct options. It is read as a stream, so
+     * large banks are never held in memory at once. This writes the latest table layout, so it is
+     * called from the migration step that last changed that layout.
+     */
+    private void seedQuestions(SQLiteDatabase db) {
+
+        SQLiteStatement statement = db.compileStatement(SQL_INSERT_QUESTION_IF_ABSENT);
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(context.getAssets().open(QUESTIONS_ASSET_NAME), StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                statement.clearBindings();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "id":
+                            statement.bindLong(1, reader.nextLong());
+                            break;
+                        case "category":
+                            statement.bindString(2, reader.nextString());
+                            break;
+                        case "question":
+                            statement.bindString(3, reader.nextString());
+                            break;
+                        case "options":
+                            JSONArray options = new JSONArray();
+                            reader.beginArray();
+                            while (reader.hasNext())
+                                options.put(reader.nextString());
+                            reader.endArray();
+                            statement.bindString(4, options.toString());
+                            break;
+                        case "correct":
+                            long answerKey = 0;
+                            reader.beginArray();
+                            for (int i = 0; reader.hasNext(); i++) {
+                                if (reader.nextBoolean())
+                                    answerKey |= 1L << i;
+                            }
+                            reader.endArray();
+                            statement.bindLong(5, answerKey);
+                            break;
+                        default:
+                            reader.skipValue();
+                            break;
+                    }
+                }
+                reader.endObject();
+                statement.executeInsert();
+            }
+            reader.endArray();
+        } catch (IOException e) {
+            // Failing here aborts the upgrade transaction, so the seed is retried on next open.
+            throw new SQLiteException("Could not seed the question bank", e);
+        } finally {
+            statement.close();
+        }
     }
 
     /**
@@ -71,9 +658,6 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         // Insert row into database and get id of row.
         long id = db.insert(User.TABLE_NAME, null, values);
 
-        // Close database.
-        db.close();
-
         // Return row id.
         return id;
     }
@@ -89,33 +673,24 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         // Get readable database.
         SQLiteDatabase db = this.getReadableDatabase();
 
-        // Query the database for a user object with the given id.
-        Cursor cursor = db.query(
-                User.TABLE_NAME,
-                new String[]{User.COLUMN_ID, User.COLUMN_FIRST_NAME, User.COLUMN_LAST_NAME, User.COLUMN_DATE_OF_BIRTH, User.COLUMN_EMAIL, User.COLUMN_PASSWORD},
-                User.COLUMN_ID + "=?",
-                new String[]{String.valueOf(id)},
-                null, null, null, null
-        );
-
-        // Extract the user object from the cursor if a non-null result was returned.
-        if (cursor != null) {
-            cursor.moveToFirst();
+        /* Query the database for a user object with the given id. The SQL is constant, so the
+         * connection's own statement cache reuses the prepared query. */
+        Cursor cursor = db.rawQuery(SQL_GET_USER, new String[]{String.valueOf(id)});
 
+        // Extract the user object from the cursor if a row was returned.
+        if (cursor.moveToFirst()) {
             user = new User(
-                    cursor.getLong(cursor.getColumnIndex(User.COLUMN_ID)),
-                    cursor.getString(cursor.getColumnIndex(User.COLUMN_FIRST_NAME)),
-                    cursor.getString(cursor.getColumnIndex(User.COLUMN_LAST_NAME)),
-                    cursor.getString(cursor.getColumnIndex(User.COLUMN_DATE_OF_BIRTH)),
-                    cursor.getString(cursor.getColumnIndex(User.COLUMN_EMAIL)),
-                    cursor.getString(cursor.getColumnIndex(User.COLUMN_PASSWORD))
+                    cursor.getLong(0),
+                    cursor.getString(1),
+                    cursor.getString(2),
+                    cursor.getString(3),
+                    cursor.getString(4),
+                    cursor.getString(5)
             );
-
-            cursor.close();
         }
 
-        // Close the database.
-        db.close();
+        // Close the cursor.
+        cursor.close();
 
         return user;
     }
@@ -126,51 +701,118 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     public long getUserId(String email, String password) {
 
-        long id = -1;
-
-        // Get readable database.
-        SQLiteDatabase db = this.getReadableDatabase();
-
         // Query the database for a user object with the given email/password combo.
-        String query = "SELECT " + User.COLUMN_ID +
-                " FROM " + User.TABLE_NAME +
-                " WHERE " + User.COLUMN_EMAIL + " =  ? AND " + User.COLUMN_PASSWORD + " = ?";
-        Cursor cursor = db.rawQuery(query, new String[]{email, password});
+        SQLiteStatement statement = getCompiledStatement(SQL_GET_USER_ID);
+        synchronized (statement) {
+            try {
+                statement.bindString(1, email);
+                statement.bindString(2, password);
+                return statement.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                // No row matched the combo.
+                return -1;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
 
-        // Extract the id of the user object from the cursor if a non-null result was returned.
-        if (cursor != null) {
-            cursor.moveToFirst();
+    /**
+     * Returns the id of the user object with the given email. Will return -1 if no user has that
+     * email.
+     */
+    public long getUserId(String email) {
 
-            if (cursor.getCount() > 0) {
-                id = cursor.getLong(cursor.getColumnIndex(User.COLUMN_ID));
+        // Query the database for a user object with the given email.
+        SQLiteStatement statement = getCompiledStatement(SQL_GET_USER_ID_BY_EMAIL);
+        synchronized (statement) {
+            try {
+                statement.bindString(1, email);
+                return statement.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                // No user has the email.
+                return -1;
+            } finally {
+                statement.clearBindings();
             }
+        }
+    }
 
-            cursor.close();
+    /**
+     * Inserts the given user objects into the database in a single transaction using one compiled
+     * statement. Users whose email is already taken are skipped. The progress listener, which may
+     * be null, is updated with the number of users read so far. Returns the number of users
+     * inserted. If the iterator throws, the whole batch is rolled back.
+     */
+    public int insertUsers(Iterator<User> users, ProgressListener progressListener) {
+
+        // Get writable database and the compiled insert statement.
+        SQLiteDatabase db = this.getWritableDatabase();
+        SQLiteStatement statement = getCompiledStatement(SQL_INSERT_USER_IF_ABSENT);
+
+        int readCount = 0;
+        int insertedCount = 0;
+
+        // Insert every row inside one transaction.
+        db.beginTransaction();
+        try {
+            synchronized (statement) {
+                while (users.hasNext()) {
+                    User user = users.next();
+                    bindStringOrNull(statement, 1, user.getFirstName());
+                    bindStringOrNull(statement, 2, user.getLastName());
+                    bindStringOrNull(statement, 3, user.getDateOfBirth());
+                    bindStringOrNull(statement, 4, user.getEmail());
+                    bindStringOrNull(statement, 5, user.getPassword());
+                    if (statement.executeInsert() != -1)
+                        insertedCount++;
+
+                    readCount++;
+                    if (progressListener != null && readCount % PROGRESS_INTERVAL == 0)
+                        progressListener.onProgress(readCount);
+                }
+                statement.clearBindings();
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
 
-        // Close the database.
-        db.close();
+        if (progressListener != null)
+            progressListener.onProgress(readCount);
 
-        return id;
+        return insertedCount;
+    }
+
+    /**
+     * Binds a string to the statement, or null if the string is null.
+     */
+    private static void bindStringOrNull(SQLiteStatement statement, int index, String value) {
+        if (value == null)
+            statement.bindNull(index);
+        else
+            statement.bindString(index, value);
     }
 
     /**
-     * Deletes a user object from the database given its id.
+     * Deletes a user object from the database given its id, along with its stats so that it drops
+     * off the leaderboard.
      */
     public void deleteUser(long id) {
 
         // Get writable database.
         SQLiteDatabase db = this.getWritableDatabase();
 
-        // Delete the user object with the given id from the database.
-        db.delete(
-                User.TABLE_NAME,
-                User.COLUMN_ID + " = ?",
-                new String[]{String.valueOf(id)}
-        );
-
-        // Close database.
-        db.close();
+        // Delete the user object with the given id and its stats from the database.
+        String[] whereArgs = new String[]{String.valueOf(id)};
+        db.beginTransaction();
+        try {
+            db.delete(UserStats.TABLE_NAME, UserStats.COLUMN_USER_ID + " = ?", whereArgs);
+            db.delete(User.TABLE_NAME, User.COLUMN_ID + " = ?", whereArgs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
     }
 
     /**
@@ -199,12 +841,10 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 user.setPassword(cursor.getString(cursor.getColumnIndex(User.COLUMN_PASSWORD)));
                 users.add(user);
             } while (cursor.moveToNext());
-
-            cursor.close();
         }
 
-        // Close database.
-        db.close();
+        // Close the cursor. The database itself stays open for the life of the process.
+        cursor.close();
 
         return users;
     }
@@ -214,70 +854,328 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     public boolean isEmailTakenByUser(String email) {
 
-        boolean taken = false;
+        // Query the database for the number of user objects with the given email.
+        SQLiteStatement statement = getCompiledStatement(SQL_IS_EMAIL_TAKEN);
+        synchronized (statement) {
+            try {
+                statement.bindString(1, email);
+                return statement.simpleQueryForLong() > 0;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
 
-        // Get readable database.
-        SQLiteDatabase db = this.getReadableDatabase();
+    /**
+     * Inserts a result object with the following attributes into the database. A seed of
+     * Result.NO_SEED is stored as null. Returns the row id of the result, or -1 if a result with
+     * the same seed is already stored, in which case nothing is inserted.
+     */
+    public long insertResult(long userId, long timestamp, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+
+        // Bind the row values to the compiled insert statement and execute it.
+        SQLiteStatement statement = getCompiledStatement(SQL_INSERT_RESULT);
+        synchronized (statement) {
+            try {
+                statement.bindLong(1, userId);
+                statement.bindLong(2, timestamp);
+                statement.bindLong(3, countQuestionsCorrect);
+                statement.bindLong(4, countTotalQuestions);
+                if (seed == Result.NO_SEED)
+                    statement.bindNull(5);
+                else
+                    statement.bindLong(5, seed);
+                return statement.executeInsert();
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
 
-        // Query the database for a user object with the given email.
-        String query = "SELECT 1 FROM " + User.TABLE_NAME + " WHERE " + User.COLUMN_EMAIL + " = ?";
-        Cursor cursor = db.rawQuery(query, new String[]{email});
+    /**
+     * Inserts the given result objects into the database in a single transaction, so that the
+     * whole batch costs one commit.
+     */
+    public void insertResults(List<Result> results) {
+        insertResults(results.iterator(), null);
+    }
+
+    /**
+     * Inserts the result objects from the given iterator into the database in a single transaction
+     * using one compiled statement. The iterator is consumed lazily, so results may be streamed in
+     * without holding them all in memory. The progress listener, which may be null, is updated with
+     * the number of results inserted so far. Returns the number of results inserted, which leaves
+     * out results whose seed is already stored. If the iterator throws, the whole batch is rolled
+     * back.
+     */
+    public int insertResults(Iterator<Result> results, ProgressListener progressListener) {
+
+        // Get writable database.
+        SQLiteDatabase db = this.getWritableDatabase();
 
-        // Extract the result of the query from the cursor if it is non-null.
-        if (cursor != null) {
-            cursor.moveToFirst();
+        int count = 0;
 
-            if (cursor.getCount() > 0)
-                taken = true;
+        // Insert every row inside one transaction.
+        db.beginTransaction();
+        try {
+            while (results.hasNext()) {
+                Result result = results.next();
+                if (insertResult(result.getUserId(), result.getTimestamp(), result.getCountQuestionsCorrect(), result.getCountTotalQuestions(), result.getSeed()) == -1)
+                    continue;
 
-            cursor.close();
+                count++;
+                if (progressListener != null && count % PROGRESS_INTERVAL == 0)
+                    progressListener.onProgress(count);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
         }
 
-        // Close the database.
-        db.close();
+        if (progressListener != null)
+            progressListener.onProgress(count);
 
-        return taken;
+        return count;
     }
 
     /**
-     * Inserts a result object with the following attributes into the database.
+     * Appends the given answer events to the database in a single transaction using one compiled
+     * statement, so that the whole batch costs one commit. An answer event whose attempt and
+     * question are already stored is ignored. Each inserted answer is folded into its question's
+     * stats in the same transaction. The events of each attempt must be next to each other.
      */
-    public void insertResult(long userId, int countQuestionsCorrect, int countTotalQuestions) {
+    public void insertAnswerEvents(List<AnswerEvent> answerEvents) {
 
         // Get writable database.
         SQLiteDatabase db = this.getWritableDatabase();
 
-        // Setup row values in a content values object.
-        ContentValues values = new ContentValues();
-        values.put(Result.COLUMN_USER_ID, userId);
-        values.put(Result.COLUMN_TIMESTAMP, System.currentTimeMillis());
-        values.put(Result.COLUMN_COUNT_QUESTIONS_CORRECT, countQuestionsCorrect);
-        values.put(Result.COLUMN_COUNT_TOTAL_QUESTIONS, countTotalQuestions);
+        // Insert every row inside one transaction, noting which ones were not already stored.
+        SQLiteStatement statement = getCompiledStatement(SQL_INSERT_ANSWER_EVENT);
+        boolean[] isInserted = new boolean[answerEvents.size()];
+        db.beginTransaction();
+        try {
+            synchronized (statement) {
+                try {
+                    for (int i = 0; i < answerEvents.size(); i++) {
+                        AnswerEvent answerEvent = answerEvents.get(i);
+                        statement.bindLong(1, answerEvent.getAttemptId());
+                        statement.bindLong(2, answerEvent.getUserId());
+                        statement.bindLong(3, answerEvent.getQuestionId());
+                        statement.bindLong(4, answerEvent.getSelection());
+                        statement.bindLong(5, answerEvent.isCorrect() ? 1 : 0);
+                        statement.bindLong(6, answerEvent.getResponseMillis());
+                        statement.bindLong(7, answerEvent.getTimestamp());
+                        isInserted[i] = statement.executeInsert() != -1;
+                    }
+                } finally {
+                    statement.clearBindings();
+                }
+            }
 
-        // Insert row into database.
-        db.insert(Result.TABLE_NAME, null, values);
+            // Fold the inserted answers into the question stats.
+            SQLiteStatement insertStatement = getCompiledStatement(QuestionStats.INSERT_IF_ABSENT);
+            SQLiteStatement updateStatement = getCompiledStatement(QuestionStats.UPDATE_ADD_ANSWER);
+            synchronized (insertStatement) {
+                synchronized (updateStatement) {
+                    addToQuestionStats(insertStatement, updateStatement, answerEvents, isInserted);
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
 
-        // Close database.
-        db.close();
+    /**
+     * Inserts the given answer events and then the given results in a single transaction, so that
+     * an attempt's answers and its result are committed together or not at all.
+     */
+    public void insertResultsAndAnswerEvents(List<Result> results, List<AnswerEvent> answerEvents) {
+
+        // Get writable database.
+        SQLiteDatabase db = this.getWritableDatabase();
+
+        // Insert both batches inside one transaction.
+        db.beginTransaction();
+        try {
+            if (!answerEvents.isEmpty())
+                insertAnswerEvents(answerEvents);
+            if (!results.isEmpty())
+                insertResults(results);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
     }
 
     /**
-     * Deletes the result objects from the database given their user ids.
+     * Deletes the answer events older than the retention period through the timestamp index.
+     * Returns the number of answer events deleted.
      */
-    public void deleteResultsForUser(long userId) {
+    public int deleteExpiredAnswerEvents() {
 
         // Get writable database.
         SQLiteDatabase db = this.getWritableDatabase();
 
-        // Delete the result objects with the specified user ids from the database.
-        db.delete(
-                Result.TABLE_NAME,
-                Result.COLUMN_USER_ID + " = ?",
-                new String[]{String.valueOf(userId)}
+        // Delete every answer event recorded before the cutoff.
+        long cutoffTimestamp = System.currentTimeMillis() - ANSWER_EVENT_RETENTION_MILLIS;
+        return db.delete(
+                AnswerEvent.TABLE_NAME,
+                AnswerEvent.COLUMN_TIMESTAMP + " < ?",
+                new String[]{String.valueOf(cutoffTimestamp)}
         );
+    }
+
+    /**
+     * Deletes the result objects from the database given their user ids, along with the user's
+     * stats. The stats row is deleted first, so the delete trigger has nothing to recompute for
+     * each deleted result.
+     */
+    public void deleteResultsForUser(long userId) {
+
+        // Get writable database.
+        SQLiteDatabase db = this.getWritableDatabase();
 
-        // Close database.
-        db.close();
+        // Delete the user's stats and then the result objects with the specified user id.
+        String[] whereArgs = new String[]{String.valueOf(userId)};
+        db.beginTransaction();
+        try {
+            db.delete(UserStats.TABLE_NAME, UserStats.COLUMN_USER_ID + " = ?", whereArgs);
+            db.delete(Result.TABLE_NAME, Result.COLUMN_USER_ID + " = ?", whereArgs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    /**
+     * Returns the quiz statistics of the user with the given id. They are kept up to date as
+     * results are inserted and deleted, so this is a single primary key lookup. A user without
+     * results gets statistics with no attempts.
+     */
+    public UserStats getUserStats(long userId) {
+
+        UserStats userStats = new UserStats(userId);
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the stats row of the given user.
+        Cursor cursor = db.rawQuery(SQL_GET_USER_STATS, new String[]{String.valueOf(userId)});
+
+        // Extract the stats from the cursor if a row was returned.
+        if (cursor.moveToFirst()) {
+            userStats.setCountAttempts(cursor.getInt(0));
+            userStats.setSumQuestionsCorrect(cursor.getLong(1));
+            userStats.setSumTotalQuestions(cursor.getLong(2));
+            userStats.setBestScore(cursor.getDouble(3));
+            userStats.setLastScore(cursor.getDouble(4));
+            userStats.setLastTimestamp(cursor.getLong(5));
+            userStats.setRollingAverageScore(cursor.getDouble(6));
+            userStats.setBestTimestamp(cursor.getLong(7));
+        }
+
+        // Close the cursor.
+        cursor.close();
+
+        return userStats;
+    }
+
+    /**
+     * Returns the distribution of scores over all stored results. It is read from the score
+     * histogram table, which always has one row per bucket, so this takes the same time no matter
+     * how many results are stored.
+     */
+    public ScoreHistogram getScoreHistogram() {
+
+        long[] counts = new long[ScoreHistogram.BUCKET_COUNT];
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the count of every bucket.
+        Cursor cursor = db.rawQuery(SQL_GET_SCORE_HISTOGRAM, null);
+        while (cursor.moveToNext())
+            counts[cursor.getInt(0)] = cursor.getLong(1);
+
+        // Close the cursor.
+        cursor.close();
+
+        return new ScoreHistogram(counts);
+    }
+
+    /**
+     * Returns the stats of every question that has been answered, each joined with the question's
+     * text, from the hardest to the easiest. The stats are kept up to date as answers are recorded,
+     * so this reads one row per question no matter how many answers are stored.
+     */
+    public ArrayList<QuestionStats> getQuestionStats() {
+
+        ArrayList<QuestionStats> questionStatsList = new ArrayList<>();
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the stats row of every answered question.
+        Cursor cursor = db.rawQuery(SQL_GET_QUESTION_STATS, null);
+
+        // Loop through all rows and add to array list.
+        while (cursor.moveToNext()) {
+            QuestionStats questionStats = new QuestionStats(cursor.getLong(0));
+            questionStats.setCountAttempts(cursor.getInt(1));
+            questionStats.setCountCorrect(cursor.getInt(2));
+            questionStats.setMeanResponseMillis(cursor.getDouble(3));
+            questionStats.setM2ResponseMillis(cursor.getDouble(4));
+            questionStats.setMeanRestScore(cursor.getDouble(5));
+            questionStats.setM2RestScore(cursor.getDouble(6));
+            questionStats.setComoment(cursor.getDouble(7));
+            questionStats.setQuestion(cursor.getString(8));
+            questionStatsList.add(questionStats);
+        }
+
+        // Close the cursor.
+        cursor.close();
+
+        return questionStatsList;
+    }
+
+    /**
+     * Returns the stats of the top users, each joined with the user's first and last name, ranked
+     * by best score or by average score. Ties go to whoever reached the score first. The ranking is
+     * read in order from an index on the user stats table, so the cost depends only on the number
+     * of entries returned, not on how many users or results are stored.
+     */
+    public ArrayList<UserStats> getLeaderboard(boolean byAverageScore, int count) {
+
+        ArrayList<UserStats> leaderboard = new ArrayList<>(count);
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the top stats rows in the requested order.
+        String query = byAverageScore ? SQL_GET_LEADERBOARD_BY_AVERAGE_SCORE : SQL_GET_LEADERBOARD_BY_BEST_SCORE;
+        Cursor cursor = db.rawQuery(query, new String[]{String.valueOf(count)});
+
+        // Loop through all rows and add to array list.
+        while (cursor.moveToNext()) {
+            UserStats userStats = new UserStats(cursor.getLong(0));
+            userStats.setCountAttempts(cursor.getInt(1));
+            userStats.setSumQuestionsCorrect(cursor.getLong(2));
+            userStats.setSumTotalQuestions(cursor.getLong(3));
+            userStats.setBestScore(cursor.getDouble(4));
+            userStats.setLastScore(cursor.getDouble(5));
+            userStats.setLastTimestamp(cursor.getLong(6));
+            userStats.setRollingAverageScore(cursor.getDouble(7));
+            userStats.setBestTimestamp(cursor.getLong(8));
+            userStats.setUserFirstName(cursor.getString(9));
+            userStats.setUserLastName(cursor.getString(10));
+            leaderboard.add(userStats);
+        }
+
+        // Close the cursor.
+        cursor.close();
+
+        return leaderboard;
     }
 
     /**
@@ -303,15 +1201,252 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                 result.setTimestamp(cursor.getLong(cursor.getColumnIndex(Result.COLUMN_TIMESTAMP)));
                 result.setCountQuestionsCorrect(cursor.getInt(cursor.getColumnIndex(Result.COLUMN_COUNT_QUESTIONS_CORRECT)));
                 result.setCountTotalQuestions(cursor.getInt(cursor.getColumnIndex(Result.COLUMN_COUNT_TOTAL_QUESTIONS)));
+                result.setSeed(cursor.getLong(cursor.getColumnIndex(Result.COLUMN_SEED)));
                 results.add(result);
             } while (cursor.moveToNext());
+        }
 
-            cursor.close();
+        // Close the cursor. The database itself stays open for the life of the process.
+        cursor.close();
+
+        return results;
+    }
+
+    /**
+     * Returns a page of stored result objects sorted by timestamp descending, each joined with the
+     * first and last name of the user it belongs to. The names are left null for results whose
+     * user no longer exists. The page starts right after the result with the given timestamp and
+     * id, which is the last result of the previous page. Pass Long.MAX_VALUE as the timestamp to
+     * get the first page. Each page is served by a seek on the timestamp index, so its cost does
+     * not depend on how many results are stored.
+     */
+    public ArrayList<Result> getResultsPage(long lastTimestamp, long lastId, int pageSize) {
+
+        ArrayList<Result> results = new ArrayList<>(pageSize);
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the next page of result object entries along with user names.
+        String query = "SELECT r." + Result.COLUMN_ID + ", r." + Result.COLUMN_USER_ID + ", r." + Result.COLUMN_TIMESTAMP + ", r." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", r." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", r." + Result.COLUMN_SEED + ", u." + User.COLUMN_FIRST_NAME + ", u." + User.COLUMN_LAST_NAME +
+                " FROM " + Result.TABLE_NAME + " r" +
+                " LEFT JOIN " + User.TABLE_NAME + " u ON u." + User.COLUMN_ID + " = r." + Result.COLUMN_USER_ID +
+                " WHERE r." + Result.COLUMN_TIMESTAMP + " <= ? AND (r." + Result.COLUMN_TIMESTAMP + " < ? OR r." + Result.COLUMN_ID + " > ?)" +
+                " ORDER BY r." + Result.COLUMN_TIMESTAMP + " DESC, r." + Result.COLUMN_ID + " ASC" +
+                " LIMIT " + pageSize;
+        String timestamp = String.valueOf(lastTimestamp);
+        Cursor cursor = db.rawQuery(query, new String[]{timestamp, timestamp, String.valueOf(lastId)});
+
+        // Loop through all rows and add to array list.
+        if (cursor.moveToFirst()) {
+            do {
+                Result result = new Result();
+                result.setId(cursor.getLong(0));
+                result.setUserId(cursor.getLong(1));
+                result.setTimestamp(cursor.getLong(2));
+                result.setCountQuestionsCorrect(cursor.getInt(3));
+                result.setCountTotalQuestions(cursor.getInt(4));
+                result.setSeed(cursor.getLong(5));
+                result.setUserFirstName(cursor.getString(6));
+                result.setUserLastName(cursor.getString(7));
+                results.add(result);
+            } while (cursor.moveToNext());
         }
 
-        // Close database.
-        db.close();
+        // Close the cursor.
+        cursor.close();
 
         return results;
     }
+
+    /**
+     * Returns a cursor over every stored user object with the given columns, in id order. The
+     * caller must close the cursor. Rows are fetched a window at a time as the cursor advances, so
+     * walking it does not load the whole table into memory.
+     */
+    public Cursor queryAllUsers(String[] columns) {
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        return db.query(User.TABLE_NAME, columns, null, null, null, null, User.COLUMN_ID);
+    }
+
+    /**
+     * Returns a cursor over every stored result object whose user still exists, oldest first. Each
+     * row holds the user's email followed by the timestamp, count of questions correct, count of
+     * total questions, and seed. The caller must close the cursor.
+     */
+    public Cursor queryAllResultsWithEmail() {
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        String query = "SELECT u." + User.COLUMN_EMAIL + ", r." + Result.COLUMN_TIMESTAMP + ", r." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", r." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", r." + Result.COLUMN_SEED +
+                " FROM " + Result.TABLE_NAME + " r" +
+                " JOIN " + User.TABLE_NAME + " u ON u." + User.COLUMN_ID + " = r." + Result.COLUMN_USER_ID +
+                " ORDER BY r." + Result.COLUMN_TIMESTAMP;
+        return db.rawQuery(query, null);
+    }
+
+    /**
+     * Returns a question object stored in the database given its id. Will return a null object if
+     * the question is not in the database. Recently loaded and prefetched questions are served from
+     * memory. The returned object is shared and must not be modified.
+     */
+    public Question getQuestion(long id) {
+
+        Question question = questionCache.get(id);
+        if (question != null)
+            return question;
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for a question object with the given id.
+        Cursor cursor = db.rawQuery(SQL_GET_QUESTION, new String[]{String.valueOf(id)});
+
+        // Extract the question object from the cursor if a row was returned.
+        if (cursor.moveToFirst()) {
+            question = readQuestion(cursor);
+            questionCache.put(id, question);
+        }
+
+        // Close the cursor.
+        cursor.close();
+
+        return question;
+    }
+
+    /**
+     * Loads up to as many questions of the given category as the question cache holds into the
+     * cache, in id order, so that a quiz over a small bank never waits on the database. Returns the
+     * number of questions loaded.
+     */
+    public int prefetchQuestions(String category) {
+
+        // Get readable database.
+        SQLiteDatabase db = this.getReadableDatabase();
+
+        // Query the database for the first questions of the category.
+        String query = "SELECT " + Question.COLUMN_ID + ", " + Question.COLUMN_CATEGORY + ", " + Question.COLUMN_QUESTION + ", " + Question.COLUMN_OPTIONS + ", " + Question.COLUMN_ANSWER_KEY +
+                " FROM " + Question.TABLE_NAME +
+                " WHERE " + Question.COLUMN_CATEGORY + " = ?" +
+                " ORDER BY " + Question.COLUMN_ID +
+                " LIMIT " + QUESTION_CACHE_SIZE;
+        Cursor cursor = db.rawQuery(query, new String[]{category});
+
+        // Add every question to the cache.
+        int count = 0;
+        while (cursor.moveToNext()) {
+            Question question = readQuestion(cursor);
+            questionCache.put(question.getId(), question);
+            count++;
+        }
+
+        // Close the cursor.
+        cursor.close();
+
+        return count;
+    }
+
+    /**
+     * Returns the question object in the current row of a cursor whose columns are the id,
+     * category, question, options, and answer key.
+     */
+    private static Question readQuestion(Cursor cursor) {
+        return new Question(
+                cursor.getLong(0),
+                cursor.getString(1),
+                cursor.getString(2),
+                parseOptions(cursor.getString(3)),
+                cursor.getLong(4)
+        );
+    }
+
+    /**
+     * Returns the options stored in a question row's JSON array as a string array.
+     */
+    private static String[] parseOptions(String json) {
+        try {
+            JSONArray array = new JSONArray(json);
+            String[] options = new String[array.length()];
+            for (int i = 0; i < options.length; i++)
+                options[i] = array.getString(i);
+            return options;
+        } catch (JSONException e) {
+            throw new SQLiteException("Malformed question options: " + json, e);
+        }
+    }
+
+    /**
+     * Returns the ids of up to count questions drawn at random from the given category, or from
+     * the whole bank if the category is null. Ids are returned in the order they were drawn.
+     *
+     * Each draw picks a random id between the first and last ids of the category and seeks to the
+     * first question at or after it through the primary key or category index, so only the rows
+     * that are returned are touched no matter how large the bank is. Questions that follow a gap in
+     * the ids are slightly more likely to be drawn. If too many draws repeat an earlier question,
+     * which happens when count is close to the size of the category, the remaining questions are
+     * taken by walking the category in id order from its first question.
+     */
+    public long[] sampleQuestionIds(String category, int count, Random random) {
+
+        // Select the statements for either the whole bank or a single category.
+        SQLiteStatement first = getCompiledStatement(category == null ? SQL_GET_FIRST_QUESTION_ID : SQL_GET_FIRST_QUESTION_ID_IN_CATEGORY);
+        SQLiteStatement last = getCompiledStatement(category == null ? SQL_GET_LAST_QUESTION_ID : SQL_GET_LAST_QUESTION_ID_IN_CATEGORY);
+        SQLiteStatement seek = getCompiledStatement(category == null ? SQL_SEEK_QUESTION_ID : SQL_SEEK_QUESTION_ID_IN_CATEGORY);
+        int seekIdIndex = category == null ? 1 : 2;
+
+        // Find the id range of the category. An empty category has no questions to draw.
+        long firstId = queryQuestionId(first, category, 0, 0);
+        long lastId = queryQuestionId(last, category, 0, 0);
+        if (firstId == -1 || lastId == -1 || count <= 0)
+            return new long[0];
+
+        LinkedHashSet<Long> sampled = new LinkedHashSet<>(count * 2);
+
+        // Draw random ids in the range and seek to the question at or after each of them.
+        long range = lastId - firstId + 1;
+        for (int seeks = 0; sampled.size() < count && seeks < count * SAMPLE_SEEKS_PER_QUESTION; seeks++) {
+            long target = firstId + Math.floorMod(random.nextLong(), range);
+            sampled.add(queryQuestionId(seek, category, seekIdIndex, target));
+        }
+
+        // Fill any remaining slots by walking the category in id order.
+        for (long id = firstId; sampled.size() < count && id != -1; ) {
+            sampled.add(id);
+            id = id < lastId ? queryQuestionId(seek, category, seekIdIndex, id + 1) : -1;
+        }
+
+        // Copy the ids into an array.
+        long[] ids = new long[sampled.size()];
+        int i = 0;
+        for (long id : sampled)
+            ids[i++] = id;
+
+        return ids;
+    }
+
+    /**
+     * Runs the given compiled question id query and returns the id it selects, or -1 if no row was
+     * selected. The category is bound to the first parameter if it is not null, and the id is bound
+     * to the parameter at idIndex if idIndex is not 0.
+     */
+    private long queryQuestionId(SQLiteStatement statement, String category, int idIndex, long id) {
+        synchronized (statement) {
+            try {
+                if (category != null)
+                    statement.bindString(1, category);
+                if (idIndex != 0)
+                    statement.bindLong(idIndex, id);
+                return statement.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                // No question matched.
+                return -1;
+            } finally {
+                statement.clearBindings();
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.davidread.quizgame.Utilities;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.davidread.quizgame.Models.QuestionStats;
+import com.davidread.quizgame.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This utility class defines how question stats objects should be adapted to be displayed in a
+ * recycler view. Entries are shown in the order they are given, each with the question's text, its
+ * correct rate, attempts, average response time, and discrimination, along with a flag if the
+ * question may need review.
+ */
+public class ItemAnalysisAdapter extends RecyclerView.Adapter<ItemAnalysisAdapter.ItemAnalysisEntryViewHolder> {
+
+    // Utility variables.
+    private Context context;
+    private ArrayList<QuestionStats> questionStatsList;
+
+    /**
+     * This class represents a holder for the views used in a single view of the recycler view.
+     */
+    public class ItemAnalysisEntryViewHolder extends RecyclerView.ViewHolder {
+
+        public TextView textViewItemAnalysisEntry;
+        public TextView textViewItemAnalysisEntryDetails;
+        public TextView textViewItemAnalysisEntryDiscrimination;
+        public TextView textViewItemAnalysisEntryFlag;
+
+        /**
+         * Constructs a view holder.
+         */
+        public ItemAnalysisEntryViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textViewItemAnalysisEntry = itemView.findViewById(R.id.text_view_item_analysis_entry);
+            textViewItemAnalysisEntryDetails = itemView.findViewById(R.id.text_view_item_analysis_entry_details);
+            textViewItemAnalysisEntryDiscrimination = itemView.findViewById(R.id.text_view_item_analysis_entry_discrimination);
+            textViewItemAnalysisEntryFlag = itemView.findViewById(R.id.text_view_item_analysis_entry_flag);
+        }
+    }
+
+    /**
+     * Constructs an empty item analysis adapter.
+     */
+    public ItemAnalysisAdapter(Context context) {
+        this.context = context;
+        this.questionStatsList = new ArrayList<>();
+    }
+
+    /**
+     * Replaces the shown question stats with the given ones.
+     */
+    public void setQuestionStats(List<QuestionStats> questionStatsList) {
+        this.questionStatsList = new ArrayList<>(questionStatsList);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Called for each view holder to initialize them by inflating the layout for a single view of
+     * the recycler view.
+     */
+    @NonNull
+    @Override
+    public ItemAnalysisEntryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.view_item_analysis_entry, parent, false);
+        return new ItemAnalysisEntryViewHolder(itemView);
+    }
+
+    /**
+     * Called for each view holder to bind each to the adapter. Data about the corresponding question
+     * stats object is passed here.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull ItemAnalysisEntryViewHolder holder, int position) {
+
+        // Get corresponding question stats object.
+        QuestionStats questionStats = questionStatsList.get(position);
+
+        // Populate text views with the question, its correct rate, attempts, and response time.
+        holder.textViewItemAnalysisEntry.setText(questionStats.getQuestion());
+        holder.textViewItemAnalysisEntryDetails.setText(context.getString(R.string.format_item_analysis_entry_details,
+                Math.round(questionStats.getCorrectRate() * 100), questionStats.getCountAttempts(), questionStats.getMeanResponseMillis() / 1000));
+
+        // Populate the discrimination, which is undefined until answers differ, and the review flag.
+        double discrimination = questionStats.getDiscrimination();
+        holder.textViewItemAnalysisEntryDiscrimination.setText(Double.isNaN(discrimination)
+                ? context.getString(R.string.text_view_item_analysis_entry_discrimination_undefined)
+                : context.getString(R.string.format_item_analysis_entry_discrimination, discrimination));
+        holder.textViewItemAnalysisEntryFlag.setVisibility(questionStats.isFlaggedForReview() ? View.VISIBLE : View.GONE);
+    }
+
+    /**
+     * Returns the number of entries in the item analysis.
+     */
+    @Override
+    public int getItemCount() {
+        return questionStatsList.size();
+    }
+}
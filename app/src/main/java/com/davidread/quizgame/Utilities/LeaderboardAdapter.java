@@ -0,0 +1,101 @@
+package com.davidread.quizgame.Utilities;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.davidread.quizgame.Models.UserStats;
+import com.davidread.quizgame.R;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This utility class defines how the user stats objects of a leaderboard should be adapted to be
+ * displayed in a recycler view. Entries are shown in the order they are given, ranked from 1, with
+ * either their best or their average score.
+ */
+public class LeaderboardAdapter extends RecyclerView.Adapter<LeaderboardAdapter.LeaderboardEntryViewHolder> {
+
+    // Utility variables.
+    private Context context;
+    private ArrayList<UserStats> leaderboard;
+    private boolean isByAverageScore;
+
+    /**
+     * This class represents a holder for the views used in a single view of the recycler view.
+     */
+    public class LeaderboardEntryViewHolder extends RecyclerView.ViewHolder {
+
+        public TextView textViewLeaderboardEntry;
+        public TextView textViewLeaderboardEntryDetails;
+
+        /**
+         * Constructs a view holder.
+         */
+        public LeaderboardEntryViewHolder(@NonNull View itemView) {
+            super(itemView);
+            textViewLeaderboardEntry = itemView.findViewById(R.id.text_view_leaderboard_entry);
+            textViewLeaderboardEntryDetails = itemView.findViewById(R.id.text_view_leaderboard_entry_details);
+        }
+    }
+
+    /**
+     * Constructs an empty leaderboard adapter.
+     */
+    public LeaderboardAdapter(Context context) {
+        this.context = context;
+        this.leaderboard = new ArrayList<>();
+    }
+
+    /**
+     * Replaces the shown leaderboard with the given one, ranked by average score if the flag is set
+     * and by best score otherwise.
+     */
+    public void setLeaderboard(List<UserStats> leaderboard, boolean isByAverageScore) {
+        this.leaderboard = new ArrayList<>(leaderboard);
+        this.isByAverageScore = isByAverageScore;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Called for each view holder to initialize them by inflating the layout for a single view of
+     * the recycler view.
+     */
+    @NonNull
+    @Override
+    public LeaderboardEntryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View itemView = LayoutInflater.from(parent.getContext()).inflate(R.layout.view_leaderboard_entry, parent, false);
+        return new LeaderboardEntryViewHolder(itemView);
+    }
+
+    /**
+     * Called for each view holder to bind each to the adapter. Data about the corresponding user
+     * stats object is passed here.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull LeaderboardEntryViewHolder holder, int position) {
+
+        // Get corresponding user stats object.
+        UserStats userStats = leaderboard.get(position);
+
+        // Populate text views with the rank and name, and the score the leaderboard is ranked by.
+        String fullName = context.getString(R.string.format_full_name, userStats.getUserFirstName(), userStats.getUserLastName());
+        holder.textViewLeaderboardEntry.setText(context.getString(R.string.format_leaderboard_entry, position + 1, fullName));
+        double score = isByAverageScore ? userStats.getAverageScore() : userStats.getBestScore();
+        holder.textViewLeaderboardEntryDetails.setText(context.getString(R.string.format_leaderboard_entry_details, Math.round(score * 100), userStats.getCountAttempts()));
+    }
+
+    /**
+     * Returns the number of entries in the leaderboard.
+     */
+    @Override
+    public int getItemCount() {
+        return leaderboard.size();
+    }
+}
@@ -0,0 +1,13 @@
+package com.davidread.quizgame.Utilities;
+
+/**
+ * This interface receives progress updates from long-running bulk operations. It is called on the
+ * thread running the operation.
+ */
+public interface ProgressListener {
+
+    /**
+     * Called periodically with the number of rows processed so far, and once more at the end.
+     */
+    void onProgress(int rowCount);
+}
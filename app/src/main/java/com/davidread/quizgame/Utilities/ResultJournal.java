@@ -0,0 +1,319 @@
+package com.davidread.quizgame.Utilities;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Result;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * This utility class holds the results and answer events the result write queue has accepted but
+ * not yet inserted, along with the journal files that let them survive the death of the process.
+ *
+ * Every accepted entry is appended to the journal as one comma-separated line before it is added
+ * to the pending lists. Result lines are "user,timestamp,correct,total,seed", and answer event
+ * lines are "e,attempt,user,question,selection,correct,responseMillis,timestamp". Taking a batch
+ * sets the journal aside as the committing journal, so that entries accepted while the batch is
+ * inserted start a new journal, and committing the batch deletes the committing journal. A
+ * committing journal that is still there when the next batch is taken belongs to a batch that was
+ * never committed, so its entries are taken again along with the pending ones. Entries that cannot
+ * be read or inserted are moved to a quarantine file.
+ *
+ * It does not depend on the Android framework. All methods are synchronized.
+ */
+public class ResultJournal {
+
+    // Names of the journal files in the given directory.
+    private static final String JOURNAL_FILE_NAME = "pending_results.journal";
+    private static final String COMMITTING_JOURNAL_FILE_NAME = "committing_results.journal";
+    private static final String QUARANTINE_FILE_NAME = "quarantined_results.journal";
+
+    // First field of journal lines that hold an answer event rather than a result.
+    private static final String ANSWER_EVENT_PREFIX = "e";
+
+    // Journal objects.
+    private final File journalFile;
+    private final File committingJournalFile;
+    private final File quarantineFile;
+    private final ArrayList<Result> pendingResults = new ArrayList<>();
+    private final ArrayList<AnswerEvent> pendingAnswerEvents = new ArrayList<>();
+
+    /**
+     * This class is a batch of results and answer events taken from the journal to be inserted.
+     */
+    public static class Batch {
+
+        private final ArrayList<Result> results = new ArrayList<>();
+        private final ArrayList<AnswerEvent> answerEvents = new ArrayList<>();
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public List<AnswerEvent> getAnswerEvents() {
+            return answerEvents;
+        }
+    }
+
+    /**
+     * Constructs a journal kept in the given directory. Entries left there by a previous process
+     * are not loaded until replay() is called.
+     */
+    public ResultJournal(File directory) {
+        journalFile = new File(directory, JOURNAL_FILE_NAME);
+        committingJournalFile = new File(directory, COMMITTING_JOURNAL_FILE_NAME);
+        quarantineFile = new File(directory, QUARANTINE_FILE_NAME);
+    }
+
+    /**
+     * Accepts the given result and returns the number of pending results. The result is accepted
+     * even if it cannot be journaled, in which case the IOException is thrown afterwards.
+     */
+    public synchronized int addResult(Result result) throws IOException {
+        pendingResults.add(result);
+        appendToFile(journalFile, formatLine(result));
+        return pendingResults.size();
+    }
+
+    /**
+     * Accepts the given answer events. They are accepted even if they cannot be journaled, in
+     * which case the IOException is thrown afterwards.
+     */
+    public synchronized void addAnswerEvents(List<AnswerEvent> answerEvents) throws IOException {
+        pendingAnswerEvents.addAll(answerEvents);
+        StringBuilder lines = new StringBuilder();
+        for (AnswerEvent answerEvent : answerEvents)
+            lines.append(formatLine(answerEvent));
+        appendToFile(journalFile, lines.toString());
+    }
+
+    /**
+     * Returns a copy of the pending results of the given user.
+     */
+    public synchronized List<Result> getPendingResults(long userId) {
+        ArrayList<Result> results = new ArrayList<>();
+        for (Result result : pendingResults) {
+            if (result.getUserId() == userId)
+                results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Returns a copy of every pending result.
+     */
+    public synchronized List<Result> getPendingResults() {
+        return new ArrayList<>(pendingResults);
+    }
+
+    /**
+     * Takes every pending entry, along with the entries of a batch that was taken but never
+     * committed, and sets the journal aside for them. Returns null if there is nothing to insert.
+     * If the journal cannot be set aside, an IOException is thrown and the entries stay pending.
+     */
+    public synchronized Batch takeBatch() throws IOException {
+
+        Batch batch = new Batch();
+        if (committingJournalFile.exists()) {
+
+            // Take the uncommitted batch again, and add the journal to it rather than replace it.
+            readFile(committingJournalFile, batch.results, batch.answerEvents, null);
+            if (journalFile.exists()) {
+                try (InputStream inputStream = new FileInputStream(journalFile);
+                     OutputStream outputStream = new FileOutputStream(committingJournalFile, true)) {
+                    byte[] buffer = new byte[8192];
+                    int count;
+                    while ((count = inputStream.read(buffer)) != -1)
+                        outputStream.write(buffer, 0, count);
+                }
+                if (!journalFile.delete())
+                    throw new IOException("Could not delete " + journalFile.getName());
+            }
+        } else if (journalFile.exists() && !journalFile.renameTo(committingJournalFile)) {
+            throw new IOException("Could not rename " + journalFile.getName());
+        }
+
+        batch.results.addAll(pendingResults);
+        batch.answerEvents.addAll(pendingAnswerEvents);
+        pendingResults.clear();
+        pendingAnswerEvents.clear();
+
+        if (batch.results.isEmpty() && batch.answerEvents.isEmpty()) {
+            commitBatch();
+            return null;
+        }
+        return batch;
+    }
+
+    /**
+     * Deletes the journal of the batch last taken, once it is committed or quarantined.
+     */
+    public synchronized void commitBatch() throws IOException {
+        if (!committingJournalFile.delete() && committingJournalFile.exists())
+            throw new IOException("Could not delete " + committingJournalFile.getName());
+    }
+
+    /**
+     * Appends the given results and answer events to the quarantine file.
+     */
+    public synchronized void quarantine(List<Result> results, List<AnswerEvent> answerEvents) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (AnswerEvent answerEvent : answerEvents)
+            lines.append(formatLine(answerEvent));
+        for (Result result : results)
+            lines.append(formatLine(result));
+        appendToFile(quarantineFile, lines.toString());
+    }
+
+    /**
+     * Replaces the pending entries with the entries in the journal. Must be called before the
+     * first batch is taken, at which point the journal holds the entries of a previous process and
+     * every entry accepted by this one. Malformed lines, such as a partially written last line, are
+     * quarantined and left out of the journal.
+     */
+    public synchronized void replay() throws IOException {
+
+        if (!journalFile.exists())
+            return;
+
+        ArrayList<Result> results = new ArrayList<>();
+        ArrayList<AnswerEvent> answerEvents = new ArrayList<>();
+        StringBuilder lines = new StringBuilder();
+        if (readFile(journalFile, results, answerEvents, lines))
+            replaceFile(journalFile, lines.toString());
+
+        pendingResults.clear();
+        pendingResults.addAll(results);
+        pendingAnswerEvents.clear();
+        pendingAnswerEvents.addAll(answerEvents);
+    }
+
+    /**
+     * Drops every pending result and answer event of the given user, both in memory and in the
+     * journal files, so that none of them is inserted after the user's stored results are deleted.
+     * Must not be called while a taken batch is being inserted.
+     */
+    public synchronized void removeUser(long userId) throws IOException {
+
+        for (Iterator<Result> iterator = pendingResults.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getUserId() == userId)
+                iterator.remove();
+        }
+        for (Iterator<AnswerEvent> iterator = pendingAnswerEvents.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getUserId() == userId)
+                iterator.remove();
+        }
+
+        for (File file : new File[]{committingJournalFile, journalFile}) {
+            if (!file.exists())
+                continue;
+            ArrayList<Result> results = new ArrayList<>();
+            ArrayList<AnswerEvent> answerEvents = new ArrayList<>();
+            readFile(file, results, answerEvents, null);
+            StringBuilder lines = new StringBuilder();
+            for (AnswerEvent answerEvent : answerEvents) {
+                if (answerEvent.getUserId() != userId)
+                    lines.append(formatLine(answerEvent));
+            }
+            for (Result result : results) {
+                if (result.getUserId() != userId)
+                    lines.append(formatLine(result));
+            }
+            replaceFile(file, lines.toString());
+        }
+    }
+
+    /**
+     * Returns a result as one comma-separated journal line.
+     */
+    private static String formatLine(Result result) {
+        return result.getUserId() + "," + result.getTimestamp() + "," + result.getCountQuestionsCorrect() + "," + result.getCountTotalQuestions() + "," + result.getSeed() + "\n";
+    }
+
+    /**
+     * Returns an answer event as one comma-separated journal line marked with the answer event
+     * prefix.
+     */
+    private static String formatLine(AnswerEvent answerEvent) {
+        return ANSWER_EVENT_PREFIX + "," + answerEvent.getAttemptId() + "," + answerEvent.getUserId() + "," + answerEvent.getQuestionId() + "," + answerEvent.getSelection() + "," + (answerEvent.isCorrect() ? 1 : 0) + "," + answerEvent.getResponseMillis() + "," + answerEvent.getTimestamp() + "\n";
+    }
+
+    /**
+     * Reads the results and answer events in the given file into the given lists, and appends the
+     * lines they were read from to the given builder, which may be null. Malformed lines are
+     * quarantined. Lines journaled before seeds were recorded have no seed. Returns true if any
+     * line was quarantined.
+     */
+    private boolean readFile(File file, List<Result> results, List<AnswerEvent> answerEvents, StringBuilder lines) throws IOException {
+
+        boolean isAnyLineQuarantined = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                try {
+                    if (fields[0].equals(ANSWER_EVENT_PREFIX) && fields.length == 8) {
+                        answerEvents.add(new AnswerEvent(
+                                Long.parseLong(fields[1]),
+                                Long.parseLong(fields[2]),
+                                Long.parseLong(fields[3]),
+                                Long.parseLong(fields[4]),
+                                fields[5].equals("1"),
+                                Integer.parseInt(fields[6]),
+                                Long.parseLong(fields[7])
+                        ));
+                    } else if (fields.length == 4 || fields.length == 5) {
+                        results.add(new Result(
+                                Long.parseLong(fields[0]),
+                                Long.parseLong(fields[1]),
+                                Integer.parseInt(fields[2]),
+                                Integer.parseInt(fields[3]),
+                                fields.length == 5 ? Long.parseLong(fields[4]) : Result.NO_SEED
+                        ));
+                    } else {
+                        throw new NumberFormatException("Unexpected field count " + fields.length);
+                    }
+                    if (lines != null)
+                        lines.append(line).append('\n');
+                } catch (NumberFormatException e) {
+                    appendToFile(quarantineFile, line + "\n");
+                    isAnyLineQuarantined = true;
+                }
+            }
+        }
+        return isAnyLineQuarantined;
+    }
+
+    /**
+     * Appends the given lines to the given file.
+     */
+    private static void appendToFile(File file, String lines) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file, true))) {
+            writer.write(lines);
+        }
+    }
+
+    /**
+     * Replaces the contents of the given file with the given lines by writing them to a temporary
+     * file and renaming it over the file, so that the file is never left half written.
+     */
+    private static void replaceFile(File file, String lines) throws IOException {
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temporaryFile))) {
+            writer.write(lines);
+        }
+        if (!temporaryFile.renameTo(file))
+            throw new IOException("Could not replace " + file.getName());
+    }
+}
@@ -0,0 +1,255 @@
+package com.davidread.quizgame.Utilities;
+
+import android.content.Context;
+import android.database.SQLException;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.StrictMode;
+import android.util.Log;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Models.ScoreHistogram;
+import com.davidread.quizgame.Models.UserStats;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * This utility class records quiz results and their answer events with write-behind. Both are
+ * accepted immediately and inserted into the database in batches, together in a single
+ * transaction, once enough results have accumulated, once a short delay has passed, or when
+ * flush() is called.
+ *
+ * Every accepted result and answer event is appended to a result journal before enqueue returns.
+ * The append is not synced to disk, but it lives in the kernel page cache and survives the death
+ * of this process. Anything left in the journal by a previous process, including a batch that was
+ * taken but never committed, is replayed when the queue is created. Replaying an entry that was
+ * already committed is harmless, since the database ignores a result whose seed is already stored.
+ *
+ * An entry that cannot be parsed or inserted is moved to a quarantine file instead of being
+ * retried on every launch.
+ */
+public class ResultWriteQueue {
+
+    // Tag used for logging.
+    private static final String TAG = "ResultWriteQueue";
+
+    // Number of pending results that triggers a flush.
+    private static final int FLUSH_SIZE_THRESHOLD = 16;
+
+    // Time after the first pending result is accepted that triggers a flush.
+    private static final long FLUSH_DELAY_MILLIS = 5000;
+
+    // Single process-wide instance.
+    private static ResultWriteQueue instance;
+
+    // Queue objects.
+    private final DatabaseHelper db;
+    private final ResultJournal journal;
+    private final Handler mainHandler;
+    private final Runnable scheduledFlush;
+    private boolean isFlushScheduled;
+
+    /**
+     * Returns the process-wide result write queue.
+     */
+    public static synchronized ResultWriteQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new ResultWriteQueue(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs a result write queue and replays any results left in the journal.
+     */
+    private ResultWriteQueue(Context context) {
+        db = DatabaseHelper.getInstance(context);
+        journal = new ResultJournal(context.getFilesDir());
+        mainHandler = new Handler(Looper.getMainLooper());
+        scheduledFlush = () -> {
+            isFlushScheduled = false;
+            flush(null);
+        };
+        DatabaseExecutor.getInstance().write(this::replayJournal, null);
+    }
+
+    /**
+     * Accepts a quiz result for the given user and quiz seed, journals it, and returns. The result
+     * is timestamped now and inserted into the database with the next batch. Must be called on the
+     * main thread.
+     */
+    public void enqueue(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+
+        Result result = new Result(userId, System.currentTimeMillis(), countQuestionsCorrect, countTotalQuestions, seed);
+
+        // Journal and accept the result. The journal append is a small write that normally only
+        // reaches the page cache, so it is allowed on the main thread.
+        int countPendingResults = 0;
+        StrictMode.ThreadPolicy oldPolicy = StrictMode.allowThreadDiskWrites();
+        try {
+            countPendingResults = journal.addResult(result);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not journal a result", e);
+        } finally {
+            StrictMode.setThreadPolicy(oldPolicy);
+        }
+
+        // Flush if enough results have accumulated, and otherwise within the flush delay.
+        if (countPendingResults >= FLUSH_SIZE_THRESHOLD)
+            flush(null);
+        if (!isFlushScheduled) {
+            isFlushScheduled = true;
+            mainHandler.postDelayed(scheduledFlush, FLUSH_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Accepts the answer events of a finished quiz attempt, journals them, and returns. They are
+     * inserted into the database with the next batch. Must be called on the main thread, before
+     * the attempt's result is enqueued.
+     */
+    public void enqueueAnswerEvents(List<AnswerEvent> answerEvents) {
+        StrictMode.ThreadPolicy oldPolicy = StrictMode.allowThreadDiskWrites();
+        try {
+            journal.addAnswerEvents(answerEvents);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not journal answer events", e);
+        } finally {
+            StrictMode.setThreadPolicy(oldPolicy);
+        }
+    }
+
+    /**
+     * Inserts all pending results and answer events into the database. The callback, which may be
+     * null, is run on the main thread afterwards, at which point everything enqueued before this
+     * call is readable.
+     */
+    public void flush(Runnable onFlushed) {
+        DatabaseExecutor.getInstance().write(this::flushPendingResults, onFlushed);
+    }
+
+    /**
+     * Returns the quiz statistics of the given user, counting their pending results as if they
+     * were already inserted. Must be called on the database writer thread, where no batch is ever
+     * halfway inserted, so that every result is counted exactly once.
+     */
+    public UserStats getUserStats(long userId) {
+        UserStats userStats = db.getUserStats(userId);
+        for (Result result : journal.getPendingResults(userId))
+            userStats.addResult(result.getTimestamp(), result.getCountQuestionsCorrect(), result.getCountTotalQuestions());
+        return userStats;
+    }
+
+    /**
+     * Returns the histogram of every result's score, counting pending results as if they were
+     * already inserted. Must be called on the database writer thread, like getUserStats().
+     */
+    public ScoreHistogram getScoreHistogram() {
+        ScoreHistogram storedHistogram = db.getScoreHistogram();
+        long[] counts = new long[ScoreHistogram.BUCKET_COUNT];
+        for (int bucket = 0; bucket < counts.length; bucket++)
+            counts[bucket] = storedHistogram.getCount(bucket);
+        for (Result result : journal.getPendingResults())
+            counts[ScoreHistogram.getBucket(result.getCountQuestionsCorrect(), result.getCountTotalQuestions())]++;
+        return new ScoreHistogram(counts);
+    }
+
+    /**
+     * Drops the pending results and answer events of the given user, so that none of them is
+     * inserted after the user's stored results are deleted. Must be called on the database writer
+     * thread, in the same task as the deletes.
+     */
+    public void removePendingResultsForUser(long userId) {
+        try {
+            journal.removeUser(userId);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not remove pending results from the result journal", e);
+        }
+    }
+
+    /**
+     * Takes the pending results and answer events, along with any batch a previous flush left
+     * uncommitted, inserts them in one transaction, and then deletes their journal. Runs on the
+     * database writer thread.
+     */
+    private void flushPendingResults() {
+        try {
+            ResultJournal.Batch batch = journal.takeBatch();
+            if (batch == null)
+                return;
+            insertOrQuarantine(batch.getResults(), batch.getAnswerEvents());
+            journal.commitBatch();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not flush the result journal", e);
+        }
+    }
+
+    /**
+     * Inserts the given results and answer events in one transaction. If that fails, each attempt
+     * is inserted on its own, so that one bad entry does not hold back the rest, and the entries of
+     * any attempt that still fails are quarantined.
+     */
+    private void insertOrQuarantine(List<Result> results, List<AnswerEvent> answerEvents) {
+
+        try {
+            db.insertResultsAndAnswerEvents(results, answerEvents);
+            return;
+        } catch (SQLException e) {
+            Log.e(TAG, "Could not insert a batch of results, inserting each attempt on its own", e);
+        }
+
+        // Group the answer events by attempt, keeping each attempt's events in order.
+        LinkedHashMap<Long, ArrayList<AnswerEvent>> answerEventsByAttempt = new LinkedHashMap<>();
+        for (AnswerEvent answerEvent : answerEvents) {
+            ArrayList<AnswerEvent> attempt = answerEventsByAttempt.get(answerEvent.getAttemptId());
+            if (attempt == null) {
+                attempt = new ArrayList<>();
+                answerEventsByAttempt.put(answerEvent.getAttemptId(), attempt);
+            }
+            attempt.add(answerEvent);
+        }
+
+        // Insert each result with the answer events of its attempt, then any events left over.
+        for (Result result : results) {
+            ArrayList<AnswerEvent> attempt = answerEventsByAttempt.remove(result.getSeed());
+            insertAttemptOrQuarantine(Collections.singletonList(result), attempt != null ? attempt : Collections.<AnswerEvent>emptyList());
+        }
+        for (ArrayList<AnswerEvent> attempt : answerEventsByAttempt.values())
+            insertAttemptOrQuarantine(Collections.<Result>emptyList(), attempt);
+    }
+
+    /**
+     * Inserts the given results and answer events of a single attempt in one transaction, or
+     * appends them to the quarantine file if they cannot be inserted.
+     */
+    private void insertAttemptOrQuarantine(List<Result> results, List<AnswerEvent> answerEvents) {
+        try {
+            db.insertResultsAndAnswerEvents(results, answerEvents);
+        } catch (SQLException e) {
+            Log.e(TAG, "Quarantining an attempt that could not be inserted", e);
+            try {
+                journal.quarantine(results, answerEvents);
+            } catch (IOException quarantineException) {
+                Log.e(TAG, "Could not quarantine an attempt", quarantineException);
+            }
+        }
+    }
+
+    /**
+     * Loads the results and answer events left in the journal by a previous process and inserts
+     * them. Runs on the database writer thread before any flush.
+     */
+    private void replayJournal() {
+        try {
+            journal.replay();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not replay the result journal", e);
+        }
+        flushPendingResults();
+    }
+}
@@ -1,6 +1,7 @@
 package com.davidread.quizgame.Utilities;
 
 import android.content.Context;
+import android.util.LruCache;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,25 +11,37 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.davidread.quizgame.Models.Result;
-import com.davidread.quizgame.Models.User;
 import com.davidread.quizgame.R;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
-import java.util.Iterator;
 
 /**
- * This utility class defines how result objects in the array list should be adapted to be displayed
- * in a recycler view. An array list of users is also required to be passed so that full names may
- * be displayed for each result instead of their id.
+ * This utility class defines how result objects should be adapted to be displayed in a recycler
+ * view. Results are loaded from the database one page at a time as the user scrolls, so only the
+ * pages the user has reached are held in memory. Each page already carries the full name of the
+ * user each result belongs to, so no separate list of users is needed.
  */
 public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ResultViewHolder> {
 
+    // Number of results loaded from the database per page.
+    public static final int PAGE_SIZE = 50;
+
+    // Number of results whose display strings are kept in memory, a few pages either way of a row.
+    private static final int RESULT_TEXT_CACHE_SIZE = 4 * PAGE_SIZE;
+
     // Utility variables.
     private Context context;
+    private DatabaseHelper db;
     private ArrayList<Result> results;
-    private ArrayList<User> users;
+    private boolean hasMorePages;
+    private boolean isLoading;
+
+    /* Formatting helpers. Display strings are built per result id on first bind and reused while
+     * the row stays near the rows recently shown, so scrolling back over it does not allocate
+     * anything new. Rows scrolled far away are evicted, so the caches stay a few pages in size. */
+    private ResultFormatter resultFormatter;
+    private LruCache<Long, String> resultTextCache;
+    private LruCache<Long, String> resultDetailsTextCache;
 
     /**
      * This class represents a holder for the views used in a single view of the recycler view.
@@ -49,12 +62,61 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ResultVi
     }
 
     /**
-     * Constructs a results adapter.
+     * Constructs a results adapter. It starts empty; call loadNextPage() to load the first page.
      */
-    public ResultsAdapter(Context context, ArrayList<Result> results, ArrayList<User> users) {
+    public ResultsAdapter(Context context, DatabaseHelper db) {
         this.context = context;
-        this.results = results;
-        this.users = users;
+        this.db = db;
+        this.results = new ArrayList<>();
+        this.hasMorePages = true;
+        this.resultFormatter = new ResultFormatter();
+        this.resultTextCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+        this.resultDetailsTextCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+    }
+
+    /**
+     * Loads the page of results following the last loaded result off the main thread and appends it
+     * to the adapter. The callback, which may be null, is run on the main thread once the page has
+     * been appended. Does nothing if a page is already loading or the last page has been loaded.
+     */
+    public void loadNextPage(Runnable onPageLoaded) {
+
+        if (!hasMorePages || isLoading)
+            return;
+        isLoading = true;
+
+        // Continue from the last loaded result, or start from the newest result.
+        final long lastTimestamp;
+        final long lastId;
+        if (results.isEmpty()) {
+            lastTimestamp = Long.MAX_VALUE;
+            lastId = -1;
+        } else {
+            Result lastResult = results.get(results.size() - 1);
+            lastTimestamp = lastResult.getTimestamp();
+            lastId = lastResult.getId();
+        }
+
+        DatabaseExecutor.getInstance().read(() -> db.getResultsPage(lastTimestamp, lastId, PAGE_SIZE), page -> {
+
+            // A short page means there is nothing left to load.
+            hasMorePages = page.size() == PAGE_SIZE;
+            isLoading = false;
+
+            int positionStart = results.size();
+            results.addAll(page);
+            notifyItemRangeInserted(positionStart, page.size());
+
+            if (onPageLoaded != null)
+                onPageLoaded.run();
+        });
+    }
+
+    /**
+     * Returns true if there may be more results to load.
+     */
+    public boolean hasMorePages() {
+        return hasMorePages;
     }
 
     /**
@@ -79,12 +141,12 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ResultVi
         Result result = results.get(position);
 
         // Populate text views with the result and details about the result.
-        holder.textViewResult.setText(context.getString(R.string.format_result, result.getCountQuestionsCorrect(), result.getCountTotalQuestions()));
-        holder.textViewResultDetails.setText(context.getString(R.string.format_result_details, getNameFromUserId(result.getUserId()), formatTime(result.getTimestamp()), formatDate(result.getTimestamp())));
+        holder.textViewResult.setText(getResultText(result));
+        holder.textViewResultDetails.setText(getResultDetailsText(result));
     }
 
     /**
-     * Returns the size of the array list.
+     * Returns the number of results loaded so far.
      */
     @Override
     public int getItemCount() {
@@ -92,35 +154,37 @@ public class ResultsAdapter extends RecyclerView.Adapter<ResultsAdapter.ResultVi
     }
 
     /**
-     * Returns a user's full name given their user id. It checks the array list of users passed to
-     * this class.
+     * Returns the score text for a result, formatting and caching it on first use.
      */
-    private String getNameFromUserId(long userId) {
-
-        Iterator<User> iterator = users.iterator();
-
-        while(iterator.hasNext()) {
-            User user = iterator.next();
-            if (user.getId() == userId)
-                return context.getString(R.string.format_full_name, user.getFirstName(), user.getLastName());
+    private String getResultText(Result result) {
+        String text = resultTextCache.get(result.getId());
+        if (text == null) {
+            text = context.getString(R.string.format_result, result.getCountQuestionsCorrect(), result.getCountTotalQuestions());
+            resultTextCache.put(result.getId(), text);
         }
-
-        return context.getString(R.string.text_view_user_unknown);
+        return text;
     }
 
     /**
-     * Returns a formatted time string (hh:mm aa) given an epoch timestamp.
+     * Returns the details text (name, time, and date) for a result, formatting and caching it on
+     * first use.
      */
-    private String formatTime(long timestamp) {
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("hh:mm aa");
-        return simpleDateFormat.format(new Date(timestamp));
+    private String getResultDetailsText(Result result) {
+        String text = resultDetailsTextCache.get(result.getId());
+        if (text == null) {
+            text = context.getString(R.string.format_result_details, getFullName(result), resultFormatter.formatTime(result.getTimestamp()), resultFormatter.formatDate(result.getTimestamp()));
+            resultDetailsTextCache.put(result.getId(), text);
+        }
+        return text;
     }
 
     /**
-     * Returns a formatted date string (M/d/yyyy) given an epoch timestamp.
+     * Returns the full name of the user a result belongs to, or a placeholder if that user no
+     * longer exists.
      */
-    private String formatDate(long timestamp) {
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("M/d/yyyy");
-        return simpleDateFormat.format(new Date(timestamp));
+    private String getFullName(Result result) {
+        if (result.getUserFirstName() == null)
+            return context.getString(R.string.text_view_user_unknown);
+        return context.getString(R.string.format_full_name, result.getUserFirstName(), result.getUserLastName());
     }
 }
\ No newline at end of file
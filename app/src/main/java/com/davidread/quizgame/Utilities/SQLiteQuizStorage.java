@@ -0,0 +1,63 @@
+package com.davidread.quizgame.Utilities;
+
+import android.content.Context;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This utility class is the quiz storage of the app. Questions are read from the SQLite database
+ * and results and answer events are recorded through the result write queue.
+ */
+public class SQLiteQuizStorage implements QuizStorage {
+
+    // Storage objects.
+    private final DatabaseHelper db;
+    private final ResultWriteQueue resultWriteQueue;
+
+    /**
+     * Constructs a quiz storage backed by the app's database.
+     */
+    public SQLiteQuizStorage(Context context) {
+        db = DatabaseHelper.getInstance(context);
+        resultWriteQueue = ResultWriteQueue.getInstance(context);
+    }
+
+    /**
+     * Returns the question with the given id. Must be called off the main thread.
+     */
+    @Override
+    public Question getQuestion(long id) {
+        return db.getQuestion(id);
+    }
+
+    /**
+     * Draws the sample by random id seeks, see DatabaseHelper.sampleQuestionIds(). Must be called
+     * off the main thread.
+     */
+    @Override
+    public long[] sampleQuestionIds(String category, int count, Random random) {
+        return db.sampleQuestionIds(category, count, random);
+    }
+
+    /**
+     * Hands the result to the result write queue and returns immediately. Must be called on the
+     * main thread.
+     */
+    @Override
+    public void recordResult(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+        resultWriteQueue.enqueue(userId, countQuestionsCorrect, countTotalQuestions, seed);
+    }
+
+    /**
+     * Hands the answer events to the result write queue and returns immediately. Must be called on
+     * the main thread.
+     */
+    @Override
+    public void recordAnswers(List<AnswerEvent> answerEvents) {
+        resultWriteQueue.enqueueAnswerEvents(answerEvents);
+    }
+}
@@ -0,0 +1,80 @@
+package com.davidread.quizgame.Utilities;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * This utility class records how long the app takes to start. A start is cold if it is the first
+ * launch of the splash screen since the process was created, and warm if the process was already
+ * running. Cold starts are timed from process creation and warm starts from the splash screen's
+ * creation, both up to the point the splash screen hands off to the next screen.
+ *
+ * Each start is appended as one comma-separated line of wall clock timestamp, start type, total
+ * start time in milliseconds, and warm-up work time in milliseconds to a log in the app's private
+ * files directory, so regressions can be tracked across builds.
+ */
+public class StartupMetrics {
+
+    // Tag used for logging.
+    private static final String TAG = "StartupMetrics";
+
+    // Name of the metrics log in the app's private files directory.
+    private static final String LOG_FILE_NAME = "startup_metrics.log";
+
+    // Start type constants.
+    public static final String START_TYPE_COLD = "cold";
+    public static final String START_TYPE_WARM = "warm";
+
+    // Uptime when the process was created, and whether a start has been recorded since.
+    private static long processStartUptimeMillis = -1;
+    private static boolean isStartRecorded;
+
+    /**
+     * Marks the creation of the process. Must be called first thing in Application.onCreate().
+     */
+    public static void markProcessStart() {
+        processStartUptimeMillis = SystemClock.uptimeMillis();
+    }
+
+    /**
+     * Returns the start type of a launch beginning now, and marks later launches as warm. Must be
+     * called on the main thread.
+     */
+    public static String beginStart() {
+        String startType = isStartRecorded || processStartUptimeMillis == -1 ? START_TYPE_WARM : START_TYPE_COLD;
+        isStartRecorded = true;
+        return startType;
+    }
+
+    /**
+     * Returns the uptime a start of the given type is timed from, given the uptime the splash
+     * screen was created at.
+     */
+    public static long getStartUptimeMillis(String startType, long splashUptimeMillis) {
+        return START_TYPE_COLD.equals(startType) ? processStartUptimeMillis : splashUptimeMillis;
+    }
+
+    /**
+     * Appends a start to the metrics log on the database writer thread, which already serializes
+     * the app's other background file writes.
+     */
+    public static void record(Context context, String startType, long startMillis, long warmUpMillis) {
+        File logFile = new File(context.getFilesDir(), LOG_FILE_NAME);
+        String line = System.currentTimeMillis() + "," + startType + "," + startMillis + "," + warmUpMillis + "\n";
+        Log.i(TAG, "Startup " + startType + ": " + startMillis + " ms total, " + warmUpMillis + " ms warm-up");
+        DatabaseExecutor.getInstance().write(() -> {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(logFile, true))) {
+                writer.write(line);
+            } catch (IOException e) {
+                Log.e(TAG, "Could not record startup metrics", e);
+            }
+        }, null);
+    }
+}
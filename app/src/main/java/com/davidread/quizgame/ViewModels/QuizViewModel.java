@@ -0,0 +1,228 @@
+package com.davidread.quizgame.ViewModels;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.Quiz;
+import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Models.User;
+import com.davidread.quizgame.Models.UserStats;
+import com.davidread.quizgame.Utilities.DatabaseExecutor;
+import com.davidread.quizgame.Utilities.DatabaseHelper;
+import com.davidread.quizgame.Utilities.QuizStorage;
+import com.davidread.quizgame.Utilities.ResultWriteQueue;
+import com.davidread.quizgame.Utilities.SQLiteQuizStorage;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * This view model class holds the quiz state of the main activity, along with the logged in user
+ * and their quiz statistics.
+ * It is scoped to the activity, so it survives configuration changes such as rotation and the quiz
+ * keeps its progress. The question fragment reads the current question from this shared model, so
+ * question text is never copied into fragment arguments or saved state.
+ *
+ * All methods must be called on the main thread. Database work is done through the database
+ * executor, and its results are published on the main thread.
+ */
+public class QuizViewModel extends AndroidViewModel {
+
+    // User id that stands for no logged in user.
+    public static final long NO_USER_ID = -1;
+
+    // Category of the question bank the quiz draws from and the number of questions drawn.
+    public static final String QUIZ_CATEGORY = "fragments";
+    private static final int QUIZ_LENGTH = 5;
+
+    // View model objects.
+    private final DatabaseHelper db;
+    private final QuizStorage storage;
+    private final Random random = new Random();
+    private final MutableLiveData<User> loggedInUser = new MutableLiveData<>();
+    private final MutableLiveData<UserStats> loggedInUserStats = new MutableLiveData<>();
+    private final MutableLiveData<Question> currentQuestion = new MutableLiveData<>();
+    private long loggedInUserId = NO_USER_ID;
+    private Quiz quiz;
+    private Quiz completedQuiz;
+
+    /* Quiz and question index of the question load in flight, and the callbacks waiting for it.
+     * A second request for the same question joins the load in flight, so a quiz is never
+     * loading the same question on two reader threads at once. */
+    private Quiz questionLoadQuiz;
+    private int questionLoadIndex;
+    private ArrayList<DatabaseExecutor.Callback<Question>> questionLoadCallbacks = new ArrayList<>();
+
+    /**
+     * Constructs a view model bound to the application.
+     */
+    public QuizViewModel(@NonNull Application application) {
+        super(application);
+        db = DatabaseHelper.getInstance(application);
+        storage = new SQLiteQuizStorage(application);
+    }
+
+    /**
+     * Loads the given logged in user and draws their first quiz, unless this model already holds
+     * them. Returns true if the model was empty, which is the case on first launch and after the
+     * process was killed, and false if existing state was kept. The user id must not be
+     * NO_USER_ID.
+     */
+    public boolean init(long userId) {
+
+        if (userId == NO_USER_ID)
+            throw new IllegalArgumentException("No logged in user id");
+        if (loggedInUserId == userId)
+            return false;
+
+        loggedInUserId = userId;
+        DatabaseExecutor.getInstance().read(() -> db.getUser(userId), loggedInUser::setValue);
+        refreshLoggedInUserStats();
+        loadQuiz();
+        return true;
+    }
+
+    /**
+     * Returns the logged in user. Its value is null until the user is loaded.
+     */
+    public LiveData<User> getLoggedInUser() {
+        return loggedInUser;
+    }
+
+    /**
+     * Returns the quiz statistics of the logged in user. Its value is null until they are loaded.
+     */
+    public LiveData<UserStats> getLoggedInUserStats() {
+        return loggedInUserStats;
+    }
+
+    /**
+     * Reloads the quiz statistics of the logged in user, counting results that are not yet written,
+     * and publishes them. Call it whenever the user's results change.
+     */
+    public void refreshLoggedInUserStats() {
+        long userId = loggedInUserId;
+        ResultWriteQueue resultWriteQueue = ResultWriteQueue.getInstance(getApplication());
+        DatabaseExecutor.getInstance().write(() -> resultWriteQueue.getUserStats(userId), loggedInUserStats::setValue);
+    }
+
+    /**
+     * Returns the current question of the quiz. Its value is null until the question is loaded
+     * through loadCurrentQuestion().
+     */
+    public LiveData<Question> getCurrentQuestion() {
+        return currentQuestion;
+    }
+
+    /**
+     * Returns true if the quiz has loaded and has questions left to answer.
+     */
+    public boolean isQuizAvailable() {
+        return quiz != null && !quiz.isQuizComplete();
+    }
+
+    /**
+     * Loads the quiz's current question off the main thread, publishes it as the current question,
+     * and then passes it to the callback. If the same question is already loading, the callback
+     * waits for that load instead of starting another one. The quiz must be available.
+     */
+    public void loadCurrentQuestion(DatabaseExecutor.Callback<Question> callback) {
+
+        Quiz loadingQuiz = quiz;
+        int loadingIndex = quiz.getIndexCurrentQuestion();
+        if (questionLoadQuiz != loadingQuiz || questionLoadIndex != loadingIndex) {
+            questionLoadQuiz = loadingQuiz;
+            questionLoadIndex = loadingIndex;
+            questionLoadCallbacks = new ArrayList<>();
+            ArrayList<DatabaseExecutor.Callback<Question>> callbacks = questionLoadCallbacks;
+            DatabaseExecutor.getInstance().read(loadingQuiz::getCurrentQuestion, question -> {
+                if (questionLoadCallbacks == callbacks)
+                    questionLoadQuiz = null;
+                // Drop the question if a new quiz was drawn or the quiz moved on while it loaded.
+                if (loadingQuiz != quiz || loadingIndex != quiz.getIndexCurrentQuestion())
+                    return;
+                currentQuestion.setValue(question);
+                for (DatabaseExecutor.Callback<Question> waitingCallback : callbacks)
+                    waitingCallback.onComplete(question);
+            });
+        }
+        if (callback != null)
+            questionLoadCallbacks.add(callback);
+    }
+
+    /**
+     * Returns the index of the current question, or -1 if no quiz is loaded.
+     */
+    public int getIndexCurrentQuestion() {
+        return quiz != null ? quiz.getIndexCurrentQuestion() : -1;
+    }
+
+    /**
+     * Returns the number of questions in the quiz, or 0 if no quiz is loaded.
+     */
+    public int getCountTotalQuestions() {
+        return quiz != null ? quiz.getCountTotalQuestions() : 0;
+    }
+
+    /**
+     * Returns the quiz most recently completed through submitAnswer(), or null if none has been.
+     */
+    public Quiz getCompletedQuiz() {
+        return completedQuiz;
+    }
+
+    /**
+     * Returns the option order of the current question. See Quiz.getOptionOrder().
+     */
+    public int[] getOptionOrder() {
+        return quiz.getOptionOrder();
+    }
+
+    /**
+     * Grades the current question with the given user selection and moves to the next question.
+     * If that completes the quiz, the result is recorded, the user's statistics are refreshed, and
+     * a new quiz is drawn. Returns true if the quiz was completed.
+     *
+     * @param userSelection  Bitmask of the options the user selected, where bit i is set if the
+     *                       option shown at position i was selected.
+     */
+    public boolean submitAnswer(long userSelection) {
+
+        // Have quiz object grade the current question and increment to the next question.
+        quiz.gradeCurrentQuestion(userSelection);
+        quiz.incrementCurrentQuestion();
+        currentQuestion.setValue(null);
+
+        if (!quiz.isQuizComplete())
+            return false;
+
+        // Record the quiz result, refresh the user's statistics, and draw a new quiz.
+        quiz.recordQuizResult();
+        completedQuiz = quiz;
+        refreshLoggedInUserStats();
+        loadQuiz();
+        return true;
+    }
+
+    /**
+     * Picks a seed for a new quiz attempt, draws a sample of questions with it off the main thread,
+     * and initializes a new quiz with them. The seed also fixes the order of questions and options,
+     * so it is enough to reproduce the attempt. Until the sample is loaded, there is no quiz to
+     * start.
+     */
+    private void loadQuiz() {
+        quiz = null;
+        long seed;
+        do {
+            seed = random.nextLong();
+        } while (seed == Result.NO_SEED);
+        final long quizSeed = seed;
+        long userId = loggedInUserId;
+        DatabaseExecutor.getInstance().read(() -> storage.sampleQuestionIds(QUIZ_CATEGORY, QUIZ_LENGTH, new Random(quizSeed)), questionIds -> quiz = new Quiz(questionIds, quizSeed, userId, storage));
+    }
+}
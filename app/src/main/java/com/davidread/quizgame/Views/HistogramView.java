@@ -0,0 +1,90 @@
+package com.davidread.quizgame.Views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.View;
+
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.davidread.quizgame.Models.ScoreHistogram;
+import com.davidread.quizgame.R;
+
+/**
+ * This view class draws a score histogram as a bar chart. The 101 percentage buckets are grouped
+ * into ten bars of ten percentage points each, with 100% counted in the last bar, and every bar is
+ * scaled against the tallest one. The bar holding a highlighted bucket, such as the score of the
+ * quiz just finished, is drawn in the accent color.
+ */
+public class HistogramView extends View {
+
+    // Number of bars drawn and the number of buckets grouped into each.
+    private static final int BAR_COUNT = 10;
+    private static final int BUCKETS_PER_BAR = 10;
+
+    // Fraction of each bar's slot left empty as a gap between bars.
+    private static final float BAR_GAP_FRACTION = 0.2f;
+
+    // View objects. Allocated once so that drawing allocates nothing.
+    private final Paint barPaint;
+    private final Paint highlightedBarPaint;
+    private final RectF barRect = new RectF();
+    private final long[] barCounts = new long[BAR_COUNT];
+    private long maxBarCount;
+    private int highlightedBar = -1;
+
+    /**
+     * Constructs a histogram view from a layout.
+     */
+    public HistogramView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        barPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        barPaint.setColor(ContextCompat.getColor(context, R.color.indigo_200));
+        highlightedBarPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        highlightedBarPaint.setColor(ContextCompat.getColor(context, R.color.pink_500));
+    }
+
+    /**
+     * Shows the given histogram with the bar holding the given bucket highlighted. Pass -1 to
+     * highlight nothing.
+     */
+    public void setHistogram(ScoreHistogram histogram, int highlightedBucket) {
+        maxBarCount = 0;
+        for (int bar = 0; bar < BAR_COUNT; bar++) {
+            barCounts[bar] = 0;
+            for (int bucket = bar * BUCKETS_PER_BAR; bucket < (bar + 1) * BUCKETS_PER_BAR; bucket++)
+                barCounts[bar] += histogram.getCount(bucket);
+        }
+        barCounts[BAR_COUNT - 1] += histogram.getCount(ScoreHistogram.BUCKET_COUNT - 1);
+        for (long barCount : barCounts)
+            maxBarCount = Math.max(maxBarCount, barCount);
+        highlightedBar = highlightedBucket < 0 ? -1 : Math.min(highlightedBucket / BUCKETS_PER_BAR, BAR_COUNT - 1);
+        invalidate();
+    }
+
+    /**
+     * Draws a bar for each group of buckets, bottom-aligned and scaled to the tallest bar.
+     */
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (maxBarCount == 0)
+            return;
+
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float bottom = getHeight() - getPaddingBottom();
+        float slotWidth = (getWidth() - getPaddingLeft() - getPaddingRight()) / (float) BAR_COUNT;
+        float gap = slotWidth * BAR_GAP_FRACTION / 2;
+
+        for (int bar = 0; bar < BAR_COUNT; bar++) {
+            float barTop = bottom - (bottom - top) * barCounts[bar] / maxBarCount;
+            barRect.set(left + bar * slotWidth + gap, barTop, left + (bar + 1) * slotWidth - gap, bottom);
+            canvas.drawRect(barRect, bar == highlightedBar ? highlightedBarPaint : barPaint);
+        }
+    }
+}
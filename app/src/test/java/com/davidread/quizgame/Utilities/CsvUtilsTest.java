@@ -0,0 +1,73 @@
+package com.davidread.quizgame.Utilities;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for CsvUtils. Records are formatted the way DataExporter writes them and read
+ * back the way DataImporter reads them.
+ */
+public class CsvUtilsTest {
+
+    /**
+     * Formats the fields as one record followed by a line break, as DataExporter does.
+     */
+    private static String formatRecord(String... fields) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0)
+                builder.append(',');
+            CsvUtils.appendField(builder, fields[i]);
+        }
+        return builder.append('\n').toString();
+    }
+
+    @Test
+    public void roundTrip_plainFields() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(formatRecord("Ada", "Lovelace", "ada@example.com")));
+        assertArrayEquals(new String[]{"Ada", "Lovelace", "ada@example.com"}, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+        assertNull(CsvUtils.readRecord(reader));
+    }
+
+    @Test
+    public void roundTrip_commasAndQuotes() throws IOException {
+        String[] fields = {"Smith, Jr.", "say \"hi\"", "\"", ","};
+        BufferedReader reader = new BufferedReader(new StringReader(formatRecord(fields)));
+        assertArrayEquals(fields, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+    }
+
+    @Test
+    public void roundTrip_lineBreaksInFields() throws IOException {
+        String[] first = {"line one\nline two", "x"};
+        String[] second = {"\n\nblank lines\n", "trailing \"quote\"\n"};
+        String[] third = {"a", "b"};
+        BufferedReader reader = new BufferedReader(new StringReader(formatRecord(first) + formatRecord(second) + formatRecord(third)));
+        assertArrayEquals(first, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+        assertArrayEquals(second, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+        assertArrayEquals(third, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+        assertNull(CsvUtils.readRecord(reader));
+    }
+
+    @Test
+    public void readRecord_carriageReturnInFieldIsReadAsLineFeed() throws IOException {
+        BufferedReader reader = new BufferedReader(new StringReader(formatRecord("one\r\ntwo")));
+        assertArrayEquals(new String[]{"one\ntwo"}, CsvUtils.parseLine(CsvUtils.readRecord(reader)));
+    }
+
+    @Test(expected = IOException.class)
+    public void readRecord_unclosedQuoteThrows() throws IOException {
+        CsvUtils.readRecord(new BufferedReader(new StringReader("\"open,field\nnever closed\n")));
+    }
+
+    @Test
+    public void appendField_nullIsEmpty() {
+        StringBuilder builder = new StringBuilder();
+        CsvUtils.appendField(builder, null);
+        assertEquals("", builder.toString());
+    }
+}
@@ -0,0 +1,152 @@
+package com.davidread.quizgame.Utilities;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Result;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for ResultJournal. A restart is simulated by constructing a new journal over
+ * the same directory and replaying it.
+ */
+public class ResultJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Returns the seeds of the given results in order.
+     */
+    private static List<Long> getSeeds(List<Result> results) {
+        ArrayList<Long> seeds = new ArrayList<>();
+        for (Result result : results)
+            seeds.add(result.getSeed());
+        return seeds;
+    }
+
+    /**
+     * Returns a result of the given user with the given seed.
+     */
+    private static Result newResult(long userId, long seed) {
+        return new Result(userId, 1000 + seed, 7, 10, seed);
+    }
+
+    @Test
+    public void takeBatch_nothingPending() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        assertNull(journal.takeBatch());
+    }
+
+    @Test
+    public void takeBatch_committedBatchIsNotTakenAgain() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        assertEquals(Collections.singletonList(1L), getSeeds(journal.takeBatch().getResults()));
+        journal.commitBatch();
+
+        ResultJournal restartedJournal = new ResultJournal(folder.getRoot());
+        restartedJournal.replay();
+        assertNull(restartedJournal.takeBatch());
+    }
+
+    @Test
+    public void takeBatch_uncommittedBatchIsKept() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        journal.addResult(newResult(1, 2));
+        journal.takeBatch();
+
+        // The insert failed without the batch being committed, and more results were accepted.
+        journal.addResult(newResult(1, 3));
+        ResultJournal.Batch batch = journal.takeBatch();
+        assertEquals(Arrays.asList(1L, 2L, 3L), getSeeds(batch.getResults()));
+    }
+
+    @Test
+    public void takeBatch_uncommittedBatchIsKeptAcrossRestarts() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        journal.takeBatch();
+        journal.addResult(newResult(1, 2));
+        journal.takeBatch();
+        journal.addResult(newResult(1, 3));
+
+        ResultJournal restartedJournal = new ResultJournal(folder.getRoot());
+        restartedJournal.replay();
+        ResultJournal.Batch batch = restartedJournal.takeBatch();
+        assertEquals(Arrays.asList(1L, 2L, 3L), getSeeds(batch.getResults()));
+        restartedJournal.commitBatch();
+        assertNull(restartedJournal.takeBatch());
+    }
+
+    @Test
+    public void getPendingResults_onlyUntakenResults() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        journal.takeBatch();
+        journal.addResult(newResult(1, 2));
+        journal.addResult(newResult(2, 3));
+        assertEquals(Collections.singletonList(2L), getSeeds(journal.getPendingResults(1)));
+        assertEquals(Arrays.asList(2L, 3L), getSeeds(journal.getPendingResults()));
+    }
+
+    @Test
+    public void removeUser_pendingResultsDoNotComeBack() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        journal.addResult(newResult(2, 2));
+        journal.addResult(newResult(1, 3));
+        journal.addAnswerEvents(Collections.singletonList(new AnswerEvent(3, 1, 42, 0, true, 500, 1003)));
+        journal.removeUser(1);
+
+        ResultJournal.Batch batch = journal.takeBatch();
+        assertEquals(Collections.singletonList(2L), getSeeds(batch.getResults()));
+        assertTrue(batch.getAnswerEvents().isEmpty());
+
+        ResultJournal restartedJournal = new ResultJournal(folder.getRoot());
+        restartedJournal.replay();
+        assertEquals(Collections.singletonList(2L), getSeeds(restartedJournal.takeBatch().getResults()));
+    }
+
+    @Test
+    public void removeUser_uncommittedBatchDoesNotComeBack() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        journal.addResult(newResult(2, 2));
+        journal.takeBatch();
+        journal.addResult(newResult(1, 3));
+        journal.removeUser(1);
+
+        ResultJournal restartedJournal = new ResultJournal(folder.getRoot());
+        restartedJournal.replay();
+        assertEquals(Collections.singletonList(2L), getSeeds(restartedJournal.takeBatch().getResults()));
+    }
+
+    @Test
+    public void replay_malformedLineIsQuarantined() throws IOException {
+        ResultJournal journal = new ResultJournal(folder.getRoot());
+        journal.addResult(newResult(1, 1));
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(new File(folder.getRoot(), "pending_results.journal"), true))) {
+            writer.write("1,10");
+        }
+
+        ResultJournal restartedJournal = new ResultJournal(folder.getRoot());
+        restartedJournal.replay();
+        assertEquals(Collections.singletonList(1L), getSeeds(restartedJournal.takeBatch().getResults()));
+        assertTrue(new File(folder.getRoot(), "quarantined_results.journal").exists());
+    }
+}
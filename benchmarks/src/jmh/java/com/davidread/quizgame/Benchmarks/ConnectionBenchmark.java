@@ -0,0 +1,102 @@
+package com.davidread.quizgame.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of single database calls drawn from a fixed mix of 4,096 calls, both on
+ * one connection kept open with its statements prepared, as the process-wide DatabaseHelper does,
+ * and on a connection opened and closed around every call, as the app did before. The mix is 40%
+ * login lookups, 30% question loads, 20% first results pages, and 10% result inserts. The
+ * database holds 1,000 users, 10,000 results, and 1,000 questions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConnectionBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+    private static final int RESULT_COUNT = 10_000;
+    private static final int QUESTION_COUNT = 1_000;
+    private static final int PAGE_SIZE = 50;
+
+    // Number of calls in the mix, a power of two.
+    private static final int CALL_COUNT = 4096;
+
+    // Kinds of calls in the mix.
+    private static final int CALL_GET_USER_ID = 0;
+    private static final int CALL_GET_QUESTION = 1;
+    private static final int CALL_GET_RESULTS_PAGE = 2;
+    private static final int CALL_INSERT_RESULT = 3;
+
+    private final int[] calls = new int[CALL_COUNT];
+    private File databaseFile;
+    private JdbcQuizDatabase db;
+    private Random random;
+    private int callIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        databaseFile = File.createTempFile("quiz-benchmark", ".db");
+        databaseFile.delete();
+        db = new JdbcQuizDatabase(databaseFile.getPath());
+        BenchmarkData.insertUsers(db, USER_COUNT);
+        BenchmarkData.insertResults(db, RESULT_COUNT, USER_COUNT, 42);
+        BenchmarkData.insertQuestions(db, QUESTION_COUNT, 42);
+        random = new Random(42);
+        for (int i = 0; i < CALL_COUNT; i++) {
+            int percentile = random.nextInt(100);
+            calls[i] = percentile < 40 ? CALL_GET_USER_ID : percentile < 70 ? CALL_GET_QUESTION : percentile < 90 ? CALL_GET_RESULTS_PAGE : CALL_INSERT_RESULT;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"})
+            new File(databaseFile.getPath() + suffix).delete();
+    }
+
+    /**
+     * Runs the next call of the mix on the given database and returns a value derived from it.
+     */
+    private long runNextCall(JdbcQuizDatabase db) throws SQLException {
+        switch (calls[callIndex++ & (CALL_COUNT - 1)]) {
+            case CALL_GET_USER_ID:
+                String email = BenchmarkData.getEmail(1 + random.nextInt(USER_COUNT));
+                return db.getUserId(email, email);
+            case CALL_GET_QUESTION:
+                return db.getQuestion(1 + random.nextInt(QUESTION_COUNT)).getId();
+            case CALL_GET_RESULTS_PAGE:
+                return db.getResultsPage(Long.MAX_VALUE, 0, PAGE_SIZE).size();
+            default:
+                db.insertResult(1 + random.nextInt(USER_COUNT), System.currentTimeMillis(), 3, 5, random.nextLong());
+                return 0;
+        }
+    }
+
+    @Benchmark
+    public long mixedCallSharedConnection() throws SQLException {
+        return runNextCall(db);
+    }
+
+    @Benchmark
+    public long mixedCallConnectionPerCall() throws SQLException {
+        try (JdbcQuizDatabase perCallDb = new JdbcQuizDatabase(databaseFile.getPath())) {
+            return runNextCall(perCallDb);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.Result;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the app's hot database operations against an on-disk SQLite database with the app's
+ * schema and SQL. The database holds 1,000 users, 100,000 results, and 10,000 questions.
+ *
+ * Login lookups and result inserts are also measured in statements per second, both with the
+ * cached prepared statement and with a statement prepared on every call, which is how the app
+ * issued them before it cached compiled statements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DatabaseBenchmark {
+
+    private static final int USER_COUNT = 1_000;
+    private static final int RESULT_COUNT = 100_000;
+    private static final int QUESTION_COUNT = 10_000;
+    private static final int PAGE_SIZE = 50;
+    private static final int BATCH_SIZE = 16;
+
+    private File databaseFile;
+    private JdbcQuizDatabase db;
+    private Random random;
+    private long middleTimestamp;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        databaseFile = File.createTempFile("quiz-benchmark", ".db");
+        databaseFile.delete();
+        db = new JdbcQuizDatabase(databaseFile.getPath());
+        BenchmarkData.insertUsers(db, USER_COUNT);
+        BenchmarkData.insertResults(db, RESULT_COUNT, USER_COUNT, 42);
+        BenchmarkData.insertQuestions(db, QUESTION_COUNT, 42);
+        middleTimestamp = System.currentTimeMillis() - RESULT_COUNT / 2 * 60_000L;
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"})
+            new File(databaseFile.getPath() + suffix).delete();
+    }
+
+    @Benchmark
+    public long getUserId() throws SQLException {
+        String email = BenchmarkData.getEmail(1 + random.nextInt(USER_COUNT));
+        return db.getUserId(email, email);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long getUserIdThroughput() throws SQLException {
+        String email = BenchmarkData.getEmail(1 + random.nextInt(USER_COUNT));
+        return db.getUserId(email, email);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long getUserIdUnpreparedThroughput() throws SQLException {
+        String email = BenchmarkData.getEmail(1 + random.nextInt(USER_COUNT));
+        return db.getUserIdUnprepared(email, email);
+    }
+
+    @Benchmark
+    public Question getQuestion() {
+        return db.getQuestion(1 + random.nextInt(QUESTION_COUNT));
+    }
+
+    @Benchmark
+    public long[] sampleQuestionIds() {
+        return db.sampleQuestionIds(BenchmarkData.CATEGORIES[0], 5, random);
+    }
+
+    @Benchmark
+    public List<Result> getFirstResultsPage() throws SQLException {
+        return db.getResultsPage(Long.MAX_VALUE, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Result> getMiddleResultsPage() throws SQLException {
+        return db.getResultsPage(middleTimestamp, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public void insertResult() throws SQLException {
+        db.insertResult(1 + random.nextInt(USER_COUNT), System.currentTimeMillis(), 3, 5, random.nextLong());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void insertResultThroughput() throws SQLException {
+        db.insertResult(1 + random.nextInt(USER_COUNT), System.currentTimeMillis(), 3, 5, random.nextLong());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void insertResultUnpreparedThroughput() throws SQLException {
+        db.insertResultUnprepared(1 + random.nextInt(USER_COUNT), System.currentTimeMillis(), 3, 5, random.nextLong());
+    }
+
+    /**
+     * Inserts a batch in one transaction, as the result write queue does when it flushes.
+     */
+    @Benchmark
+    public void insertResultBatch() throws SQLException {
+        db.inTransaction(() -> {
+            for (int i = 0; i < BATCH_SIZE; i++)
+                db.insertResult(1 + random.nextInt(USER_COUNT), System.currentTimeMillis(), 3, 5, random.nextLong());
+        });
+    }
+}
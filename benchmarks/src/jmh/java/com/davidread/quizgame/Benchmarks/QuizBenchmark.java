@@ -0,0 +1,86 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.Quiz;
+import com.davidread.quizgame.Utilities.InMemoryQuizStorage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of grading a question, which maps the shown selection back through the
+ * option order and compares it with the answer key, and of counting a question's correct answers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QuizBenchmark {
+
+    // Number of precomputed selections cycled through, a power of two.
+    private static final int SELECTION_COUNT = 1024;
+
+    @Param({"4", "16", "64"})
+    public int numberOfOptions;
+
+    private Quiz quiz;
+    private Question question;
+    private final long[] shownSelections = new long[SELECTION_COUNT];
+    private final long[] keySelections = new long[SELECTION_COUNT];
+    private int selectionIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        // One question with the given number of options and a random answer key.
+        String[] options = new String[numberOfOptions];
+        for (int i = 0; i < options.length; i++)
+            options[i] = "Option " + i;
+        long allOptions = numberOfOptions == Question.MAX_OPTIONS ? -1L : (1L << numberOfOptions) - 1;
+        long answerKey = random.nextLong() & allOptions;
+        question = new Question(1, "benchmark", "Question?", options, answerKey == 0 ? 1 : answerKey);
+
+        InMemoryQuizStorage storage = new InMemoryQuizStorage();
+        storage.addQuestion(question);
+        quiz = new Quiz(new long[]{1}, 42, 1, storage);
+        quiz.getCurrentQuestion();
+
+        /* Selections in the shown option order, every fourth one the correct answer and the rest
+         * random, along with the same selections mapped to the question's own option order. */
+        int[] optionOrder = quiz.getOptionOrder();
+        for (int i = 0; i < SELECTION_COUNT; i++) {
+            long keySelection = i % 4 == 0 ? question.getAnswerKey() : random.nextLong() & allOptions;
+            long shownSelection = 0;
+            for (int position = 0; position < numberOfOptions; position++) {
+                if ((keySelection & (1L << optionOrder[position])) != 0)
+                    shownSelection |= 1L << position;
+            }
+            shownSelections[i] = shownSelection;
+            keySelections[i] = keySelection;
+        }
+    }
+
+    @Benchmark
+    public void gradeCurrentQuestion() {
+        quiz.gradeCurrentQuestion(shownSelections[selectionIndex++ & (SELECTION_COUNT - 1)]);
+    }
+
+    @Benchmark
+    public int getNumberOfCorrectAnswers() {
+        return question.getNumberOfCorrectAnswers();
+    }
+
+    @Benchmark
+    public boolean isCorrectSelection() {
+        return question.isCorrectSelection(keySelections[selectionIndex++ & (SELECTION_COUNT - 1)]);
+    }
+}
@@ -0,0 +1,191 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Utilities.ResultFormatter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the text formatting ResultsAdapter does when it binds a result row. Android string
+ * resources are not available on the JVM, so the format strings are copied from strings.xml and
+ * formatted with String.format(), which is what Context.getString() does with arguments.
+ *
+ * The rows are a synthetic list of 100,000 results, newest first as the results screen shows them.
+ * The per-row benchmarks measure formatting a row, or looking it up in the adapter's bounded
+ * caches while it is still cached. The bindAllRows benchmarks bind every row in list order, as
+ * scrolling through the whole list does, starting from empty caches each time, so that the cost of
+ * filling the caches is measured along with the lookups: without caches, with LruCaches bounded as
+ * the adapter's are, and with the unbounded LongSparseArrays the adapter used to keep, whose
+ * descending ids make every put an insert at the front.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ResultFormattingBenchmark {
+
+    // Format strings copied from strings.xml.
+    private static final String FORMAT_FULL_NAME = "%1$s %2$s";
+    private static final String FORMAT_RESULT = "%1$d/%2$d";
+    private static final String FORMAT_RESULT_DETAILS = "By %1$s at %2$s on %3$s";
+
+    // Number of results cycled through.
+    private static final int RESULT_COUNT = 100_000;
+
+    // Number of results whose display strings are cached, copied from ResultsAdapter.
+    private static final int RESULT_TEXT_CACHE_SIZE = 4 * 50;
+
+    private final Result[] results = new Result[RESULT_COUNT];
+    private ResultFormatter resultFormatter;
+    private LruCache<Long, String> resultTextCache;
+    private LruCache<Long, String> resultDetailsTextCache;
+    private int resultIndex;
+    private int cachedResultIndex;
+
+    @Setup
+    public void setUp() {
+        // Results are inserted in time order, so the newest-first list has descending row ids.
+        Random random = new Random(42);
+        long timestamp = System.currentTimeMillis();
+        for (int i = 0; i < results.length; i++) {
+            timestamp -= random.nextInt(3_600_000);
+            long userId = 1 + random.nextInt(1000);
+            Result result = new Result(userId, timestamp, random.nextInt(6), 5, random.nextLong());
+            result.setId(RESULT_COUNT - i);
+            result.setUserFirstName("First" + userId);
+            result.setUserLastName("Last" + userId);
+            results[i] = result;
+        }
+        resultFormatter = new ResultFormatter();
+
+        // Fill the caches as binding the first rows would.
+        resultTextCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+        resultDetailsTextCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+        for (int i = 0; i < RESULT_TEXT_CACHE_SIZE; i++) {
+            resultTextCache.put(results[i].getId(), formatResultText(results[i]));
+            resultDetailsTextCache.put(results[i].getId(), formatResultDetails(results[i]));
+        }
+    }
+
+    private Result nextResult() {
+        Result result = results[resultIndex];
+        resultIndex = resultIndex + 1 < RESULT_COUNT ? resultIndex + 1 : 0;
+        return result;
+    }
+
+    private Result nextCachedResult() {
+        Result result = results[cachedResultIndex];
+        cachedResultIndex = cachedResultIndex + 1 < RESULT_TEXT_CACHE_SIZE ? cachedResultIndex + 1 : 0;
+        return result;
+    }
+
+    private static String formatResultText(Result result) {
+        return String.format(FORMAT_RESULT, result.getCountQuestionsCorrect(), result.getCountTotalQuestions());
+    }
+
+    private String formatResultDetails(Result result) {
+        String fullName = String.format(FORMAT_FULL_NAME, result.getUserFirstName(), result.getUserLastName());
+        return String.format(FORMAT_RESULT_DETAILS, fullName, resultFormatter.formatTime(result.getTimestamp()), resultFormatter.formatDate(result.getTimestamp()));
+    }
+
+    @Benchmark
+    public String formatResultText() {
+        return formatResultText(nextResult());
+    }
+
+    @Benchmark
+    public String formatResultTextCached() {
+        return resultTextCache.get(nextCachedResult().getId());
+    }
+
+    @Benchmark
+    public String formatResultDetails() {
+        return formatResultDetails(nextResult());
+    }
+
+    @Benchmark
+    public String formatResultDetailsCached() {
+        return resultDetailsTextCache.get(nextCachedResult().getId());
+    }
+
+    /**
+     * The details formatting as it was before formatters were reused, with new date formats for
+     * every row. Kept as a baseline for formatResultDetails().
+     */
+    @Benchmark
+    public String formatResultDetailsWithNewFormatters() {
+        Result result = nextResult();
+        Date date = new Date(result.getTimestamp());
+        String fullName = String.format(FORMAT_FULL_NAME, result.getUserFirstName(), result.getUserLastName());
+        return String.format(FORMAT_RESULT_DETAILS, fullName, new SimpleDateFormat("hh:mm aa").format(date), new SimpleDateFormat("M/d/yyyy").format(date));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void bindAllRows(Blackhole blackhole) {
+        for (Result result : results) {
+            blackhole.consume(formatResultText(result));
+            blackhole.consume(formatResultDetails(result));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void bindAllRowsWithLruCache(Blackhole blackhole) {
+        LruCache<Long, String> textCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+        LruCache<Long, String> detailsTextCache = new LruCache<>(RESULT_TEXT_CACHE_SIZE);
+        for (Result result : results) {
+            String text = textCache.get(result.getId());
+            if (text == null) {
+                text = formatResultText(result);
+                textCache.put(result.getId(), text);
+            }
+            String detailsText = detailsTextCache.get(result.getId());
+            if (detailsText == null) {
+                detailsText = formatResultDetails(result);
+                detailsTextCache.put(result.getId(), detailsText);
+            }
+            blackhole.consume(text);
+            blackhole.consume(detailsText);
+        }
+    }
+
+    /**
+     * Binding with the unbounded caches the adapter used to keep. Kept as a baseline for
+     * bindAllRowsWithLruCache().
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void bindAllRowsWithLongSparseArray(Blackhole blackhole) {
+        LongSparseArray<String> textCache = new LongSparseArray<>();
+        LongSparseArray<String> detailsTextCache = new LongSparseArray<>();
+        for (Result result : results) {
+            String text = textCache.get(result.getId());
+            if (text == null) {
+                text = formatResultText(result);
+                textCache.put(result.getId(), text);
+            }
+            String detailsText = detailsTextCache.get(result.getId());
+            if (detailsText == null) {
+                detailsText = formatResultDetails(result);
+                detailsTextCache.put(result.getId(), detailsText);
+            }
+            blackhole.consume(text);
+            blackhole.consume(detailsText);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.davidread.quizgame.Benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures drawing a quiz's questions from question banks of increasing size. Random id seeks
+ * should keep the cost flat as the bank grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SamplingBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int bankSize;
+
+    @Param({"20"})
+    public int sampleSize;
+
+    private File databaseFile;
+    private JdbcQuizDatabase db;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        databaseFile = File.createTempFile("quiz-sampling", ".db");
+        databaseFile.delete();
+        db = new JdbcQuizDatabase(databaseFile.getPath());
+        BenchmarkData.insertQuestions(db, bankSize, 42);
+        random = new Random(42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"})
+            new File(databaseFile.getPath() + suffix).delete();
+    }
+
+    @Benchmark
+    public long[] sampleQuestionIds() {
+        return db.sampleQuestionIds(BenchmarkData.CATEGORIES[1], sampleSize, random);
+    }
+}
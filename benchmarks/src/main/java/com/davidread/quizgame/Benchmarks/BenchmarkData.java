@@ -0,0 +1,69 @@
+package com.davidread.quizgame.Benchmarks;
+
+import java.sql.SQLException;
+import java.util.Random;
+
+/**
+ * This class fills a benchmark database with generated users, results, and questions. Generation
+ * is driven by a seeded random number generator, so the same arguments always produce the same
+ * data.
+ */
+public class BenchmarkData {
+
+    // Categories generated questions are spread over.
+    public static final String[] CATEGORIES = {"fragments", "activities", "services", "databases"};
+
+    // Number of options of every generated question.
+    public static final int OPTIONS_PER_QUESTION = 4;
+
+    /**
+     * Returns the email of the generated user with the given index. Its password is the same.
+     */
+    public static String getEmail(int userIndex) {
+        return "user" + userIndex + "@example.com";
+    }
+
+    /**
+     * Inserts the given number of users, with ids 1 to userCount.
+     */
+    public static void insertUsers(JdbcQuizDatabase db, int userCount) throws SQLException {
+        db.inTransaction(() -> {
+            for (int i = 1; i <= userCount; i++)
+                db.insertUser("First" + i, "Last" + i, "1/1/2000", getEmail(i), getEmail(i));
+        });
+    }
+
+    /**
+     * Inserts the given number of results spread over users 1 to userCount, one minute apart and
+     * ending now.
+     */
+    public static void insertResults(JdbcQuizDatabase db, int resultCount, int userCount, long seed) throws SQLException {
+        Random random = new Random(seed);
+        long now = System.currentTimeMillis();
+        db.inTransaction(() -> {
+            for (int i = 0; i < resultCount; i++) {
+                int total = 5 + random.nextInt(16);
+                db.insertResult(1 + random.nextInt(userCount), now - (resultCount - i) * 60_000L, random.nextInt(total + 1), total, random.nextLong());
+            }
+        });
+    }
+
+    /**
+     * Inserts the given number of questions, with ids 1 to questionCount, spread round-robin over
+     * the categories.
+     */
+    public static void insertQuestions(JdbcQuizDatabase db, int questionCount, long seed) throws SQLException {
+        Random random = new Random(seed);
+        String[] options = new String[OPTIONS_PER_QUESTION];
+        db.inTransaction(() -> {
+            for (int i = 1; i <= questionCount; i++) {
+                for (int j = 0; j < options.length; j++)
+                    options[j] = "Option " + j + " of question " + i;
+                long answerKey = 1L << random.nextInt(OPTIONS_PER_QUESTION);
+                if (random.nextInt(4) == 0)
+                    answerKey |= 1L << random.nextInt(OPTIONS_PER_QUESTION);
+                db.insertQuestion(i, CATEGORIES[i % CATEGORIES.length], "Question " + i + "?", options, answerKey);
+            }
+        });
+    }
+}
@@ -0,0 +1,486 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.QuestionStats;
+import com.davidread.quizgame.Models.Result;
+import com.davidread.quizgame.Models.ScoreHistogram;
+import com.davidread.quizgame.Models.User;
+import com.davidread.quizgame.Models.UserStats;
+import com.davidread.quizgame.Utilities.QuizStorage;
+
+import org.json.JSONArray;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class runs the app's database workload against an on-disk SQLite database through JDBC, so
+ * that it can be measured on a JVM. The schema is built from the same model constants as the
+ * app's DatabaseHelper at its latest version, and every query mirrors the SQL DatabaseHelper
+ * issues for the same operation, including its index use. Prepared statements are cached the same
+ * way DatabaseHelper caches compiled statements.
+ *
+ * Instances are not thread-safe. Each thread should open its own connection. Connections wait for
+ * each other's write locks, like the connections of the app's connection pool.
+ */
+public class JdbcQuizDatabase implements QuizStorage, Closeable {
+
+    // SQL mirrored from DatabaseHelper.
+    private static final String SQL_GET_USER_ID = "SELECT " + User.COLUMN_ID +
+            " FROM " + User.TABLE_NAME +
+            " WHERE " + User.COLUMN_EMAIL + " = ? AND " + User.COLUMN_PASSWORD + " = ?";
+    private static final String SQL_INSERT_USER_IF_ABSENT = "INSERT OR IGNORE INTO " + User.TABLE_NAME + "(" +
+            User.COLUMN_FIRST_NAME + ", " + User.COLUMN_LAST_NAME + ", " + User.COLUMN_DATE_OF_BIRTH + ", " + User.COLUMN_EMAIL + ", " + User.COLUMN_PASSWORD +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_QUESTION = "SELECT " + Question.COLUMN_ID + ", " + Question.COLUMN_CATEGORY + ", " + Question.COLUMN_QUESTION + ", " + Question.COLUMN_OPTIONS + ", " + Question.COLUMN_ANSWER_KEY +
+            " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_ID + " = ?";
+    private static final String SQL_INSERT_QUESTION = "INSERT OR IGNORE INTO " + Question.TABLE_NAME + "(" +
+            Question.COLUMN_ID + ", " + Question.COLUMN_CATEGORY + ", " + Question.COLUMN_QUESTION + ", " + Question.COLUMN_OPTIONS + ", " + Question.COLUMN_ANSWER_KEY +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_FIRST_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ?" +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_GET_LAST_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ?" +
+            " ORDER BY " + Question.COLUMN_ID + " DESC LIMIT 1";
+    private static final String SQL_SEEK_QUESTION_ID_IN_CATEGORY = "SELECT " + Question.COLUMN_ID + " FROM " + Question.TABLE_NAME +
+            " WHERE " + Question.COLUMN_CATEGORY + " = ? AND " + Question.COLUMN_ID + " >= ?" +
+            " ORDER BY " + Question.COLUMN_ID + " ASC LIMIT 1";
+    private static final String SQL_INSERT_RESULT = "INSERT OR IGNORE INTO " + Result.TABLE_NAME + "(" +
+            Result.COLUMN_USER_ID + ", " + Result.COLUMN_TIMESTAMP + ", " + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", " + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", " + Result.COLUMN_SEED +
+            ") VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_GET_RESULTS_PAGE = "SELECT r." + Result.COLUMN_ID + ", r." + Result.COLUMN_USER_ID + ", r." + Result.COLUMN_TIMESTAMP + ", r." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", r." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", r." + Result.COLUMN_SEED + ", u." + User.COLUMN_FIRST_NAME + ", u." + User.COLUMN_LAST_NAME +
+            " FROM " + Result.TABLE_NAME + " r" +
+            " LEFT JOIN " + User.TABLE_NAME + " u ON u." + User.COLUMN_ID + " = r." + Result.COLUMN_USER_ID +
+            " WHERE r." + Result.COLUMN_TIMESTAMP + " <= ? AND (r." + Result.COLUMN_TIMESTAMP + " < ? OR r." + Result.COLUMN_ID + " > ?)" +
+            " ORDER BY r." + Result.COLUMN_TIMESTAMP + " DESC, r." + Result.COLUMN_ID + " ASC" +
+            " LIMIT ?";
+    private static final String SQL_INSERT_ANSWER_EVENT = "INSERT OR IGNORE INTO " + AnswerEvent.TABLE_NAME + "(" +
+            AnswerEvent.COLUMN_ATTEMPT_ID + ", " + AnswerEvent.COLUMN_USER_ID + ", " + AnswerEvent.COLUMN_QUESTION_ID + ", " + AnswerEvent.COLUMN_SELECTION + ", " + AnswerEvent.COLUMN_IS_CORRECT + ", " + AnswerEvent.COLUMN_RESPONSE_MILLIS + ", " + AnswerEvent.COLUMN_TIMESTAMP +
+            ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_GET_ALL_RESULTS = "SELECT * FROM " + Result.TABLE_NAME + " ORDER BY " + Result.COLUMN_TIMESTAMP + " DESC";
+    private static final String SQL_GET_QUESTION_STATS = "SELECT s." + QuestionStats.COLUMN_QUESTION_ID + ", s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + ", s." + QuestionStats.COLUMN_COUNT_CORRECT + ", s." + QuestionStats.COLUMN_MEAN_RESPONSE_MILLIS + ", s." + QuestionStats.COLUMN_M2_RESPONSE_MILLIS + ", s." + QuestionStats.COLUMN_MEAN_REST_SCORE + ", s." + QuestionStats.COLUMN_M2_REST_SCORE + ", s." + QuestionStats.COLUMN_COMOMENT + ", q." + Question.COLUMN_QUESTION +
+            " FROM " + QuestionStats.TABLE_NAME + " s" +
+            " JOIN " + Question.TABLE_NAME + " q ON q." + Question.COLUMN_ID + " = s." + QuestionStats.COLUMN_QUESTION_ID +
+            " WHERE s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + " > 0" +
+            " ORDER BY CAST(s." + QuestionStats.COLUMN_COUNT_CORRECT + " AS REAL) / s." + QuestionStats.COLUMN_COUNT_ATTEMPTS + " ASC, s." + QuestionStats.COLUMN_QUESTION_ID + " ASC";
+
+    // Milliseconds a connection waits for another connection's write lock before failing.
+    private static final int BUSY_TIMEOUT_MILLIS = 10_000;
+
+    // Number of random seeks allowed per requested question before sampling falls back to a walk.
+    private static final int SAMPLE_SEEKS_PER_QUESTION = 4;
+
+    // Database objects.
+    private final Connection connection;
+    private final HashMap<String, PreparedStatement> statements = new HashMap<>();
+
+    // Answer events recorded for the attempt whose result has not been recorded yet.
+    private final ArrayList<AnswerEvent> pendingAnswerEvents = new ArrayList<>();
+
+    /**
+     * Opens the SQLite database at the given path with write-ahead logging, as the app does, and
+     * creates the schema if the database is new.
+     */
+    public JdbcQuizDatabase(String path) throws SQLException {
+        connection = DriverManager.getConnection("jdbc:sqlite:" + path);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("PRAGMA busy_timeout=" + BUSY_TIMEOUT_MILLIS);
+            ResultSet tables = statement.executeQuery("SELECT COUNT(*) FROM sqlite_master WHERE name = '" + Result.TABLE_NAME + "'");
+            boolean isNew = tables.next() && tables.getInt(1) == 0;
+            tables.close();
+            if (isNew)
+                createSchema(statement);
+        }
+    }
+
+    /**
+     * Creates the latest schema of the app's database.
+     */
+    private static void createSchema(Statement statement) throws SQLException {
+        statement.execute(User.CREATE_TABLE);
+        statement.execute(Result.CREATE_TABLE);
+        statement.execute(User.CREATE_INDEX_EMAIL);
+        statement.execute(Result.CREATE_INDEX_USER_ID_TIMESTAMP);
+        statement.execute(Result.CREATE_INDEX_TIMESTAMP);
+        statement.execute(Question.CREATE_TABLE);
+        statement.execute(Question.CREATE_INDEX_CATEGORY);
+        statement.execute(Result.ADD_COLUMN_SEED);
+        statement.execute(Result.CREATE_INDEX_SEED);
+        statement.execute(UserStats.CREATE_TABLE);
+        statement.execute(UserStats.ADD_COLUMN_BEST_TIMESTAMP);
+        statement.execute(UserStats.ADD_COLUMN_AVERAGE_SCORE);
+        statement.execute(UserStats.CREATE_INDEX_BEST_SCORE);
+        statement.execute(UserStats.CREATE_INDEX_AVERAGE_SCORE);
+        statement.execute(UserStats.CREATE_TRIGGER_INSERT_RESULT);
+        statement.execute(UserStats.CREATE_TRIGGER_DELETE_RESULT);
+        statement.execute(ScoreHistogram.CREATE_TABLE);
+        for (int bucket = 0; bucket < ScoreHistogram.BUCKET_COUNT; bucket++)
+            statement.execute("INSERT INTO " + ScoreHistogram.TABLE_NAME + "(" + ScoreHistogram.COLUMN_BUCKET + ") VALUES (" + bucket + ")");
+        statement.execute(ScoreHistogram.CREATE_TRIGGER_INSERT_RESULT);
+        statement.execute(ScoreHistogram.CREATE_TRIGGER_DELETE_RESULT);
+        statement.execute(AnswerEvent.CREATE_TABLE);
+        statement.execute(AnswerEvent.CREATE_INDEX_TIMESTAMP);
+        statement.execute(AnswerEvent.CREATE_INDEX_ATTEMPT_ID_QUESTION_ID);
+        statement.execute(QuestionStats.CREATE_TABLE);
+    }
+
+    /**
+     * Returns the prepared statement for the given SQL, preparing and caching it on first use.
+     */
+    private PreparedStatement getStatement(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    /**
+     * Runs the given task in a single transaction.
+     */
+    public void inTransaction(SqlTask task) throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            task.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * This interface is a unit of database work that may throw.
+     */
+    public interface SqlTask {
+        void run() throws SQLException;
+    }
+
+    /**
+     * Inserts a user unless the email is taken. Mirrors DatabaseHelper.insertUsers().
+     */
+    public void insertUser(String firstName, String lastName, String dateOfBirth, String email, String password) throws SQLException {
+        PreparedStatement statement = getStatement(SQL_INSERT_USER_IF_ABSENT);
+        statement.setString(1, firstName);
+        statement.setString(2, lastName);
+        statement.setString(3, dateOfBirth);
+        statement.setString(4, email);
+        statement.setString(5, password);
+        statement.executeUpdate();
+    }
+
+    /**
+     * Returns the id of the user with the given email/password combo, or -1 if there is none.
+     * Mirrors DatabaseHelper.getUserId().
+     */
+    public long getUserId(String email, String password) throws SQLException {
+        return queryUserId(getStatement(SQL_GET_USER_ID), email, password);
+    }
+
+    /**
+     * Same as getUserId(), but prepares the statement on every call, as DatabaseHelper did before
+     * it cached compiled statements. Serves as the baseline for the statement cache.
+     */
+    public long getUserIdUnprepared(String email, String password) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SQL_GET_USER_ID)) {
+            return queryUserId(statement, email, password);
+        }
+    }
+
+    /**
+     * Binds the email/password combo to the given user id lookup and runs it.
+     */
+    private static long queryUserId(PreparedStatement statement, String email, String password) throws SQLException {
+        statement.setString(1, email);
+        statement.setString(2, password);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Inserts a question with the given options and answer key. Mirrors the seeding done by
+     * DatabaseHelper.
+     */
+    public void insertQuestion(long id, String category, String question, String[] options, long answerKey) throws SQLException {
+        PreparedStatement statement = getStatement(SQL_INSERT_QUESTION);
+        statement.setLong(1, id);
+        statement.setString(2, category);
+        statement.setString(3, question);
+        statement.setString(4, new JSONArray(options).toString());
+        statement.setLong(5, answerKey);
+        statement.executeUpdate();
+    }
+
+    /**
+     * Inserts a result. Mirrors DatabaseHelper.insertResult().
+     */
+    public void insertResult(long userId, long timestamp, int countQuestionsCorrect, int countTotalQuestions, long seed) throws SQLException {
+        executeInsertResult(getStatement(SQL_INSERT_RESULT), userId, timestamp, countQuestionsCorrect, countTotalQuestions, seed);
+    }
+
+    /**
+     * Same as insertResult(), but prepares the statement on every call, as DatabaseHelper did
+     * before it cached compiled statements. Serves as the baseline for the statement cache.
+     */
+    public void insertResultUnprepared(long userId, long timestamp, int countQuestionsCorrect, int countTotalQuestions, long seed) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SQL_INSERT_RESULT)) {
+            executeInsertResult(statement, userId, timestamp, countQuestionsCorrect, countTotalQuestions, seed);
+        }
+    }
+
+    /**
+     * Binds the row values to the given result insert and runs it.
+     */
+    private static void executeInsertResult(PreparedStatement statement, long userId, long timestamp, int countQuestionsCorrect, int countTotalQuestions, long seed) throws SQLException {
+        statement.setLong(1, userId);
+        statement.setLong(2, timestamp);
+        statement.setInt(3, countQuestionsCorrect);
+        statement.setInt(4, countTotalQuestions);
+        if (seed == Result.NO_SEED)
+            statement.setNull(5, java.sql.Types.INTEGER);
+        else
+            statement.setLong(5, seed);
+        statement.executeUpdate();
+    }
+
+    /**
+     * Returns a page of results newest first, joined with user names. Mirrors
+     * DatabaseHelper.getResultsPage().
+     */
+    public List<Result> getResultsPage(long lastTimestamp, long lastId, int pageSize) throws SQLException {
+        PreparedStatement statement = getStatement(SQL_GET_RESULTS_PAGE);
+        statement.setLong(1, lastTimestamp);
+        statement.setLong(2, lastTimestamp);
+        statement.setLong(3, lastId);
+        statement.setInt(4, pageSize);
+        ArrayList<Result> results = new ArrayList<>(pageSize);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                Result result = new Result();
+                result.setId(resultSet.getLong(1));
+                result.setUserId(resultSet.getLong(2));
+                result.setTimestamp(resultSet.getLong(3));
+                result.setCountQuestionsCorrect(resultSet.getInt(4));
+                result.setCountTotalQuestions(resultSet.getInt(5));
+                result.setSeed(resultSet.getLong(6));
+                result.setUserFirstName(resultSet.getString(7));
+                result.setUserLastName(resultSet.getString(8));
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns all results newest first. Mirrors DatabaseHelper.getAllResults().
+     */
+    public List<Result> getAllResults() throws SQLException {
+        ArrayList<Result> results = new ArrayList<>();
+        try (ResultSet resultSet = getStatement(SQL_GET_ALL_RESULTS).executeQuery()) {
+            int userIdIndex = resultSet.findColumn(Result.COLUMN_USER_ID);
+            int timestampIndex = resultSet.findColumn(Result.COLUMN_TIMESTAMP);
+            int countQuestionsCorrectIndex = resultSet.findColumn(Result.COLUMN_COUNT_QUESTIONS_CORRECT);
+            int countTotalQuestionsIndex = resultSet.findColumn(Result.COLUMN_COUNT_TOTAL_QUESTIONS);
+            int seedIndex = resultSet.findColumn(Result.COLUMN_SEED);
+            while (resultSet.next()) {
+                Result result = new Result();
+                result.setUserId(resultSet.getLong(userIdIndex));
+                result.setTimestamp(resultSet.getLong(timestampIndex));
+                result.setCountQuestionsCorrect(resultSet.getInt(countQuestionsCorrectIndex));
+                result.setCountTotalQuestions(resultSet.getInt(countTotalQuestionsIndex));
+                result.setSeed(resultSet.getLong(seedIndex));
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the stats of every answered question, hardest first. Mirrors
+     * DatabaseHelper.getQuestionStats().
+     */
+    public List<QuestionStats> getQuestionStats() throws SQLException {
+        ArrayList<QuestionStats> questionStatsList = new ArrayList<>();
+        try (ResultSet resultSet = getStatement(SQL_GET_QUESTION_STATS).executeQuery()) {
+            while (resultSet.next()) {
+                QuestionStats questionStats = new QuestionStats(resultSet.getLong(1));
+                questionStats.setCountAttempts(resultSet.getInt(2));
+                questionStats.setCountCorrect(resultSet.getInt(3));
+                questionStats.setMeanResponseMillis(resultSet.getDouble(4));
+                questionStats.setM2ResponseMillis(resultSet.getDouble(5));
+                questionStats.setMeanRestScore(resultSet.getDouble(6));
+                questionStats.setM2RestScore(resultSet.getDouble(7));
+                questionStats.setComoment(resultSet.getDouble(8));
+                questionStats.setQuestion(resultSet.getString(9));
+                questionStatsList.add(questionStats);
+            }
+        }
+        return questionStatsList;
+    }
+
+    /**
+     * Returns the question with the given id, or null. Mirrors DatabaseHelper.getQuestion()
+     * without its in-memory cache.
+     */
+    @Override
+    public Question getQuestion(long id) {
+        try {
+            PreparedStatement statement = getStatement(SQL_GET_QUESTION);
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next())
+                    return null;
+                JSONArray array = new JSONArray(resultSet.getString(4));
+                String[] options = new String[array.length()];
+                for (int i = 0; i < options.length; i++)
+                    options[i] = array.getString(i);
+                return new Question(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), options, resultSet.getLong(5));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Draws questions by random id seeks. Mirrors DatabaseHelper.sampleQuestionIds() for a
+     * category.
+     */
+    @Override
+    public long[] sampleQuestionIds(String category, int count, Random random) {
+        try {
+            long firstId = queryQuestionId(SQL_GET_FIRST_QUESTION_ID_IN_CATEGORY, category, false, 0);
+            long lastId = queryQuestionId(SQL_GET_LAST_QUESTION_ID_IN_CATEGORY, category, false, 0);
+            if (firstId == -1 || lastId == -1 || count <= 0)
+                return new long[0];
+
+            LinkedHashSet<Long> sampled = new LinkedHashSet<>(count * 2);
+            long range = lastId - firstId + 1;
+            for (int seeks = 0; sampled.size() < count && seeks < count * SAMPLE_SEEKS_PER_QUESTION; seeks++) {
+                long target = firstId + Math.floorMod(random.nextLong(), range);
+                sampled.add(queryQuestionId(SQL_SEEK_QUESTION_ID_IN_CATEGORY, category, true, target));
+            }
+            for (long id = firstId; sampled.size() < count && id != -1; ) {
+                sampled.add(id);
+                id = id < lastId ? queryQuestionId(SQL_SEEK_QUESTION_ID_IN_CATEGORY, category, true, id + 1) : -1;
+            }
+
+            long[] ids = new long[sampled.size()];
+            int i = 0;
+            for (long id : sampled)
+                ids[i++] = id;
+            return ids;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs a question id query for the category, optionally bound to an id, and returns the id it
+     * selects or -1.
+     */
+    private long queryQuestionId(String sql, String category, boolean hasId, long id) throws SQLException {
+        PreparedStatement statement = getStatement(sql);
+        statement.setString(1, category);
+        if (hasId)
+            statement.setLong(2, id);
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    /**
+     * Inserts the result right away, in one transaction with the answer events recorded for it.
+     * The app batches results through its write queue instead. Mirrors
+     * DatabaseHelper.insertResultsAndAnswerEvents().
+     */
+    @Override
+    public void recordResult(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+        try {
+            inTransaction(() -> {
+                if (!pendingAnswerEvents.isEmpty())
+                    insertAnswerEvents(pendingAnswerEvents);
+                insertResult(userId, System.currentTimeMillis(), countQuestionsCorrect, countTotalQuestions, seed);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            pendingAnswerEvents.clear();
+        }
+    }
+
+    /**
+     * Holds the answer events until the attempt's result is recorded, so that both are inserted in
+     * one transaction.
+     */
+    @Override
+    public void recordAnswers(List<AnswerEvent> answerEvents) {
+        pendingAnswerEvents.addAll(answerEvents);
+    }
+
+    /**
+     * Inserts the answer events and folds the inserted ones into the question stats. An answer
+     * event whose attempt and question are already stored is ignored. Must be called in a transaction.
+     * Mirrors DatabaseHelper.insertAnswerEvents().
+     */
+    private void insertAnswerEvents(List<AnswerEvent> answerEvents) throws SQLException {
+        PreparedStatement statement = getStatement(SQL_INSERT_ANSWER_EVENT);
+        PreparedStatement insertStatement = getStatement(QuestionStats.INSERT_IF_ABSENT);
+        PreparedStatement updateStatement = getStatement(QuestionStats.UPDATE_ADD_ANSWER);
+        boolean[] isInserted = new boolean[answerEvents.size()];
+        for (int i = 0; i < answerEvents.size(); i++) {
+            AnswerEvent answerEvent = answerEvents.get(i);
+            statement.setLong(1, answerEvent.getAttemptId());
+            statement.setLong(2, answerEvent.getUserId());
+            statement.setLong(3, answerEvent.getQuestionId());
+            statement.setLong(4, answerEvent.getSelection());
+            statement.setInt(5, answerEvent.isCorrect() ? 1 : 0);
+            statement.setInt(6, answerEvent.getResponseMillis());
+            statement.setLong(7, answerEvent.getTimestamp());
+            isInserted[i] = statement.executeUpdate() > 0;
+        }
+
+        // Fold the inserted answers into the question stats with their rest scores.
+        QuestionStats.foldAnswers(answerEvents, isInserted, (answerEvent, restScore) -> {
+            insertStatement.setLong(1, answerEvent.getQuestionId());
+            insertStatement.executeUpdate();
+            updateStatement.setInt(1, answerEvent.isCorrect() ? 1 : 0);
+            updateStatement.setInt(2, answerEvent.getResponseMillis());
+            updateStatement.setDouble(3, restScore);
+            updateStatement.setLong(4, answerEvent.getQuestionId());
+            updateStatement.executeUpdate();
+        });
+    }
+
+    /**
+     * Closes the cached statements and the connection.
+     */
+    @Override
+    public void close() {
+        try {
+            for (PreparedStatement statement : statements.values())
+                statement.close();
+            connection.close();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
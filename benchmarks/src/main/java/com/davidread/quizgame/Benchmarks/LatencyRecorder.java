@@ -0,0 +1,65 @@
+package com.davidread.quizgame.Benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * This class records the latencies of one kind of operation, in nanoseconds, and reports their
+ * percentiles. Every latency is kept, so percentiles are exact. Instances are not thread-safe, so
+ * each thread records into its own recorder and the recorders are merged at the end.
+ */
+public class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private boolean isSorted = true;
+
+    /**
+     * Records one latency in nanoseconds.
+     */
+    public void record(long latencyNanos) {
+        if (count == latencies.length)
+            latencies = Arrays.copyOf(latencies, count * 2);
+        latencies[count++] = latencyNanos;
+        isSorted = false;
+    }
+
+    /**
+     * Adds every latency recorded by the given recorder to this one.
+     */
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > latencies.length)
+            latencies = Arrays.copyOf(latencies, Math.max(count + other.count, count * 2));
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        isSorted = false;
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latency in nanoseconds that the given fraction of recorded latencies are at or
+     * below, using the nearest-rank method, or 0 if nothing was recorded.
+     */
+    public long getPercentile(double fraction) {
+        if (count == 0)
+            return 0;
+        if (!isSorted) {
+            Arrays.sort(latencies, 0, count);
+            isSorted = true;
+        }
+        int rank = (int) Math.ceil(fraction * count);
+        return latencies[Math.min(Math.max(rank, 1), count) - 1];
+    }
+
+    /**
+     * Returns the highest latency recorded in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return getPercentile(1);
+    }
+}
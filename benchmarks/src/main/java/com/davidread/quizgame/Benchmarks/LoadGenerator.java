@@ -0,0 +1,326 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.Quiz;
+import com.davidread.quizgame.Utilities.QuizStorage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class simulates a classroom using the app's data layer at once. It seeds an on-disk
+ * database with registered users, questions, and past results, and then runs a number of client
+ * threads for a fixed time. Each client repeatedly picks an operation from a weighted mix:
+ *
+ * register - registers a new user.
+ * login    - looks up a registered user by email and password.
+ * quiz     - draws a quiz, loads and grades each question, and records its answers and result.
+ * results  - loads every result, as the results screen did before it was paged.
+ *
+ * Each client has its own database connection, like the app's reader threads. Writes are made one
+ * at a time under a shared lock, like the app's single writer thread, so their latency includes the
+ * time spent waiting for other clients' writes. After the run, the throughput and the p50, p99,
+ * p99.9, and maximum latency of each operation are printed.
+ *
+ * Options are passed as --name=value arguments:
+ *
+ * --database  Database file. A temporary file is used and deleted by default.
+ * --users     Number of users registered before the run. Default 1000.
+ * --questions Number of questions in the question bank. Default 10000.
+ * --results   Number of results stored before the run. Default 10000.
+ * --threads   Number of concurrent clients. Default 8.
+ * --warmup    Seconds run before latencies are recorded. Default 5.
+ * --duration  Seconds latencies are recorded for. Default 30.
+ * --mix       Weights of the operations. Default register:5,login:30,quiz:50,results:15.
+ * --seed      Seed of the generated data and of the clients' choices. Default 42.
+ */
+public class LoadGenerator {
+
+    // Operations a client may perform.
+    private enum Operation {REGISTER, LOGIN, QUIZ, RESULTS}
+
+    // Number of questions in each quiz, as in the app.
+    private static final int QUIZ_LENGTH = 5;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Load generator options.
+    private final HashMap<String, String> options;
+    private final int userCount;
+    private final int threadCount;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final long seed;
+    private final int[] operationWeights = new int[Operation.values().length];
+    private int totalWeight;
+
+    // Lock that serializes writes across clients.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Runs the load generator with the given --name=value options.
+     */
+    public static void main(String[] args) throws Exception {
+        HashMap<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator == -1)
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        new LoadGenerator(options).run();
+    }
+
+    /**
+     * Constructs a load generator from the given options.
+     */
+    public LoadGenerator(HashMap<String, String> options) {
+        this.options = options;
+        userCount = Integer.parseInt(getOption("users", "1000"));
+        threadCount = Integer.parseInt(getOption("threads", "8"));
+        warmupNanos = Long.parseLong(getOption("warmup", "5")) * NANOS_PER_SECOND;
+        durationNanos = Long.parseLong(getOption("duration", "30")) * NANOS_PER_SECOND;
+        seed = Long.parseLong(getOption("seed", "42"));
+
+        // Parse the operation mix, for example "login:70,quiz:30".
+        for (String entry : getOption("mix", "register:5,login:30,quiz:50,results:15").split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0)
+                throw new IllegalArgumentException("Negative weight in mix: " + entry);
+            operationWeights[Operation.valueOf(parts[0].trim().toUpperCase()).ordinal()] = weight;
+            totalWeight += weight;
+        }
+        if (totalWeight == 0)
+            throw new IllegalArgumentException("The mix has no operations");
+    }
+
+    /**
+     * Returns the value of the given option, or the default value if it was not passed.
+     */
+    private String getOption(String name, String defaultValue) {
+        String value = options.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Seeds the database, runs the clients, and prints the report.
+     */
+    public void run() throws IOException, SQLException, InterruptedException {
+
+        // Create and seed the database.
+        File databaseFile;
+        boolean isTemporary = !options.containsKey("database");
+        if (isTemporary) {
+            databaseFile = File.createTempFile("quiz-load", ".db");
+            databaseFile.delete();
+        } else {
+            databaseFile = new File(options.get("database"));
+        }
+        try (JdbcQuizDatabase db = new JdbcQuizDatabase(databaseFile.getPath())) {
+            long start = System.nanoTime();
+            BenchmarkData.insertUsers(db, userCount);
+            BenchmarkData.insertQuestions(db, Integer.parseInt(getOption("questions", "10000")), seed);
+            BenchmarkData.insertResults(db, Integer.parseInt(getOption("results", "10000")), userCount, seed);
+            System.out.printf("Seeded %s in %d ms%n", databaseFile, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        // Start every client at once and wait for them all to finish.
+        long startNanos = System.nanoTime() + NANOS_PER_SECOND / 10;
+        long recordFromNanos = startNanos + warmupNanos;
+        long endNanos = recordFromNanos + durationNanos;
+        List<Client> clients = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(threadCount);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = 0; i < threadCount; i++) {
+            Client client = new Client(i, databaseFile.getPath(), startNanos, recordFromNanos, endNanos);
+            clients.add(client);
+            Thread thread = new Thread(() -> {
+                try {
+                    client.run();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-client-" + i);
+            thread.start();
+        }
+        finished.await();
+        if (failure.get() != null)
+            throw new IllegalStateException("A client failed", failure.get());
+
+        // Merge the clients' latencies and print the report.
+        LatencyRecorder[] recorders = new LatencyRecorder[Operation.values().length];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+            for (Client client : clients)
+                recorders[i].merge(client.recorders[i]);
+        }
+        printReport(recorders);
+
+        if (isTemporary) {
+            for (String suffix : new String[]{"", "-wal", "-shm"})
+                new File(databaseFile.getPath() + suffix).delete();
+        }
+    }
+
+    /**
+     * Prints the throughput and latency percentiles of each operation.
+     */
+    private void printReport(LatencyRecorder[] recorders) {
+        double seconds = (double) durationNanos / NANOS_PER_SECOND;
+        System.out.printf("%d users, %d threads, %.0f s%n", userCount, threadCount, seconds);
+        System.out.printf("%-10s %10s %10s %10s %10s %10s %10s%n", "operation", "count", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = recorders[operation.ordinal()];
+            if (recorder.getCount() == 0)
+                continue;
+            System.out.printf("%-10s %10d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                    operation.name().toLowerCase(),
+                    recorder.getCount(),
+                    recorder.getCount() / seconds,
+                    recorder.getPercentile(0.5) / 1e6,
+                    recorder.getPercentile(0.99) / 1e6,
+                    recorder.getPercentile(0.999) / 1e6,
+                    recorder.getMax() / 1e6);
+        }
+    }
+
+    /**
+     * This class is one simulated client with its own connection, random number generator, and
+     * latency recorders.
+     */
+    private class Client implements QuizStorage {
+
+        private final int index;
+        private final String databasePath;
+        private final long startNanos;
+        private final long recordFromNanos;
+        private final long endNanos;
+        private final Random random;
+        private final LatencyRecorder[] recorders = new LatencyRecorder[Operation.values().length];
+        private JdbcQuizDatabase db;
+        private int registeredCount;
+
+        Client(int index, String databasePath, long startNanos, long recordFromNanos, long endNanos) {
+            this.index = index;
+            this.databasePath = databasePath;
+            this.startNanos = startNanos;
+            this.recordFromNanos = recordFromNanos;
+            this.endNanos = endNanos;
+            random = new Random(seed + index + 1);
+            for (int i = 0; i < recorders.length; i++)
+                recorders[i] = new LatencyRecorder();
+        }
+
+        /**
+         * Performs operations from the mix until the end of the run.
+         */
+        void run() throws SQLException {
+            try (JdbcQuizDatabase db = new JdbcQuizDatabase(databasePath)) {
+                this.db = db;
+                while (System.nanoTime() < startNanos)
+                    Thread.yield();
+
+                long now;
+                while ((now = System.nanoTime()) < endNanos) {
+                    Operation operation = pickOperation();
+                    perform(operation);
+                    long latency = System.nanoTime() - now;
+                    if (now >= recordFromNanos)
+                        recorders[operation.ordinal()].record(latency);
+                }
+            }
+        }
+
+        /**
+         * Returns an operation picked at random according to the mix weights.
+         */
+        private Operation pickOperation() {
+            int pick = random.nextInt(totalWeight);
+            for (Operation operation : Operation.values()) {
+                pick -= operationWeights[operation.ordinal()];
+                if (pick < 0)
+                    return operation;
+            }
+            throw new AssertionError();
+        }
+
+        /**
+         * Performs the given operation.
+         */
+        private void perform(Operation operation) throws SQLException {
+            switch (operation) {
+                case REGISTER:
+                    String email = "client" + index + "-" + (registeredCount++) + "@example.com";
+                    writeLock.lock();
+                    try {
+                        db.insertUser("First", "Last", "1/1/2000", email, email);
+                    } finally {
+                        writeLock.unlock();
+                    }
+                    break;
+                case LOGIN:
+                    String userEmail = BenchmarkData.getEmail(1 + random.nextInt(userCount));
+                    if (db.getUserId(userEmail, userEmail) == -1)
+                        throw new IllegalStateException("Seeded user not found: " + userEmail);
+                    break;
+                case QUIZ:
+                    String category = BenchmarkData.CATEGORIES[random.nextInt(BenchmarkData.CATEGORIES.length)];
+                    long quizSeed = random.nextLong();
+                    Quiz quiz = new Quiz(sampleQuestionIds(category, QUIZ_LENGTH, new Random(quizSeed)), quizSeed, 1 + random.nextInt(userCount), this);
+                    while (!quiz.isQuizComplete()) {
+                        Question question = quiz.getCurrentQuestion();
+                        quiz.gradeCurrentQuestion(1L << random.nextInt(question.getNumberOfOptions()));
+                        quiz.incrementCurrentQuestion();
+                    }
+                    quiz.recordQuizResult();
+                    break;
+                case RESULTS:
+                    db.getAllResults();
+                    break;
+            }
+        }
+
+        @Override
+        public Question getQuestion(long id) {
+            return db.getQuestion(id);
+        }
+
+        @Override
+        public long[] sampleQuestionIds(String category, int count, Random random) {
+            return db.sampleQuestionIds(category, count, random);
+        }
+
+        /**
+         * Records the result and its answer events under the write lock.
+         */
+        @Override
+        public void recordResult(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+            writeLock.lock();
+            try {
+                db.recordResult(userId, countQuestionsCorrect, countTotalQuestions, seed);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * Hands the answer events to the database, which inserts them with the result.
+         */
+        @Override
+        public void recordAnswers(List<AnswerEvent> answerEvents) {
+            db.recordAnswers(answerEvents);
+        }
+    }
+}
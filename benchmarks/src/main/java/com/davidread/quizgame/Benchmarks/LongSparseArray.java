@@ -0,0 +1,76 @@
+package com.davidread.quizgame.Benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * This class maps primitive long keys to objects the same way android.util.LongSparseArray does,
+ * which is not available on the JVM. Keys are kept sorted in a long array and found by binary
+ * search, and values are kept in a parallel array, so lookups neither box the key nor allocate.
+ * Removal is left out, since it only serves as the baseline of the unbounded caches ResultsAdapter
+ * used to keep, which were only ever added to.
+ */
+public class LongSparseArray<E> {
+
+    private long[] keys = new long[10];
+    private Object[] values = new Object[10];
+    private int size;
+
+    /**
+     * Returns the value mapped to the given key, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long key) {
+        int index = binarySearch(key);
+        return index >= 0 ? (E) values[index] : null;
+    }
+
+    /**
+     * Maps the given key to the given value, replacing any value it was mapped to. A new key is
+     * inserted at its sorted position, shifting the larger keys up by one.
+     */
+    public void put(long key, E value) {
+        int index = binarySearch(key);
+        if (index >= 0) {
+            values[index] = value;
+            return;
+        }
+        index = ~index;
+        if (size == keys.length) {
+            int capacity = size <= 4 ? 8 : size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+    }
+
+    /**
+     * Returns the number of keys mapped.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the index of the given key, or the bitwise complement of the index it would be
+     * inserted at.
+     */
+    private int binarySearch(long key) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = keys[middle];
+            if (middleKey < key)
+                low = middle + 1;
+            else if (middleKey > key)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return ~low;
+    }
+}
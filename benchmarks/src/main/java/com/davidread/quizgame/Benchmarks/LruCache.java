@@ -0,0 +1,50 @@
+package com.davidread.quizgame.Benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class caches a bounded number of values the same way android.util.LruCache does, which is
+ * not available on the JVM. Entries are kept in a LinkedHashMap in access order, and the least
+ * recently used entry is evicted once there are more than the maximum number of entries. Every
+ * entry counts as one, as it does in ResultsAdapter, which does not override sizeOf().
+ */
+public class LruCache<K, V> {
+
+    private final LinkedHashMap<K, V> map;
+
+    /**
+     * Constructs a cache that holds at most the given number of entries.
+     */
+    public LruCache(int maxSize) {
+        map = new LinkedHashMap<K, V>(0, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for the given key and marks it most recently used, or returns null
+     * if there is none.
+     */
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    /**
+     * Caches the given value for the given key, evicting the least recently used entry if the
+     * cache is full.
+     */
+    public V put(K key, V value) {
+        return map.put(key, value);
+    }
+
+    /**
+     * Returns the number of entries in the cache.
+     */
+    public int size() {
+        return map.size();
+    }
+}
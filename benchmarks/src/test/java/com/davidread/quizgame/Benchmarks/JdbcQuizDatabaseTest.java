@@ -0,0 +1,121 @@
+package com.davidread.quizgame.Benchmarks;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.QuestionStats;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for the question stats kept by JdbcQuizDatabase, which runs the same SQL as the
+ * app's database.
+ */
+public class JdbcQuizDatabaseTest {
+
+    private static final int QUESTION_COUNT = 6;
+
+    private File databaseFile;
+    private JdbcQuizDatabase db;
+
+    @Before
+    public void setUp() throws IOException, SQLException {
+        databaseFile = File.createTempFile("quiz-test", ".db");
+        databaseFile.delete();
+        db = new JdbcQuizDatabase(databaseFile.getPath());
+        for (int q = 1; q <= QUESTION_COUNT; q++)
+            db.insertQuestion(q, "test", "Question " + q + "?", new String[]{"A", "B"}, 1);
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+        for (String suffix : new String[]{"", "-wal", "-shm"})
+            new File(databaseFile.getPath() + suffix).delete();
+    }
+
+    @Test
+    public void questionStats_matchDirectPearsonCorrelation() throws SQLException {
+        Random random = new Random(7);
+        HashMap<Long, List<double[]>> samples = new HashMap<>();
+
+        // Record attempts whose ability drives how likely each answer is to be correct.
+        for (long attemptId = 1; attemptId <= 200; attemptId++) {
+            double ability = random.nextDouble();
+            List<AnswerEvent> answerEvents = new ArrayList<>();
+            int countCorrect = 0;
+            for (long q = 1; q <= QUESTION_COUNT; q++) {
+                boolean isCorrect = random.nextDouble() < ability * q / QUESTION_COUNT + 0.1;
+                answerEvents.add(new AnswerEvent(attemptId, 1, q, 0, isCorrect, 1000 + random.nextInt(4000), attemptId));
+                if (isCorrect)
+                    countCorrect++;
+            }
+            for (AnswerEvent answerEvent : answerEvents) {
+                double restScore = (double) (countCorrect - (answerEvent.isCorrect() ? 1 : 0)) / (QUESTION_COUNT - 1);
+                samples.computeIfAbsent(answerEvent.getQuestionId(), id -> new ArrayList<>()).add(new double[]{answerEvent.isCorrect() ? 1 : 0, restScore});
+            }
+            db.recordAnswers(answerEvents);
+            db.recordResult(1, countCorrect, QUESTION_COUNT, attemptId);
+        }
+
+        List<QuestionStats> questionStatsList = db.getQuestionStats();
+        assertEquals(QUESTION_COUNT, questionStatsList.size());
+        for (QuestionStats questionStats : questionStatsList) {
+            List<double[]> pairs = samples.get(questionStats.getQuestionId());
+            assertEquals(pairs.size(), questionStats.getCountAttempts());
+            assertFalse(Double.isNaN(questionStats.getDiscrimination()));
+            assertEquals(pearson(pairs), questionStats.getDiscrimination(), 1e-9);
+            assertEquals(mean(pairs, 1), questionStats.getMeanRestScore(), 1e-9);
+        }
+    }
+
+    @Test
+    public void questionStats_ignoreAnswersRecordedTwice() throws SQLException {
+        List<AnswerEvent> answerEvents = new ArrayList<>();
+        answerEvents.add(new AnswerEvent(1, 1, 1, 1, true, 1000, 0));
+        answerEvents.add(new AnswerEvent(1, 1, 2, 0, false, 2000, 0));
+        for (int i = 0; i < 2; i++) {
+            db.recordAnswers(answerEvents);
+            db.recordResult(1, 1, 2, 1);
+        }
+
+        List<QuestionStats> questionStatsList = db.getQuestionStats();
+        assertEquals(2, questionStatsList.size());
+        for (QuestionStats questionStats : questionStatsList)
+            assertEquals(1, questionStats.getCountAttempts());
+        assertEquals(1, db.getAllResults().size());
+    }
+
+    /**
+     * Returns the Pearson correlation of the first and second values of the given pairs, computed
+     * directly from their means.
+     */
+    private static double pearson(List<double[]> pairs) {
+        double meanX = mean(pairs, 0);
+        double meanY = mean(pairs, 1);
+        double sumXY = 0, sumXX = 0, sumYY = 0;
+        for (double[] pair : pairs) {
+            sumXY += (pair[0] - meanX) * (pair[1] - meanY);
+            sumXX += (pair[0] - meanX) * (pair[0] - meanX);
+            sumYY += (pair[1] - meanY) * (pair[1] - meanY);
+        }
+        return sumXY / Math.sqrt(sumXX * sumYY);
+    }
+
+    private static double mean(List<double[]> pairs, int index) {
+        double sum = 0;
+        for (double[] pair : pairs)
+            sum += pair[index];
+        return sum / pairs.size();
+    }
+}
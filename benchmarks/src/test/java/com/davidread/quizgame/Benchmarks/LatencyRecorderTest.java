@@ -0,0 +1,64 @@
+package com.davidread.quizgame.Benchmarks;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for LatencyRecorder.
+ */
+public class LatencyRecorderTest {
+
+    @Test
+    public void empty_reportsZero() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        assertEquals(0, recorder.getCount());
+        assertEquals(0, recorder.getPercentile(0.5));
+        assertEquals(0, recorder.getMax());
+    }
+
+    @Test
+    public void percentiles_useNearestRank() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 100; i >= 1; i--)
+            recorder.record(i);
+        assertEquals(100, recorder.getCount());
+        assertEquals(1, recorder.getPercentile(0));
+        assertEquals(50, recorder.getPercentile(0.5));
+        assertEquals(95, recorder.getPercentile(0.95));
+        assertEquals(99, recorder.getPercentile(0.99));
+        assertEquals(100, recorder.getMax());
+    }
+
+    @Test
+    public void singleLatency_isEveryPercentile() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record(42);
+        assertEquals(42, recorder.getPercentile(0.01));
+        assertEquals(42, recorder.getPercentile(0.99));
+    }
+
+    @Test
+    public void record_growsPastInitialCapacity() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < 5000; i++)
+            recorder.record(i);
+        assertEquals(5000, recorder.getCount());
+        assertEquals(4999, recorder.getMax());
+    }
+
+    @Test
+    public void merge_combinesRecorders() {
+        LatencyRecorder first = new LatencyRecorder();
+        LatencyRecorder second = new LatencyRecorder();
+        for (int i = 0; i < 1500; i++)
+            first.record(i * 2);
+        for (int i = 0; i < 1500; i++)
+            second.record(i * 2 + 1);
+        first.getMax();
+        first.merge(second);
+        assertEquals(3000, first.getCount());
+        assertEquals(2999, first.getMax());
+        assertEquals(1499, first.getPercentile(0.5));
+    }
+}
@@ -0,0 +1,109 @@
+package com.davidread.quizgame.Models;
+
+/**
+ * This model class represents a single answer given during a quiz attempt. It has attributes for
+ * the attempt it belongs to, which is the seed of the quiz, the user who answered, the question,
+ * the options selected as a bitmask in the question's own option order, whether the selection was
+ * correct, how long the user took to answer in milliseconds, and when the answer was given.
+ *
+ * Answer events are only ever appended, at most once per attempt and question, and are deleted
+ * once they are older than the retention period.
+ */
+public class AnswerEvent {
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "answer_events";
+    public static final String COLUMN_ATTEMPT_ID = "attempt_id";
+    public static final String COLUMN_USER_ID = "user_id";
+    public static final String COLUMN_QUESTION_ID = "question_id";
+    public static final String COLUMN_SELECTION = "selection";
+    public static final String COLUMN_IS_CORRECT = "is_correct";
+    public static final String COLUMN_RESPONSE_MILLIS = "response_ms";
+    public static final String COLUMN_TIMESTAMP = "timestamp";
+
+    // SQLite create table query constant.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_ATTEMPT_ID + " INTEGER,"
+            + COLUMN_USER_ID + " INTEGER,"
+            + COLUMN_QUESTION_ID + " INTEGER,"
+            + COLUMN_SELECTION + " INTEGER,"
+            + COLUMN_IS_CORRECT + " INTEGER,"
+            + COLUMN_RESPONSE_MILLIS + " INTEGER,"
+            + COLUMN_TIMESTAMP + " INTEGER"
+            + ")";
+
+    // SQLite index constant. The timestamp index serves the retention delete.
+    public static final String INDEX_TIMESTAMP = "index_answer_events_timestamp";
+    public static final String CREATE_INDEX_TIMESTAMP = "CREATE INDEX IF NOT EXISTS " + INDEX_TIMESTAMP
+            + " ON " + TABLE_NAME + "(" + COLUMN_TIMESTAMP + ")";
+
+    /* SQLite unique index constant. A quiz never asks the same question twice, so an attempt and
+     * a question identify an answer, and inserting an answer that is already stored is ignored
+     * rather than counted twice. */
+    public static final String INDEX_ATTEMPT_ID_QUESTION_ID = "index_answer_events_attempt_id_question_id";
+    public static final String CREATE_INDEX_ATTEMPT_ID_QUESTION_ID = "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_ATTEMPT_ID_QUESTION_ID
+            + " ON " + TABLE_NAME + "(" + COLUMN_ATTEMPT_ID + ", " + COLUMN_QUESTION_ID + ")";
+
+    // Model variables.
+    private final long attemptId;
+    private final long userId;
+    private final long questionId;
+    private final long selection;
+    private final boolean isCorrect;
+    private final int responseMillis;
+    private final long timestamp;
+
+    /**
+     * Constructs an answer event with the specified attributes.
+     */
+    public AnswerEvent(long attemptId, long userId, long questionId, long selection, boolean isCorrect, int responseMillis, long timestamp) {
+        this.attemptId = attemptId;
+        this.userId = userId;
+        this.questionId = questionId;
+        this.selection = selection;
+        this.isCorrect = isCorrect;
+        this.responseMillis = responseMillis;
+        this.timestamp = timestamp;
+    }
+
+    public long getAttemptId() {
+        return attemptId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getQuestionId() {
+        return questionId;
+    }
+
+    public long getSelection() {
+        return selection;
+    }
+
+    public boolean isCorrect() {
+        return isCorrect;
+    }
+
+    public int getResponseMillis() {
+        return responseMillis;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "AnswerEvent{" +
+                "attemptId=" + attemptId +
+                ", userId=" + userId +
+                ", questionId=" + questionId +
+                ", selection=" + selection +
+                ", isCorrect=" + isCorrect +
+                ", responseMillis=" + responseMillis +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
@@ -0,0 +1,149 @@
+package com.davidread.quizgame.Models;
+
+import java.util.Arrays;
+
+/**
+ * This model class represents a single question of the quiz. It has attributes for a stable id,
+ * a category, the question, an array of options for answers, and an answer key. The answer key is
+ * a bitmask where bit i is set if option i is a correct answer, so a question may have up to 64
+ * options. User selections use the same bitmask layout.
+ */
+public class Question {
+
+    // Maximum number of options a question may have, one per bit of the answer key.
+    public static final int MAX_OPTIONS = 64;
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "questions";
+    public static final String COLUMN_ID = "id";
+    public static final String COLUMN_CATEGORY = "category";
+    public static final String COLUMN_QUESTION = "question";
+    public static final String COLUMN_OPTIONS = "options";
+    public static final String COLUMN_ANSWER_KEY = "answer_key";
+
+    // SQLite create table query constant. Options are stored as a JSON array of strings.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_ID + " INTEGER PRIMARY KEY,"
+            + COLUMN_CATEGORY + " TEXT,"
+            + COLUMN_QUESTION + " TEXT,"
+            + COLUMN_OPTIONS + " TEXT,"
+            + COLUMN_ANSWER_KEY + " INTEGER"
+            + ")";
+
+    /* SQLite index constants. Questions are looked up by category, and the index also orders
+     * them by id within a category. */
+    public static final String INDEX_CATEGORY = "index_questions_category";
+    public static final String CREATE_INDEX_CATEGORY = "CREATE INDEX IF NOT EXISTS " + INDEX_CATEGORY
+            + " ON " + TABLE_NAME + "(" + COLUMN_CATEGORY + ")";
+
+    // Model variables.
+    private long id;
+    private String category;
+    private String question;
+    private String[] options;
+    private long answerKey;
+
+    /**
+     * Constructs a question with null attributes.
+     */
+    public Question() {
+
+    }
+
+    /**
+     * Constructs a question with the specified attributes.
+     */
+    public Question(long id, String category, String question, String[] options, long answerKey) {
+        this.id = id;
+        this.category = category;
+        this.question = question;
+        this.options = options;
+        this.answerKey = answerKey;
+    }
+
+    /**
+     * Returns the number of correct answers.
+     */
+    public int getNumberOfCorrectAnswers() {
+        return Long.bitCount(answerKey);
+    }
+
+    /**
+     * Returns the number of options.
+     */
+    public int getNumberOfOptions() {
+        return options.length;
+    }
+
+    /**
+     * Returns the text of the option at the given zero-based index.
+     */
+    public String getOption(int index) {
+        return options[index];
+    }
+
+    /**
+     * Returns true if the option at the given zero-based index is a correct answer.
+     */
+    public boolean isOptionCorrect(int index) {
+        return (answerKey & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns true if the given selection bitmask is exactly the answer key.
+     */
+    public boolean isCorrectSelection(long userSelection) {
+        return userSelection == answerKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+
+    public String[] getOptions() {
+        return options;
+    }
+
+    public void setOptions(String[] options) {
+        this.options = options;
+    }
+
+    public long getAnswerKey() {
+        return answerKey;
+    }
+
+    public void setAnswerKey(long answerKey) {
+        this.answerKey = answerKey;
+    }
+
+    @Override
+    public String toString() {
+        return "Question{" +
+                "id=" + id +
+                ", category='" + category + '\'' +
+                ", question='" + question + '\'' +
+                ", options=" + Arrays.toString(options) +
+                ", answerKey=" + Long.toBinaryString(answerKey) +
+                '}';
+    }
+}
@@ -0,0 +1,261 @@
+package com.davidread.quizgame.Models;
+
+import java.util.List;
+
+/**
+ * This model class represents the item statistics of some question over every answer it has been
+ * given. It has attributes for the unique id of the question, the count of attempts and of correct
+ * answers, running accumulators for the response time, and running accumulators for the rest
+ * score of the attempts the question was answered in. The rest score of an answer is the fraction
+ * of the other questions in the same attempt that were answered correctly, so a question is not
+ * correlated with itself.
+ *
+ * The accumulators are updated one answer at a time with Welford's method, which keeps a running
+ * mean and a running sum of squared deviations from it. Along with the rest score, a running
+ * co-moment of correctness and rest score is kept, from which the point-biserial discrimination is
+ * derived. Folding in an answer is a single update of the question's row, and reading the
+ * statistics is a single row read, no matter how many answers have been recorded. The statistics
+ * cover every answer ever recorded, so they are not unwound when answer events expire or results
+ * are deleted.
+ */
+public class QuestionStats {
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "question_stats";
+    public static final String COLUMN_QUESTION_ID = "question_id";
+    public static final String COLUMN_COUNT_ATTEMPTS = "count_attempts";
+    public static final String COLUMN_COUNT_CORRECT = "count_correct";
+    public static final String COLUMN_MEAN_RESPONSE_MILLIS = "mean_response_ms";
+    public static final String COLUMN_M2_RESPONSE_MILLIS = "m2_response_ms";
+    public static final String COLUMN_MEAN_REST_SCORE = "mean_rest_score";
+    public static final String COLUMN_M2_REST_SCORE = "m2_rest_score";
+    public static final String COLUMN_COMOMENT = "comoment_correct_rest_score";
+
+    /* Discrimination below which a question is flagged for review, and the number of attempts
+     * needed before the flag is trusted. Questions under 0.2 barely separate strong attempts from
+     * weak ones, and negative values usually point to a wrong answer key. */
+    public static final double LOW_DISCRIMINATION = 0.2;
+    public static final int MIN_ATTEMPTS_TO_FLAG = 20;
+
+    // SQLite create table query constant.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_QUESTION_ID + " INTEGER PRIMARY KEY,"
+            + COLUMN_COUNT_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_COUNT_CORRECT + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_MEAN_RESPONSE_MILLIS + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_M2_RESPONSE_MILLIS + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_MEAN_REST_SCORE + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_M2_REST_SCORE + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_COMOMENT + " REAL NOT NULL DEFAULT 0"
+            + ")";
+
+    /* SQLite statement constants for folding in one answer. The row is created first if the
+     * question has none. The update binds ?1 to 1 if the answer was correct and 0 otherwise, ?2 to
+     * the response time, ?3 to the rest score, and ?4 to the question id. Every right-hand side
+     * sees the values from before the update, so with n answers so far and x a new value, the
+     * mean moves by (x - mean) / (n + 1) and the sum of squares grows by
+     * (x - mean)^2 * n / (n + 1). The co-moment grows by the deviation of the correctness from its
+     * old mean times the same scaled deviation of the rest score. */
+    public static final String INSERT_IF_ABSENT = "INSERT OR IGNORE INTO " + TABLE_NAME + "(" + COLUMN_QUESTION_ID + ") VALUES (?)";
+    public static final String UPDATE_ADD_ANSWER = "UPDATE " + TABLE_NAME + " SET "
+            + COLUMN_COUNT_ATTEMPTS + " = " + COLUMN_COUNT_ATTEMPTS + " + 1, "
+            + COLUMN_COUNT_CORRECT + " = " + COLUMN_COUNT_CORRECT + " + ?1, "
+            + COLUMN_MEAN_RESPONSE_MILLIS + " = " + COLUMN_MEAN_RESPONSE_MILLIS + " + (?2 - " + COLUMN_MEAN_RESPONSE_MILLIS + ") / (" + COLUMN_COUNT_ATTEMPTS + " + 1), "
+            + COLUMN_M2_RESPONSE_MILLIS + " = " + COLUMN_M2_RESPONSE_MILLIS + " + (?2 - " + COLUMN_MEAN_RESPONSE_MILLIS + ") * (?2 - " + COLUMN_MEAN_RESPONSE_MILLIS + ") * " + COLUMN_COUNT_ATTEMPTS + " / (" + COLUMN_COUNT_ATTEMPTS + " + 1), "
+            + COLUMN_MEAN_REST_SCORE + " = " + COLUMN_MEAN_REST_SCORE + " + (?3 - " + COLUMN_MEAN_REST_SCORE + ") / (" + COLUMN_COUNT_ATTEMPTS + " + 1), "
+            + COLUMN_M2_REST_SCORE + " = " + COLUMN_M2_REST_SCORE + " + (?3 - " + COLUMN_MEAN_REST_SCORE + ") * (?3 - " + COLUMN_MEAN_REST_SCORE + ") * " + COLUMN_COUNT_ATTEMPTS + " / (" + COLUMN_COUNT_ATTEMPTS + " + 1), "
+            + COLUMN_COMOMENT + " = " + COLUMN_COMOMENT + " + (?1 - CAST(" + COLUMN_COUNT_CORRECT + " AS REAL) / MAX(" + COLUMN_COUNT_ATTEMPTS + ", 1)) * (?3 - " + COLUMN_MEAN_REST_SCORE + ") * " + COLUMN_COUNT_ATTEMPTS + " / (" + COLUMN_COUNT_ATTEMPTS + " + 1)"
+            + " WHERE " + COLUMN_QUESTION_ID + " = ?4";
+
+    // Model variables.
+    private long questionId;
+    private int countAttempts;
+    private int countCorrect;
+    private double meanResponseMillis;
+    private double m2ResponseMillis;
+    private double meanRestScore;
+    private double m2RestScore;
+    private double comoment;
+
+    // Text of the question. Only populated by queries joined with the questions table.
+    private String question;
+
+    /**
+     * Constructs the statistics of a question with no attempts.
+     */
+    public QuestionStats(long questionId) {
+        this.questionId = questionId;
+    }
+
+    /**
+     * Returns the rest score of an answer given in an attempt with the given count of correct
+     * answers out of the given count of answers, or 0 if the attempt had no other questions.
+     */
+    public static double getRestScore(int countCorrectInAttempt, int countAnsweredInAttempt, boolean isCorrect) {
+        int countOthers = countAnsweredInAttempt - 1;
+        return countOthers > 0 ? (double) (countCorrectInAttempt - (isCorrect ? 1 : 0)) / countOthers : 0;
+    }
+
+    /**
+     * Works out the rest score of each of the given answer events and passes every event that is
+     * marked as inserted to the given folder along with its rest score. The events of each attempt
+     * must be next to each other, which is how quizzes hand them over. Rest scores are worked out
+     * from every event of the attempt, so an event that is not folded, such as one that was
+     * already stored, still counts towards the rest scores of the others.
+     */
+    public static <E extends Exception> void foldAnswers(List<AnswerEvent> answerEvents, boolean[] isInserted, AnswerFolder<E> folder) throws E {
+        int start = 0;
+        while (start < answerEvents.size()) {
+
+            // Find the end of this attempt's events and count its correct answers.
+            long attemptId = answerEvents.get(start).getAttemptId();
+            int end = start;
+            int countCorrect = 0;
+            while (end < answerEvents.size() && answerEvents.get(end).getAttemptId() == attemptId) {
+                if (answerEvents.get(end).isCorrect())
+                    countCorrect++;
+                end++;
+            }
+
+            // Fold each inserted answer with its rest score.
+            for (int i = start; i < end; i++) {
+                AnswerEvent answerEvent = answerEvents.get(i);
+                if (isInserted[i])
+                    folder.fold(answerEvent, getRestScore(countCorrect, end - start, answerEvent.isCorrect()));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * This interface folds a single answer into its question's stats, typically by running
+     * INSERT_IF_ABSENT and UPDATE_ADD_ANSWER.
+     */
+    public interface AnswerFolder<E extends Exception> {
+        void fold(AnswerEvent answerEvent, double restScore) throws E;
+    }
+
+    /**
+     * Returns the fraction of attempts answered correctly, or 0 if there are none. This is the
+     * classical difficulty index, so lower values mean harder questions.
+     */
+    public double getCorrectRate() {
+        return countAttempts > 0 ? (double) countCorrect / countAttempts : 0;
+    }
+
+    /**
+     * Returns the population standard deviation of the response time in milliseconds, or 0 if there
+     * are no attempts.
+     */
+    public double getResponseMillisStandardDeviation() {
+        return countAttempts > 0 ? Math.sqrt(m2ResponseMillis / countAttempts) : 0;
+    }
+
+    /**
+     * Returns the point-biserial correlation between answering this question correctly and the
+     * rest score of the attempt, from -1 to 1. Higher values mean the question separates strong
+     * attempts from weak ones better. Returns NaN if it is undefined, which is the case when every
+     * attempt was answered the same way or every rest score was the same.
+     */
+    public double getDiscrimination() {
+        if (countAttempts == 0)
+            return Double.NaN;
+        double m2Correct = (double) countCorrect * (countAttempts - countCorrect) / countAttempts;
+        double denominator = Math.sqrt(m2Correct * m2RestScore);
+        return denominator > 0 ? comoment / denominator : Double.NaN;
+    }
+
+    /**
+     * Returns true if the question has enough attempts and a discrimination low enough, or
+     * undefined because every attempt was answered the same way, that it should be reviewed.
+     */
+    public boolean isFlaggedForReview() {
+        if (countAttempts < MIN_ATTEMPTS_TO_FLAG)
+            return false;
+        double discrimination = getDiscrimination();
+        return Double.isNaN(discrimination) || discrimination < LOW_DISCRIMINATION;
+    }
+
+    public long getQuestionId() {
+        return questionId;
+    }
+
+    public int getCountAttempts() {
+        return countAttempts;
+    }
+
+    public void setCountAttempts(int countAttempts) {
+        this.countAttempts = countAttempts;
+    }
+
+    public int getCountCorrect() {
+        return countCorrect;
+    }
+
+    public void setCountCorrect(int countCorrect) {
+        this.countCorrect = countCorrect;
+    }
+
+    public double getMeanResponseMillis() {
+        return meanResponseMillis;
+    }
+
+    public void setMeanResponseMillis(double meanResponseMillis) {
+        this.meanResponseMillis = meanResponseMillis;
+    }
+
+    public double getM2ResponseMillis() {
+        return m2ResponseMillis;
+    }
+
+    public void setM2ResponseMillis(double m2ResponseMillis) {
+        this.m2ResponseMillis = m2ResponseMillis;
+    }
+
+    public double getMeanRestScore() {
+        return meanRestScore;
+    }
+
+    public void setMeanRestScore(double meanRestScore) {
+        this.meanRestScore = meanRestScore;
+    }
+
+    public double getM2RestScore() {
+        return m2RestScore;
+    }
+
+    public void setM2RestScore(double m2RestScore) {
+        this.m2RestScore = m2RestScore;
+    }
+
+    public double getComoment() {
+        return comoment;
+    }
+
+    public void setComoment(double comoment) {
+        this.comoment = comoment;
+    }
+
+    public String getQuestion() {
+        return question;
+    }
+
+    public void setQuestion(String question) {
+        this.question = question;
+    }
+
+    @Override
+    public String toString() {
+        return "QuestionStats{" +
+                "questionId=" + questionId +
+                ", countAttempts=" + countAttempts +
+                ", countCorrect=" + countCorrect +
+                ", meanResponseMillis=" + meanResponseMillis +
+                ", m2ResponseMillis=" + m2ResponseMillis +
+                ", meanRestScore=" + meanRestScore +
+                ", m2RestScore=" + m2RestScore +
+                ", comoment=" + comoment +
+                ", question='" + question + '\'' +
+                '}';
+    }
+}
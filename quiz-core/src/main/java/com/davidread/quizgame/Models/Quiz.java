@@ -0,0 +1,189 @@
+package com.davidread.quizgame.Models;
+
+import com.davidread.quizgame.Utilities.QuizStorage;
+import com.davidread.quizgame.Utilities.SeededShuffler;
+
+import java.util.ArrayList;
+
+/**
+ * This model class represents a quiz. The quiz holds the ids of its questions in an array, which
+ * can only be determined when the object is initially constructed. Question objects are loaded from
+ * the quiz storage one at a time as the quiz reaches them. The state of the quiz is managed by this
+ * class. Such state includes the index of the current question, the count of questions correct,
+ * and count of total questions. Functions are available to manipulate the state of this object.
+ *
+ * Each quiz has a seed that fixes the order of its questions and the order in which each
+ * question's options are shown, so an attempt can be reproduced exactly from its seed and question
+ * ids. Options are reordered through an index array, and selections made in the shown order are
+ * mapped back to the question's own option order when graded.
+ *
+ * Every graded answer is kept in arrays sized to the quiz, along with how long the question took
+ * to answer, so grading allocates nothing. The answers are handed to the quiz storage as answer
+ * events, with the seed as their attempt id, when the quiz result is recorded.
+ */
+public class Quiz {
+
+    // Model variables.
+    private long[] questionIds;
+    private Question currentQuestion;
+    private int indexCurrentQuestion;
+    private int countQuestionsCorrect;
+    private int countTotalQuestions;
+    private long userId;
+    private long seed;
+
+    /* Option order of the current question. Position i of the shown options holds the question's
+     * option optionOrder[i]. Only the first getNumberOfOptions() entries are used. */
+    private final int[] optionOrder = new int[Question.MAX_OPTIONS];
+
+    /* Answer given to each question, indexed by question position, and the time the current
+     * question was loaded, from which its response time is measured. */
+    private final long[] answerSelections;
+    private final boolean[] answerCorrect;
+    private final int[] answerResponseMillis;
+    private final long[] answerTimestamps;
+    private long currentQuestionLoadedNanos;
+
+    // Model helper objects.
+    private final QuizStorage storage;
+    private final SeededShuffler shuffler;
+
+    /**
+     * Constructs a quiz with an array of question ids specified, which are read from and whose
+     * result is recorded to the given storage. The array is shuffled in place with the given seed.
+     */
+    public Quiz(long[] questionIds, long seed, long userId, QuizStorage storage) {
+        this.questionIds = questionIds;
+        this.seed = seed;
+        shuffler = new SeededShuffler(seed);
+        shuffler.shuffle(questionIds);
+        indexCurrentQuestion = 0;
+        countQuestionsCorrect = 0;
+        countTotalQuestions = questionIds.length;
+        this.userId = userId;
+        this.storage = storage;
+        answerSelections = new long[countTotalQuestions];
+        answerCorrect = new boolean[countTotalQuestions];
+        answerResponseMillis = new int[countTotalQuestions];
+        answerTimestamps = new long[countTotalQuestions];
+    }
+
+    /**
+     * Returns a question object containing the current question. The first call for each question
+     * loads it from the quiz storage and shuffles its option order, so on Android it must be made
+     * off the main thread. Later calls return the loaded object. The response time of the question
+     * is measured from the first call.
+     */
+    public Question getCurrentQuestion() {
+        if (currentQuestion == null) {
+            currentQuestion = storage.getQuestion(questionIds[indexCurrentQuestion]);
+            shuffleOptionOrder();
+            currentQuestionLoadedNanos = System.nanoTime();
+        }
+        return currentQuestion;
+    }
+
+    /**
+     * Returns the option order of the current question, where shown position i holds the question's
+     * option at the returned array's index i. Only the first getNumberOfOptions() entries of the
+     * current question are meaningful. The array is reused for every question and must not be
+     * modified. The current question must already have been loaded through getCurrentQuestion().
+     */
+    public int[] getOptionOrder() {
+        return optionOrder;
+    }
+
+    /**
+     * Grades the current question. The given user selection bitmask has bit i set if the option
+     * shown at position i was selected. Each selected position is mapped back to the question's own
+     * option index, and the result is compared with the question's answer key. The mapped selection
+     * and the response time are kept for the question's answer event. The current question must
+     * already have been loaded through getCurrentQuestion().
+     */
+    public void gradeCurrentQuestion(long userSelection) {
+        long selection = 0;
+        for (int i = 0; i < currentQuestion.getNumberOfOptions(); i++) {
+            if ((userSelection & (1L << i)) != 0)
+                selection |= 1L << optionOrder[i];
+        }
+        boolean isCorrect = currentQuestion.isCorrectSelection(selection);
+        if (isCorrect)
+            countQuestionsCorrect++;
+
+        answerSelections[indexCurrentQuestion] = selection;
+        answerCorrect[indexCurrentQuestion] = isCorrect;
+        answerResponseMillis[indexCurrentQuestion] = (int) Math.min(Integer.MAX_VALUE, (System.nanoTime() - currentQuestionLoadedNanos) / 1_000_000);
+        answerTimestamps[indexCurrentQuestion] = System.currentTimeMillis();
+    }
+
+    /**
+     * Fills the option order with a permutation of the current question's options. The shuffler is
+     * reseeded from the quiz seed and the question's position, so the order of a question does not
+     * depend on which questions were loaded before it.
+     */
+    private void shuffleOptionOrder() {
+        int numberOfOptions = currentQuestion.getNumberOfOptions();
+        for (int i = 0; i < numberOfOptions; i++)
+            optionOrder[i] = i;
+        shuffler.reseed(seed + indexCurrentQuestion + 1);
+        shuffler.shuffle(optionOrder, numberOfOptions);
+    }
+
+    /**
+     * Increments the current question.
+     */
+    public void incrementCurrentQuestion() {
+        indexCurrentQuestion++;
+        currentQuestion = null;
+    }
+
+    /**
+     * Returns true if the quiz is complete.
+     */
+    public boolean isQuizComplete() {
+        if (indexCurrentQuestion >= countTotalQuestions)
+            return true;
+        else
+            return false;
+    }
+
+    /**
+     * Records an answer event for each answered question and then the quiz result to the quiz
+     * storage. In the app, the storage hands both to the result write queue, which inserts them
+     * into the database in the background, so this returns immediately.
+     */
+    public void recordQuizResult() {
+        int countAnswered = Math.min(indexCurrentQuestion, countTotalQuestions);
+        ArrayList<AnswerEvent> answerEvents = new ArrayList<>(countAnswered);
+        for (int i = 0; i < countAnswered; i++)
+            answerEvents.add(new AnswerEvent(seed, userId, questionIds[i], answerSelections[i], answerCorrect[i], answerResponseMillis[i], answerTimestamps[i]));
+        storage.recordAnswers(answerEvents);
+        storage.recordResult(userId, countQuestionsCorrect, countTotalQuestions, seed);
+    }
+
+    /**
+     * Resets the quiz. Specifically, it resets the index of the current question and resets the
+     * number of questions correct.
+     */
+    public void resetQuiz() {
+        indexCurrentQuestion = 0;
+        countQuestionsCorrect = 0;
+        currentQuestion = null;
+    }
+
+    public int getIndexCurrentQuestion() {
+        return indexCurrentQuestion;
+    }
+
+    public int getCountQuestionsCorrect() {
+        return countQuestionsCorrect;
+    }
+
+    public int getCountTotalQuestions() {
+        return countTotalQuestions;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
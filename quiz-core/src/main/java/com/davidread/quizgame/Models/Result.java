@@ -0,0 +1,156 @@
+package com.davidread.quizgame.Models;
+
+/**
+ * This model class represents a quiz result of some user. It has attributes for the unique id of
+ * the user the result belongs to, a timestamp of when the test was completed, the count of correct
+ * questions, the count of total questions, and the seed the quiz attempt was shuffled with.
+ */
+public class Result {
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "results";
+    public static final String COLUMN_ID = "rowid";
+    public static final String COLUMN_USER_ID = "user_id";
+    public static final String COLUMN_TIMESTAMP = "timestamp";
+    public static final String COLUMN_COUNT_QUESTIONS_CORRECT = "count_questions_correct";
+    public static final String COLUMN_COUNT_TOTAL_QUESTIONS = "count_total_questions";
+    public static final String COLUMN_SEED = "seed";
+
+    // Seed of results recorded before seeds were stored. Quizzes are never given this seed.
+    public static final long NO_SEED = 0;
+
+    // SQLite create table query constant.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_USER_ID + " INTEGER,"
+            + COLUMN_TIMESTAMP + " INTEGER,"
+            + COLUMN_COUNT_QUESTIONS_CORRECT + " INTEGER,"
+            + COLUMN_COUNT_TOTAL_QUESTIONS + " INTEGER"
+            + ")";
+
+    /* SQLite index constants. The user id index serves per-user deletes and lookups, while the
+     * timestamp index serves the newest-first results list without sorting the whole table. */
+    public static final String INDEX_USER_ID_TIMESTAMP = "index_results_user_id_timestamp";
+    public static final String CREATE_INDEX_USER_ID_TIMESTAMP = "CREATE INDEX IF NOT EXISTS " + INDEX_USER_ID_TIMESTAMP
+            + " ON " + TABLE_NAME + "(" + COLUMN_USER_ID + ", " + COLUMN_TIMESTAMP + ")";
+    public static final String INDEX_TIMESTAMP = "index_results_timestamp";
+    public static final String CREATE_INDEX_TIMESTAMP = "CREATE INDEX IF NOT EXISTS " + INDEX_TIMESTAMP
+            + " ON " + TABLE_NAME + "(" + COLUMN_TIMESTAMP + " DESC)";
+
+    // SQLite alter table query constant. The seed column was added after the table was created.
+    public static final String ADD_COLUMN_SEED = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_SEED + " INTEGER";
+
+    /* SQLite unique index constant. Every quiz attempt has its own seed, so the seed identifies a
+     * result, and inserting a result that is already stored is ignored rather than counted twice.
+     * Results without a seed are stored with a null seed, which the index does not compare. */
+    public static final String INDEX_SEED = "index_results_seed";
+    public static final String CREATE_INDEX_SEED = "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_SEED
+            + " ON " + TABLE_NAME + "(" + COLUMN_SEED + ")";
+
+    // Model variables.
+    private long id;
+    private long userId;
+    private long timestamp;
+    private int countQuestionsCorrect;
+    private int countTotalQuestions;
+    private long seed;
+
+    // Name of the user the result belongs to. Only populated by queries joined with the users table.
+    private String userFirstName;
+    private String userLastName;
+
+    /**
+     * Constructs a result with null attributes.
+     */
+    public Result() {
+
+    }
+
+    /**
+     * Constructs a result with the specified attributes.
+     */
+    public Result(long userId, long timestamp, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+        this.userId = userId;
+        this.timestamp = timestamp;
+        this.countQuestionsCorrect = countQuestionsCorrect;
+        this.countTotalQuestions = countTotalQuestions;
+        this.seed = seed;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public int getCountQuestionsCorrect() {
+        return countQuestionsCorrect;
+    }
+
+    public void setCountQuestionsCorrect(int countQuestionsCorrect) {
+        this.countQuestionsCorrect = countQuestionsCorrect;
+    }
+
+    public int getCountTotalQuestions() {
+        return countTotalQuestions;
+    }
+
+    public void setCountTotalQuestions(int countTotalQuestions) {
+        this.countTotalQuestions = countTotalQuestions;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public String getUserFirstName() {
+        return userFirstName;
+    }
+
+    public void setUserFirstName(String userFirstName) {
+        this.userFirstName = userFirstName;
+    }
+
+    public String getUserLastName() {
+        return userLastName;
+    }
+
+    public void setUserLastName(String userLastName) {
+        this.userLastName = userLastName;
+    }
+
+    @Override
+    public String toString() {
+        return "Result{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", timestamp=" + timestamp +
+                ", countQuestionsCorrect=" + countQuestionsCorrect +
+                ", countTotalQuestions=" + countTotalQuestions +
+                ", seed=" + seed +
+                ", userFirstName='" + userFirstName + '\'' +
+                ", userLastName='" + userLastName + '\'' +
+                '}';
+    }
+}
\ No newline at end of file
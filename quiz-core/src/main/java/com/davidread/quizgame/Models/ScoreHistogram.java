@@ -0,0 +1,120 @@
+package com.davidread.quizgame.Models;
+
+/**
+ * This model class represents the distribution of scores over all recorded quiz results. Scores
+ * are bucketed by whole percentage, from 0 to 100, and each bucket holds the number of results
+ * that fall in it.
+ *
+ * In the database, the bucket counts are kept up to date by triggers on the results table, so the
+ * whole distribution is always 101 rows, and ranking a score against every stored result never
+ * reads the results table, no matter how large it grows.
+ */
+public class ScoreHistogram {
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "score_histogram";
+    public static final String COLUMN_BUCKET = "bucket";
+    public static final String COLUMN_COUNT_RESULTS = "count_results";
+
+    // Number of buckets, one per whole percentage from 0 to 100.
+    public static final int BUCKET_COUNT = 101;
+
+    // SQLite create table query constant.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_BUCKET + " INTEGER PRIMARY KEY,"
+            + COLUMN_COUNT_RESULTS + " INTEGER NOT NULL DEFAULT 0"
+            + ")";
+
+    /* SQLite trigger constants. Inserting or deleting a result adds or takes one from the count of
+     * its bucket. */
+    public static final String TRIGGER_INSERT_RESULT = "trigger_score_histogram_insert_result";
+    public static final String CREATE_TRIGGER_INSERT_RESULT = "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_INSERT_RESULT
+            + " AFTER INSERT ON " + Result.TABLE_NAME
+            + " BEGIN"
+            + " UPDATE " + TABLE_NAME + " SET " + COLUMN_COUNT_RESULTS + " = " + COLUMN_COUNT_RESULTS + " + 1"
+            + " WHERE " + COLUMN_BUCKET + " = " + bucketOf("NEW") + ";"
+            + " END";
+    public static final String TRIGGER_DELETE_RESULT = "trigger_score_histogram_delete_result";
+    public static final String CREATE_TRIGGER_DELETE_RESULT = "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_DELETE_RESULT
+            + " AFTER DELETE ON " + Result.TABLE_NAME
+            + " BEGIN"
+            + " UPDATE " + TABLE_NAME + " SET " + COLUMN_COUNT_RESULTS + " = " + COLUMN_COUNT_RESULTS + " - 1"
+            + " WHERE " + COLUMN_BUCKET + " = " + bucketOf("OLD") + ";"
+            + " END";
+
+    // SQLite query constant that counts the results in each bucket, for filling the table once.
+    public static final String SELECT_BUCKET_COUNTS = "SELECT " + bucketOf(Result.TABLE_NAME) + ", COUNT(*)"
+            + " FROM " + Result.TABLE_NAME
+            + " GROUP BY 1";
+
+    // Model variables.
+    private final long[] counts;
+    private final long totalCount;
+
+    /**
+     * Returns the SQL expression for the bucket of the results row with the given name. It must
+     * match getBucket().
+     */
+    private static String bucketOf(String row) {
+        return "(CASE WHEN " + row + "." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + " > 0"
+                + " THEN MIN(MAX(" + row + "." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + " * 100 / " + row + "." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", 0), 100)"
+                + " ELSE 0 END)";
+    }
+
+    /**
+     * Returns the bucket of a result with the given counts, which is its score as a whole
+     * percentage rounded down.
+     */
+    public static int getBucket(int countQuestionsCorrect, int countTotalQuestions) {
+        if (countTotalQuestions <= 0)
+            return 0;
+        return Math.min(Math.max(countQuestionsCorrect * 100 / countTotalQuestions, 0), 100);
+    }
+
+    /**
+     * Constructs a histogram with the given count for each bucket.
+     */
+    public ScoreHistogram(long[] counts) {
+        if (counts.length != BUCKET_COUNT)
+            throw new IllegalArgumentException("Expected " + BUCKET_COUNT + " buckets but got " + counts.length);
+        this.counts = counts.clone();
+        long totalCount = 0;
+        for (long count : counts)
+            totalCount += count;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Returns the number of results in the given bucket.
+     */
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Returns the number of results in all buckets.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the number of results in buckets below the given one.
+     */
+    public long getCountBelow(int bucket) {
+        long countBelow = 0;
+        for (int i = 0; i < bucket; i++)
+            countBelow += counts[i];
+        return countBelow;
+    }
+
+    /**
+     * Returns the fraction of the other results that scored lower than a result in the given
+     * bucket, where that result is itself counted in the histogram. Returns 0 if there are no
+     * other results.
+     */
+    public double getFractionOfOthersBelow(int bucket) {
+        long countOthers = totalCount - 1;
+        return countOthers > 0 ? (double) getCountBelow(bucket) / countOthers : 0;
+    }
+}
@@ -25,6 +25,11 @@ public class User {
             + COLUMN_PASSWORD + " TEXT"
             + ")";
 
+    // SQLite index constants. Email lookups happen on every login and registration.
+    public static final String INDEX_EMAIL = "index_users_email";
+    public static final String CREATE_INDEX_EMAIL = "CREATE UNIQUE INDEX IF NOT EXISTS " + INDEX_EMAIL
+            + " ON " + TABLE_NAME + "(" + COLUMN_EMAIL + ")";
+
     // Model variables.
     private long id;
     private String firstName;
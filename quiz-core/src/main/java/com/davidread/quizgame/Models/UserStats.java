@@ -0,0 +1,294 @@
+package com.davidread.quizgame.Models;
+
+/**
+ * This model class represents the aggregate quiz statistics of some user. It has attributes for the
+ * unique id of the user, the count of attempts, the sums of correct and total questions over all
+ * attempts, the best score and when it was first reached, the score and timestamp of the latest
+ * attempt, the average score over all questions, and a rolling average score that weights recent
+ * attempts more. Scores are fractions of questions answered correctly, from 0 to 1.
+ *
+ * In the database, the statistics are kept up to date by triggers on the results table, so reading
+ * them is a single primary key lookup no matter how many results are stored. The leaderboard walks
+ * the best and average score indexes of the same table, so its cost depends on the number of
+ * entries shown rather than the number of results.
+ */
+public class UserStats {
+
+    // SQLite table and column constants.
+    public static final String TABLE_NAME = "user_stats";
+    public static final String COLUMN_USER_ID = "user_id";
+    public static final String COLUMN_COUNT_ATTEMPTS = "count_attempts";
+    public static final String COLUMN_SUM_QUESTIONS_CORRECT = "sum_questions_correct";
+    public static final String COLUMN_SUM_TOTAL_QUESTIONS = "sum_total_questions";
+    public static final String COLUMN_BEST_SCORE = "best_score";
+    public static final String COLUMN_LAST_SCORE = "last_score";
+    public static final String COLUMN_LAST_TIMESTAMP = "last_timestamp";
+    public static final String COLUMN_ROLLING_AVERAGE_SCORE = "rolling_average_score";
+    public static final String COLUMN_BEST_TIMESTAMP = "best_timestamp";
+    public static final String COLUMN_AVERAGE_SCORE = "average_score";
+
+    /* Weight of the latest attempt in the rolling average score, which is an exponential moving
+     * average. With 0.2, the last ten attempts make up about 90% of it. */
+    public static final double ROLLING_AVERAGE_WEIGHT = 0.2;
+
+    // SQLite create table query constant.
+    public static final String CREATE_TABLE = "CREATE TABLE " + TABLE_NAME + "("
+            + COLUMN_USER_ID + " INTEGER PRIMARY KEY,"
+            + COLUMN_COUNT_ATTEMPTS + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_SUM_QUESTIONS_CORRECT + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_SUM_TOTAL_QUESTIONS + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_BEST_SCORE + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_LAST_SCORE + " REAL NOT NULL DEFAULT 0,"
+            + COLUMN_LAST_TIMESTAMP + " INTEGER NOT NULL DEFAULT 0,"
+            + COLUMN_ROLLING_AVERAGE_SCORE + " REAL NOT NULL DEFAULT 0"
+            + ")";
+
+    // SQLite alter table query constants. These leaderboard columns were added after the table was created.
+    public static final String ADD_COLUMN_BEST_TIMESTAMP = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_BEST_TIMESTAMP + " INTEGER NOT NULL DEFAULT 0";
+    public static final String ADD_COLUMN_AVERAGE_SCORE = "ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_AVERAGE_SCORE + " REAL NOT NULL DEFAULT 0";
+
+    /* SQLite index constants. Each index lists users in leaderboard order, with ties broken by
+     * whoever reached the score first: the best score by when it was first reached, and the average
+     * score by the latest attempt, which is when that average was reached. */
+    public static final String INDEX_BEST_SCORE = "index_user_stats_best_score";
+    public static final String CREATE_INDEX_BEST_SCORE = "CREATE INDEX IF NOT EXISTS " + INDEX_BEST_SCORE
+            + " ON " + TABLE_NAME + "(" + COLUMN_BEST_SCORE + " DESC, " + COLUMN_BEST_TIMESTAMP + " ASC)";
+    public static final String INDEX_AVERAGE_SCORE = "index_user_stats_average_score";
+    public static final String CREATE_INDEX_AVERAGE_SCORE = "CREATE INDEX IF NOT EXISTS " + INDEX_AVERAGE_SCORE
+            + " ON " + TABLE_NAME + "(" + COLUMN_AVERAGE_SCORE + " DESC, " + COLUMN_LAST_TIMESTAMP + " ASC)";
+
+    /* SQLite trigger constants. Inserting a result folds it into its user's row in constant time.
+     * Deleting a result takes it back out of the counts and sums, and only rescans the user's
+     * remaining results, through the (user id, timestamp) index, if it was the best or latest
+     * attempt. The rolling average cannot be unwound and is left as it was. A user's row is
+     * removed along with their last result. */
+    public static final String TRIGGER_INSERT_RESULT = "trigger_user_stats_insert_result";
+    public static final String CREATE_TRIGGER_INSERT_RESULT = "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_INSERT_RESULT
+            + " AFTER INSERT ON " + Result.TABLE_NAME
+            + " WHEN NEW." + Result.COLUMN_USER_ID + " IS NOT NULL"
+            + " BEGIN"
+            + " INSERT OR IGNORE INTO " + TABLE_NAME + "(" + COLUMN_USER_ID + ") VALUES (NEW." + Result.COLUMN_USER_ID + ");"
+            + " UPDATE " + TABLE_NAME + " SET "
+            + COLUMN_COUNT_ATTEMPTS + " = " + COLUMN_COUNT_ATTEMPTS + " + 1, "
+            + COLUMN_SUM_QUESTIONS_CORRECT + " = " + COLUMN_SUM_QUESTIONS_CORRECT + " + NEW." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", "
+            + COLUMN_SUM_TOTAL_QUESTIONS + " = " + COLUMN_SUM_TOTAL_QUESTIONS + " + NEW." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", "
+            + COLUMN_BEST_SCORE + " = CASE WHEN " + COLUMN_COUNT_ATTEMPTS + " = 0 OR " + scoreOf("NEW") + " > " + COLUMN_BEST_SCORE + " THEN " + scoreOf("NEW") + " ELSE " + COLUMN_BEST_SCORE + " END, "
+            + COLUMN_BEST_TIMESTAMP + " = CASE WHEN " + COLUMN_COUNT_ATTEMPTS + " = 0 OR " + scoreOf("NEW") + " > " + COLUMN_BEST_SCORE
+            + " OR (" + scoreOf("NEW") + " = " + COLUMN_BEST_SCORE + " AND NEW." + Result.COLUMN_TIMESTAMP + " < " + COLUMN_BEST_TIMESTAMP + ")"
+            + " THEN NEW." + Result.COLUMN_TIMESTAMP + " ELSE " + COLUMN_BEST_TIMESTAMP + " END, "
+            + COLUMN_AVERAGE_SCORE + " = " + ratioOf(COLUMN_SUM_QUESTIONS_CORRECT + " + NEW." + Result.COLUMN_COUNT_QUESTIONS_CORRECT, COLUMN_SUM_TOTAL_QUESTIONS + " + NEW." + Result.COLUMN_COUNT_TOTAL_QUESTIONS) + ", "
+            + COLUMN_LAST_SCORE + " = CASE WHEN " + COLUMN_COUNT_ATTEMPTS + " = 0 OR NEW." + Result.COLUMN_TIMESTAMP + " >= " + COLUMN_LAST_TIMESTAMP + " THEN " + scoreOf("NEW") + " ELSE " + COLUMN_LAST_SCORE + " END, "
+            + COLUMN_LAST_TIMESTAMP + " = CASE WHEN " + COLUMN_COUNT_ATTEMPTS + " = 0 OR NEW." + Result.COLUMN_TIMESTAMP + " >= " + COLUMN_LAST_TIMESTAMP + " THEN NEW." + Result.COLUMN_TIMESTAMP + " ELSE " + COLUMN_LAST_TIMESTAMP + " END, "
+            + COLUMN_ROLLING_AVERAGE_SCORE + " = CASE WHEN " + COLUMN_COUNT_ATTEMPTS + " = 0 THEN " + scoreOf("NEW") + " ELSE " + COLUMN_ROLLING_AVERAGE_SCORE + " + " + ROLLING_AVERAGE_WEIGHT + " * (" + scoreOf("NEW") + " - " + COLUMN_ROLLING_AVERAGE_SCORE + ") END"
+            + " WHERE " + COLUMN_USER_ID + " = NEW." + Result.COLUMN_USER_ID + ";"
+            + " END";
+    public static final String TRIGGER_DELETE_RESULT = "trigger_user_stats_delete_result";
+    public static final String CREATE_TRIGGER_DELETE_RESULT = "CREATE TRIGGER IF NOT EXISTS " + TRIGGER_DELETE_RESULT
+            + " AFTER DELETE ON " + Result.TABLE_NAME
+            + " WHEN OLD." + Result.COLUMN_USER_ID + " IS NOT NULL"
+            + " BEGIN"
+            + " UPDATE " + TABLE_NAME + " SET "
+            + COLUMN_COUNT_ATTEMPTS + " = " + COLUMN_COUNT_ATTEMPTS + " - 1, "
+            + COLUMN_SUM_QUESTIONS_CORRECT + " = " + COLUMN_SUM_QUESTIONS_CORRECT + " - OLD." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + ", "
+            + COLUMN_SUM_TOTAL_QUESTIONS + " = " + COLUMN_SUM_TOTAL_QUESTIONS + " - OLD." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + ", "
+            + COLUMN_BEST_SCORE + " = CASE WHEN " + scoreOf("OLD") + " >= " + COLUMN_BEST_SCORE
+            + " THEN COALESCE((SELECT MAX(" + scoreOf("r") + ") FROM " + Result.TABLE_NAME + " r WHERE r." + Result.COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + "), 0)"
+            + " ELSE " + COLUMN_BEST_SCORE + " END, "
+            + COLUMN_BEST_TIMESTAMP + " = CASE WHEN " + scoreOf("OLD") + " >= " + COLUMN_BEST_SCORE
+            + " THEN COALESCE((SELECT r." + Result.COLUMN_TIMESTAMP + " FROM " + Result.TABLE_NAME + " r WHERE r." + Result.COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + " ORDER BY " + scoreOf("r") + " DESC, r." + Result.COLUMN_TIMESTAMP + " ASC LIMIT 1), 0)"
+            + " ELSE " + COLUMN_BEST_TIMESTAMP + " END, "
+            + COLUMN_AVERAGE_SCORE + " = " + ratioOf(COLUMN_SUM_QUESTIONS_CORRECT + " - OLD." + Result.COLUMN_COUNT_QUESTIONS_CORRECT, COLUMN_SUM_TOTAL_QUESTIONS + " - OLD." + Result.COLUMN_COUNT_TOTAL_QUESTIONS) + ", "
+            + COLUMN_LAST_SCORE + " = CASE WHEN OLD." + Result.COLUMN_TIMESTAMP + " >= " + COLUMN_LAST_TIMESTAMP
+            + " THEN COALESCE((SELECT " + scoreOf("r") + " FROM " + Result.TABLE_NAME + " r WHERE r." + Result.COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + " ORDER BY r." + Result.COLUMN_TIMESTAMP + " DESC LIMIT 1), 0)"
+            + " ELSE " + COLUMN_LAST_SCORE + " END, "
+            + COLUMN_LAST_TIMESTAMP + " = CASE WHEN OLD." + Result.COLUMN_TIMESTAMP + " >= " + COLUMN_LAST_TIMESTAMP
+            + " THEN COALESCE((SELECT MAX(r." + Result.COLUMN_TIMESTAMP + ") FROM " + Result.TABLE_NAME + " r WHERE r." + Result.COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + "), 0)"
+            + " ELSE " + COLUMN_LAST_TIMESTAMP + " END"
+            + " WHERE " + COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + ";"
+            + " DELETE FROM " + TABLE_NAME + " WHERE " + COLUMN_USER_ID + " = OLD." + Result.COLUMN_USER_ID + " AND " + COLUMN_COUNT_ATTEMPTS + " <= 0;"
+            + " END";
+
+    // Model variables.
+    private long userId;
+    private int countAttempts;
+    private long sumQuestionsCorrect;
+    private long sumTotalQuestions;
+    private double bestScore;
+    private double lastScore;
+    private long lastTimestamp;
+    private double rollingAverageScore;
+    private long bestTimestamp;
+
+    // Name of the user the stats belong to. Only populated by queries joined with the users table.
+    private String userFirstName;
+    private String userLastName;
+
+    /**
+     * Returns the SQL expression for the score of the results row with the given name.
+     */
+    private static String scoreOf(String row) {
+        return "(CASE WHEN " + row + "." + Result.COLUMN_COUNT_TOTAL_QUESTIONS + " > 0"
+                + " THEN CAST(" + row + "." + Result.COLUMN_COUNT_QUESTIONS_CORRECT + " AS REAL) / " + row + "." + Result.COLUMN_COUNT_TOTAL_QUESTIONS
+                + " ELSE 0 END)";
+    }
+
+    /**
+     * Returns the SQL expression for the given count of correct questions over the given count of
+     * total questions, or 0 if there are no questions.
+     */
+    private static String ratioOf(String countQuestionsCorrect, String countTotalQuestions) {
+        return "(CASE WHEN " + countTotalQuestions + " > 0"
+                + " THEN CAST(" + countQuestionsCorrect + " AS REAL) / (" + countTotalQuestions + ")"
+                + " ELSE 0 END)";
+    }
+
+    /**
+     * Returns the score of a result with the given counts, or 0 if it has no questions.
+     */
+    public static double getScore(int countQuestionsCorrect, int countTotalQuestions) {
+        return countTotalQuestions > 0 ? (double) countQuestionsCorrect / countTotalQuestions : 0;
+    }
+
+    /**
+     * Constructs the statistics of a user with no attempts.
+     */
+    public UserStats(long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Folds a result into the statistics the same way the insert trigger does.
+     */
+    public void addResult(long timestamp, int countQuestionsCorrect, int countTotalQuestions) {
+        double score = getScore(countQuestionsCorrect, countTotalQuestions);
+        if (countAttempts == 0) {
+            bestScore = score;
+            bestTimestamp = timestamp;
+            lastScore = score;
+            lastTimestamp = timestamp;
+            rollingAverageScore = score;
+        } else {
+            if (score > bestScore || (score == bestScore && timestamp < bestTimestamp)) {
+                bestScore = score;
+                bestTimestamp = timestamp;
+            }
+            if (timestamp >= lastTimestamp) {
+                lastScore = score;
+                lastTimestamp = timestamp;
+            }
+            rollingAverageScore += ROLLING_AVERAGE_WEIGHT * (score - rollingAverageScore);
+        }
+        countAttempts++;
+        sumQuestionsCorrect += countQuestionsCorrect;
+        sumTotalQuestions += countTotalQuestions;
+    }
+
+    /**
+     * Returns the fraction of all questions over all attempts answered correctly, or 0 if there
+     * are none. The average score column holds the same value for the leaderboard index.
+     */
+    public double getAverageScore() {
+        return sumTotalQuestions > 0 ? (double) sumQuestionsCorrect / sumTotalQuestions : 0;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public int getCountAttempts() {
+        return countAttempts;
+    }
+
+    public void setCountAttempts(int countAttempts) {
+        this.countAttempts = countAttempts;
+    }
+
+    public long getSumQuestionsCorrect() {
+        return sumQuestionsCorrect;
+    }
+
+    public void setSumQuestionsCorrect(long sumQuestionsCorrect) {
+        this.sumQuestionsCorrect = sumQuestionsCorrect;
+    }
+
+    public long getSumTotalQuestions() {
+        return sumTotalQuestions;
+    }
+
+    public void setSumTotalQuestions(long sumTotalQuestions) {
+        this.sumTotalQuestions = sumTotalQuestions;
+    }
+
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(double bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public double getLastScore() {
+        return lastScore;
+    }
+
+    public void setLastScore(double lastScore) {
+        this.lastScore = lastScore;
+    }
+
+    public long getBestTimestamp() {
+        return bestTimestamp;
+    }
+
+    public void setBestTimestamp(long bestTimestamp) {
+        this.bestTimestamp = bestTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public double getRollingAverageScore() {
+        return rollingAverageScore;
+    }
+
+    public void setRollingAverageScore(double rollingAverageScore) {
+        this.rollingAverageScore = rollingAverageScore;
+    }
+
+    public String getUserFirstName() {
+        return userFirstName;
+    }
+
+    public void setUserFirstName(String userFirstName) {
+        this.userFirstName = userFirstName;
+    }
+
+    public String getUserLastName() {
+        return userLastName;
+    }
+
+    public void setUserLastName(String userLastName) {
+        this.userLastName = userLastName;
+    }
+
+    @Override
+    public String toString() {
+        return "UserStats{" +
+                "userId=" + userId +
+                ", countAttempts=" + countAttempts +
+                ", sumQuestionsCorrect=" + sumQuestionsCorrect +
+                ", sumTotalQuestions=" + sumTotalQuestions +
+                ", bestScore=" + bestScore +
+                ", lastScore=" + lastScore +
+                ", lastTimestamp=" + lastTimestamp +
+                ", rollingAverageScore=" + rollingAverageScore +
+                ", bestTimestamp=" + bestTimestamp +
+                ", userFirstName='" + userFirstName + '\'' +
+                ", userLastName='" + userLastName + '\'' +
+                '}';
+    }
+}
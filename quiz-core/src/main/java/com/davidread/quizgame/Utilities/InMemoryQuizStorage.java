@@ -0,0 +1,88 @@
+package com.davidread.quizgame.Utilities;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+import com.davidread.quizgame.Models.Result;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This utility class stores questions, results, and answer events in memory. It lets the quiz
+ * engine run without a database, for example in benchmarks and headless tests. Instances are not
+ * thread-safe.
+ */
+public class InMemoryQuizStorage implements QuizStorage {
+
+    // Storage objects.
+    private final HashMap<Long, Question> questions = new HashMap<>();
+    private final ArrayList<Result> results = new ArrayList<>();
+    private final ArrayList<AnswerEvent> answerEvents = new ArrayList<>();
+
+    /**
+     * Adds the given question, replacing any question with the same id.
+     */
+    public void addQuestion(Question question) {
+        questions.put(question.getId(), question);
+    }
+
+    /**
+     * Returns every result recorded so far, oldest first.
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns every answer event recorded so far, oldest first.
+     */
+    public List<AnswerEvent> getAnswerEvents() {
+        return answerEvents;
+    }
+
+    @Override
+    public Question getQuestion(long id) {
+        return questions.get(id);
+    }
+
+    /**
+     * Draws the sample with a partial Fisher-Yates shuffle over the matching ids, taken in id order
+     * so that the same random number generator always draws the same sample.
+     */
+    @Override
+    public long[] sampleQuestionIds(String category, int count, Random random) {
+
+        // Collect the ids of every matching question in id order.
+        long[] ids = new long[questions.size()];
+        int size = 0;
+        for (Question question : questions.values()) {
+            if (category == null || category.equals(question.getCategory()))
+                ids[size++] = question.getId();
+        }
+        Arrays.sort(ids, 0, size);
+
+        // Move a random remaining id into each slot of the sample.
+        int sampleSize = Math.max(0, Math.min(count, size));
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(size - i);
+            long swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+
+        return Arrays.copyOf(ids, sampleSize);
+    }
+
+    @Override
+    public void recordResult(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed) {
+        results.add(new Result(userId, System.currentTimeMillis(), countQuestionsCorrect, countTotalQuestions, seed));
+    }
+
+    @Override
+    public void recordAnswers(List<AnswerEvent> answerEvents) {
+        this.answerEvents.addAll(answerEvents);
+    }
+}
@@ -0,0 +1,41 @@
+package com.davidread.quizgame.Utilities;
+
+import com.davidread.quizgame.Models.AnswerEvent;
+import com.davidread.quizgame.Models.Question;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This interface is the storage a quiz reads its questions from and records its result to. The
+ * Android app stores quizzes in SQLite, while headless tools and benchmarks can use the in-memory
+ * implementation.
+ */
+public interface QuizStorage {
+
+    /**
+     * Returns the question with the given id, or null if there is no such question. May block on
+     * storage, so callers on a UI thread must call it in the background.
+     */
+    Question getQuestion(long id);
+
+    /**
+     * Returns the ids of up to count distinct questions drawn at random with the given random
+     * number generator from the given category, or from every category if the category is null.
+     * May block on storage.
+     */
+    long[] sampleQuestionIds(String category, int count, Random random);
+
+    /**
+     * Records the result of a finished quiz attempt for the given user. Implementations may write
+     * the result in the background, and may require this to be called on a particular thread.
+     */
+    void recordResult(long userId, int countQuestionsCorrect, int countTotalQuestions, long seed);
+
+    /**
+     * Records the answer events of a finished quiz attempt, in the order they were given.
+     * Implementations may write them in the background, and may require this to be called on a
+     * particular thread.
+     */
+    void recordAnswers(List<AnswerEvent> answerEvents);
+}
@@ -0,0 +1,42 @@
+package com.davidread.quizgame.Utilities;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * This utility class formats result timestamps into display strings. The formatters and date
+ * object are created once and reused for every call, so an instance is not thread-safe and should
+ * only be used by the thread that owns it.
+ */
+public class ResultFormatter {
+
+    // Formatting objects reused across calls.
+    private final SimpleDateFormat timeFormat;
+    private final SimpleDateFormat dateFormat;
+    private final Date date;
+
+    /**
+     * Constructs a result formatter.
+     */
+    public ResultFormatter() {
+        timeFormat = new SimpleDateFormat("hh:mm aa");
+        dateFormat = new SimpleDateFormat("M/d/yyyy");
+        date = new Date();
+    }
+
+    /**
+     * Returns a formatted time string (hh:mm aa) given an epoch timestamp.
+     */
+    public String formatTime(long timestamp) {
+        date.setTime(timestamp);
+        return timeFormat.format(date);
+    }
+
+    /**
+     * Returns a formatted date string (M/d/yyyy) given an epoch timestamp.
+     */
+    public String formatDate(long timestamp) {
+        date.setTime(timestamp);
+        return dateFormat.format(date);
+    }
+}
@@ -0,0 +1,72 @@
+package com.davidread.quizgame.Utilities;
+
+/**
+ * This utility class shuffles primitive arrays in place with a Fisher-Yates shuffle driven by a
+ * SplitMix64 generator. The same seed always produces the same permutation on every device and
+ * Java version, unlike java.util.Random whose use by Collections.shuffle() is not specified.
+ * Shuffling allocates nothing, and the generator may be reseeded to reuse one instance.
+ */
+public class SeededShuffler {
+
+    // Increment of the SplitMix64 state, the odd integer closest to 2^64 divided by the golden ratio.
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Generator state.
+    private long state;
+
+    /**
+     * Constructs a shuffler with the given seed.
+     */
+    public SeededShuffler(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Restarts the generator from the given seed.
+     */
+    public void reseed(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Returns the next 64 pseudorandom bits.
+     */
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a pseudorandom int between 0 inclusive and the given positive bound exclusive. It
+     * scales 31 random bits by the bound rather than taking a remainder, so it needs no division.
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    /**
+     * Shuffles the whole array in place.
+     */
+    public void shuffle(long[] array) {
+        for (int i = array.length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            long swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+
+    /**
+     * Shuffles the first length elements of the array in place.
+     */
+    public void shuffle(int[] array, int length) {
+        for (int i = length - 1; i > 0; i--) {
+            int j = nextInt(i + 1);
+            int swap = array[i];
+            array[i] = array[j];
+            array[j] = swap;
+        }
+    }
+}
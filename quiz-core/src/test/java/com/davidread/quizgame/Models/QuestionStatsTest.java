@@ -0,0 +1,171 @@
+package com.davidread.quizgame.Models;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for QuestionStats.
+ */
+public class QuestionStatsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void getRestScore_excludesOwnAnswer() {
+        assertEquals(0.5, QuestionStats.getRestScore(3, 5, true), DELTA);
+        assertEquals(0.75, QuestionStats.getRestScore(3, 5, false), DELTA);
+    }
+
+    @Test
+    public void getRestScore_singleQuestionAttemptIsZero() {
+        assertEquals(0, QuestionStats.getRestScore(1, 1, true), DELTA);
+        assertEquals(0, QuestionStats.getRestScore(0, 1, false), DELTA);
+    }
+
+    @Test
+    public void noAttempts_isUndefined() {
+        QuestionStats questionStats = new QuestionStats(1);
+        assertEquals(0, questionStats.getCorrectRate(), DELTA);
+        assertEquals(0, questionStats.getResponseMillisStandardDeviation(), DELTA);
+        assertTrue(Double.isNaN(questionStats.getDiscrimination()));
+        assertFalse(questionStats.isFlaggedForReview());
+    }
+
+    @Test
+    public void everyAttemptCorrect_isFlaggedOnceEnoughAttempts() {
+        QuestionStats questionStats = new QuestionStats(1);
+        questionStats.setCountAttempts(QuestionStats.MIN_ATTEMPTS_TO_FLAG - 1);
+        questionStats.setCountCorrect(QuestionStats.MIN_ATTEMPTS_TO_FLAG - 1);
+        questionStats.setM2RestScore(1);
+        assertTrue(Double.isNaN(questionStats.getDiscrimination()));
+        assertFalse(questionStats.isFlaggedForReview());
+
+        questionStats.setCountAttempts(QuestionStats.MIN_ATTEMPTS_TO_FLAG);
+        questionStats.setCountCorrect(QuestionStats.MIN_ATTEMPTS_TO_FLAG);
+        assertTrue(questionStats.isFlaggedForReview());
+    }
+
+    @Test
+    public void getResponseMillisStandardDeviation_isPopulation() {
+        QuestionStats questionStats = new QuestionStats(1);
+        questionStats.setCountAttempts(4);
+        questionStats.setM2ResponseMillis(400);
+        assertEquals(10, questionStats.getResponseMillisStandardDeviation(), DELTA);
+    }
+
+    @Test
+    public void foldAnswers_restScoreIsFractionOfOtherAnswersCorrect() {
+        // Attempt 1 answers three of four correctly, attempt 2 one of two.
+        List<AnswerEvent> answerEvents = Arrays.asList(
+                answer(1, 10, true), answer(1, 11, false), answer(1, 12, true), answer(1, 13, true),
+                answer(2, 10, false), answer(2, 11, true));
+        List<Double> restScores = new ArrayList<>();
+        QuestionStats.foldAnswers(answerEvents, allInserted(answerEvents.size()), (answerEvent, restScore) -> restScores.add(restScore));
+        assertEquals(Arrays.asList(2 / 3.0, 1.0, 2 / 3.0, 2 / 3.0, 1.0, 0.0), restScores);
+    }
+
+    @Test
+    public void foldAnswers_skipsAnswersNotInsertedButCountsThem() {
+        List<AnswerEvent> answerEvents = Arrays.asList(answer(1, 10, true), answer(1, 11, true), answer(1, 12, false));
+        List<Long> foldedQuestionIds = new ArrayList<>();
+        List<Double> restScores = new ArrayList<>();
+        QuestionStats.foldAnswers(answerEvents, new boolean[]{false, true, true}, (answerEvent, restScore) -> {
+            foldedQuestionIds.add(answerEvent.getQuestionId());
+            restScores.add(restScore);
+        });
+        assertEquals(Arrays.asList(11L, 12L), foldedQuestionIds);
+        assertEquals(Arrays.asList(0.5, 1.0), restScores);
+    }
+
+    @Test
+    public void incrementalFold_matchesDirectPearsonCorrelation() {
+        Random random = new Random(2024);
+        int countQuestions = 8;
+        QuestionStats[] questionStats = new QuestionStats[countQuestions];
+        for (int q = 0; q < countQuestions; q++)
+            questionStats[q] = new QuestionStats(q);
+        List<List<double[]>> samples = new ArrayList<>();
+        for (int q = 0; q < countQuestions; q++)
+            samples.add(new ArrayList<>());
+
+        // Simulate attempts whose ability drives how likely each answer is to be correct.
+        List<AnswerEvent> answerEvents = new ArrayList<>();
+        for (long attemptId = 1; attemptId <= 300; attemptId++) {
+            double ability = random.nextDouble();
+            for (int q = 0; q < countQuestions; q++)
+                answerEvents.add(new AnswerEvent(attemptId, 1, q, 0, random.nextDouble() < ability * (q + 1) / countQuestions + 0.1, 1000 + random.nextInt(5000), 0));
+        }
+        QuestionStats.foldAnswers(answerEvents, allInserted(answerEvents.size()), (answerEvent, restScore) -> {
+            int q = (int) answerEvent.getQuestionId();
+            addAnswer(questionStats[q], answerEvent.isCorrect(), answerEvent.getResponseMillis(), restScore);
+            samples.get(q).add(new double[]{answerEvent.isCorrect() ? 1 : 0, restScore});
+        });
+
+        // Compare each question's discrimination with the correlation of its answers and rest scores.
+        for (int q = 0; q < countQuestions; q++) {
+            List<double[]> pairs = samples.get(q);
+            assertEquals(pairs.size(), questionStats[q].getCountAttempts());
+            assertFalse(Double.isNaN(questionStats[q].getDiscrimination()));
+            assertEquals(pearson(pairs), questionStats[q].getDiscrimination(), 1e-9);
+            assertEquals(mean(pairs, 1), questionStats[q].getMeanRestScore(), 1e-9);
+        }
+    }
+
+    /**
+     * Folds an answer into the given stats the same way QuestionStats.UPDATE_ADD_ANSWER does, with
+     * every right-hand side using the values from before the update.
+     */
+    private static void addAnswer(QuestionStats questionStats, boolean isCorrect, int responseMillis, double restScore) {
+        int n = questionStats.getCountAttempts();
+        double correct = isCorrect ? 1 : 0;
+        double meanCorrect = (double) questionStats.getCountCorrect() / Math.max(n, 1);
+        double meanResponseMillis = questionStats.getMeanResponseMillis();
+        double meanRestScore = questionStats.getMeanRestScore();
+        questionStats.setCountAttempts(n + 1);
+        questionStats.setCountCorrect(questionStats.getCountCorrect() + (isCorrect ? 1 : 0));
+        questionStats.setMeanResponseMillis(meanResponseMillis + (responseMillis - meanResponseMillis) / (n + 1));
+        questionStats.setM2ResponseMillis(questionStats.getM2ResponseMillis() + (responseMillis - meanResponseMillis) * (responseMillis - meanResponseMillis) * n / (n + 1));
+        questionStats.setMeanRestScore(meanRestScore + (restScore - meanRestScore) / (n + 1));
+        questionStats.setM2RestScore(questionStats.getM2RestScore() + (restScore - meanRestScore) * (restScore - meanRestScore) * n / (n + 1));
+        questionStats.setComoment(questionStats.getComoment() + (correct - meanCorrect) * (restScore - meanRestScore) * n / (n + 1));
+    }
+
+    /**
+     * Returns the Pearson correlation of the first and second values of the given pairs, computed
+     * directly from their means.
+     */
+    private static double pearson(List<double[]> pairs) {
+        double meanX = mean(pairs, 0);
+        double meanY = mean(pairs, 1);
+        double sumXY = 0, sumXX = 0, sumYY = 0;
+        for (double[] pair : pairs) {
+            sumXY += (pair[0] - meanX) * (pair[1] - meanY);
+            sumXX += (pair[0] - meanX) * (pair[0] - meanX);
+            sumYY += (pair[1] - meanY) * (pair[1] - meanY);
+        }
+        return sumXY / Math.sqrt(sumXX * sumYY);
+    }
+
+    private static double mean(List<double[]> pairs, int index) {
+        double sum = 0;
+        for (double[] pair : pairs)
+            sum += pair[index];
+        return sum / pairs.size();
+    }
+
+    private static AnswerEvent answer(long attemptId, long questionId, boolean isCorrect) {
+        return new AnswerEvent(attemptId, 1, questionId, 0, isCorrect, 1000, 0);
+    }
+
+    private static boolean[] allInserted(int count) {
+        boolean[] isInserted = new boolean[count];
+        Arrays.fill(isInserted, true);
+        return isInserted;
+    }
+}
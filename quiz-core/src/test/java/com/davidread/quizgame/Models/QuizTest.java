@@ -0,0 +1,161 @@
+package com.davidread.quizgame.Models;
+
+import com.davidread.quizgame.Utilities.InMemoryQuizStorage;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for Quiz, run against in-memory storage.
+ */
+public class QuizTest {
+
+    private static final long USER_ID = 3;
+
+    /**
+     * Returns a storage holding questions with the given ids, each with six options and options
+     * 1 and 4 as the correct answers.
+     */
+    private static InMemoryQuizStorage createStorage(long... questionIds) {
+        InMemoryQuizStorage storage = new InMemoryQuizStorage();
+        for (long id : questionIds)
+            storage.addQuestion(new Question(id, "test", "Question " + id + "?", new String[]{"A", "B", "C", "D", "E", "F"}, 0b010010));
+        return storage;
+    }
+
+    /**
+     * Returns the given selection in the question's own option order mapped to the shown order.
+     */
+    private static long toShownSelection(long selection, int[] optionOrder, int numberOfOptions) {
+        long shownSelection = 0;
+        for (int position = 0; position < numberOfOptions; position++) {
+            if ((selection & (1L << optionOrder[position])) != 0)
+                shownSelection |= 1L << position;
+        }
+        return shownSelection;
+    }
+
+    /**
+     * Returns a seed whose option order for the first question is not the identity, so that
+     * grading has to map the selection.
+     */
+    private static long findSeedWithPermutedOptions(InMemoryQuizStorage storage) {
+        for (long seed = 1; ; seed++) {
+            Quiz quiz = new Quiz(new long[]{1}, seed, USER_ID, storage);
+            quiz.getCurrentQuestion();
+            int[] optionOrder = quiz.getOptionOrder();
+            for (int i = 0; i < 6; i++) {
+                if (optionOrder[i] != i)
+                    return seed;
+            }
+        }
+    }
+
+    @Test
+    public void sameSeed_sameQuestionAndOptionOrder() {
+        InMemoryQuizStorage storage = createStorage(1, 2, 3, 4, 5);
+        Quiz first = new Quiz(new long[]{1, 2, 3, 4, 5}, 1234, USER_ID, storage);
+        Quiz second = new Quiz(new long[]{1, 2, 3, 4, 5}, 1234, USER_ID, storage);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(first.getCurrentQuestion().getId(), second.getCurrentQuestion().getId());
+            assertArrayEquals(Arrays.copyOf(first.getOptionOrder(), 6), Arrays.copyOf(second.getOptionOrder(), 6));
+            first.incrementCurrentQuestion();
+            second.incrementCurrentQuestion();
+        }
+    }
+
+    @Test
+    public void optionOrder_isPermutation() {
+        InMemoryQuizStorage storage = createStorage(1);
+        Quiz quiz = new Quiz(new long[]{1}, 99, USER_ID, storage);
+        quiz.getCurrentQuestion();
+        int[] order = Arrays.copyOf(quiz.getOptionOrder(), 6);
+        Arrays.sort(order);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, order);
+    }
+
+    @Test
+    public void optionOrder_doesNotDependOnEarlierQuestions() {
+        InMemoryQuizStorage storage = createStorage(1, 2);
+        Quiz loadedBoth = new Quiz(new long[]{1, 2}, 77, USER_ID, storage);
+        loadedBoth.getCurrentQuestion();
+        loadedBoth.incrementCurrentQuestion();
+        loadedBoth.getCurrentQuestion();
+
+        Quiz skippedFirst = new Quiz(new long[]{1, 2}, 77, USER_ID, storage);
+        skippedFirst.incrementCurrentQuestion();
+        skippedFirst.getCurrentQuestion();
+
+        assertArrayEquals(Arrays.copyOf(loadedBoth.getOptionOrder(), 6), Arrays.copyOf(skippedFirst.getOptionOrder(), 6));
+    }
+
+    @Test
+    public void grade_mapsShownSelectionThroughPermutedOptionOrder() {
+        InMemoryQuizStorage storage = createStorage(1);
+        long seed = findSeedWithPermutedOptions(storage);
+        Quiz quiz = new Quiz(new long[]{1}, seed, USER_ID, storage);
+        Question question = quiz.getCurrentQuestion();
+        long shownCorrect = toShownSelection(question.getAnswerKey(), quiz.getOptionOrder(), 6);
+        assertNotEquals(question.getAnswerKey(), shownCorrect);
+
+        quiz.gradeCurrentQuestion(shownCorrect);
+        assertEquals(1, quiz.getCountQuestionsCorrect());
+    }
+
+    @Test
+    public void grade_rejectsUnmappedAnswerKeyWhenOrderIsPermuted() {
+        InMemoryQuizStorage storage = createStorage(1);
+        long seed = findSeedWithPermutedOptions(storage);
+        Quiz quiz = new Quiz(new long[]{1}, seed, USER_ID, storage);
+        Question question = quiz.getCurrentQuestion();
+        if (toShownSelection(question.getAnswerKey(), quiz.getOptionOrder(), 6) == question.getAnswerKey())
+            return;
+
+        quiz.gradeCurrentQuestion(question.getAnswerKey());
+        assertEquals(0, quiz.getCountQuestionsCorrect());
+    }
+
+    @Test
+    public void grade_partialSelectionIsWrong() {
+        InMemoryQuizStorage storage = createStorage(1);
+        Quiz quiz = new Quiz(new long[]{1}, 5, USER_ID, storage);
+        Question question = quiz.getCurrentQuestion();
+        quiz.gradeCurrentQuestion(toShownSelection(1L << 1, quiz.getOptionOrder(), question.getNumberOfOptions()));
+        assertEquals(0, quiz.getCountQuestionsCorrect());
+    }
+
+    @Test
+    public void recordQuizResult_recordsAnswersAndResult() {
+        InMemoryQuizStorage storage = createStorage(1, 2, 3);
+        Quiz quiz = new Quiz(new long[]{1, 2, 3}, 2021, USER_ID, storage);
+        for (int i = 0; i < 3; i++) {
+            Question question = quiz.getCurrentQuestion();
+            long selection = i == 1 ? 1 : question.getAnswerKey();
+            quiz.gradeCurrentQuestion(toShownSelection(selection, quiz.getOptionOrder(), question.getNumberOfOptions()));
+            quiz.incrementCurrentQuestion();
+        }
+        assertTrue(quiz.isQuizComplete());
+        quiz.recordQuizResult();
+
+        List<Result> results = storage.getResults();
+        assertEquals(1, results.size());
+        assertEquals(USER_ID, results.get(0).getUserId());
+        assertEquals(2, results.get(0).getCountQuestionsCorrect());
+        assertEquals(3, results.get(0).getCountTotalQuestions());
+        assertEquals(2021, results.get(0).getSeed());
+
+        List<AnswerEvent> answerEvents = storage.getAnswerEvents();
+        assertEquals(3, answerEvents.size());
+        for (int i = 0; i < 3; i++) {
+            AnswerEvent answerEvent = answerEvents.get(i);
+            assertEquals(2021, answerEvent.getAttemptId());
+            assertEquals(USER_ID, answerEvent.getUserId());
+            assertEquals(i != 1, answerEvent.isCorrect());
+            assertEquals(i == 1 ? 1 : 0b010010, answerEvent.getSelection());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.davidread.quizgame.Models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for ScoreHistogram.
+ */
+public class ScoreHistogramTest {
+
+    private static final double DELTA = 1e-9;
+
+    /**
+     * Returns a histogram of results with the given scores, as counts of correct out of five.
+     */
+    private static ScoreHistogram histogramOf(int... countsQuestionsCorrect) {
+        long[] counts = new long[ScoreHistogram.BUCKET_COUNT];
+        for (int countQuestionsCorrect : countsQuestionsCorrect)
+            counts[ScoreHistogram.getBucket(countQuestionsCorrect, 5)]++;
+        return new ScoreHistogram(counts);
+    }
+
+    @Test
+    public void getBucket_roundsDownAndClamps() {
+        assertEquals(0, ScoreHistogram.getBucket(0, 5));
+        assertEquals(33, ScoreHistogram.getBucket(1, 3));
+        assertEquals(66, ScoreHistogram.getBucket(2, 3));
+        assertEquals(100, ScoreHistogram.getBucket(5, 5));
+        assertEquals(100, ScoreHistogram.getBucket(6, 5));
+        assertEquals(0, ScoreHistogram.getBucket(-1, 5));
+        assertEquals(0, ScoreHistogram.getBucket(3, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsWrongBucketCount() {
+        new ScoreHistogram(new long[10]);
+    }
+
+    @Test
+    public void empty_hasNothingBelow() {
+        ScoreHistogram histogram = new ScoreHistogram(new long[ScoreHistogram.BUCKET_COUNT]);
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getCountBelow(100));
+        assertEquals(0, histogram.getFractionOfOthersBelow(50), DELTA);
+    }
+
+    @Test
+    public void singleResult_hasNoOthers() {
+        ScoreHistogram histogram = histogramOf(3);
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(0, histogram.getFractionOfOthersBelow(ScoreHistogram.getBucket(3, 5)), DELTA);
+    }
+
+    @Test
+    public void ties_doNotCountAsBelow() {
+        ScoreHistogram histogram = histogramOf(3, 3, 3, 3);
+        assertEquals(0, histogram.getFractionOfOthersBelow(ScoreHistogram.getBucket(3, 5)), DELTA);
+    }
+
+    @Test
+    public void mixedScores_countOnlyLowerBuckets() {
+        // Scores 1, 2, 2, 4, 5 out of 5, ranking one of the results with 4.
+        ScoreHistogram histogram = histogramOf(1, 2, 2, 4, 5);
+        int bucket = ScoreHistogram.getBucket(4, 5);
+        assertEquals(3, histogram.getCountBelow(bucket));
+        assertEquals(0.75, histogram.getFractionOfOthersBelow(bucket), DELTA);
+        assertEquals(0, histogram.getFractionOfOthersBelow(ScoreHistogram.getBucket(1, 5)), DELTA);
+        assertEquals(1.0, histogram.getFractionOfOthersBelow(ScoreHistogram.getBucket(5, 5)), DELTA);
+    }
+
+    @Test
+    public void constructor_copiesCounts() {
+        long[] counts = new long[ScoreHistogram.BUCKET_COUNT];
+        counts[10] = 2;
+        ScoreHistogram histogram = new ScoreHistogram(counts);
+        counts[10] = 5;
+        assertEquals(2, histogram.getCount(10));
+    }
+}
@@ -0,0 +1,82 @@
+package com.davidread.quizgame.Models;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for UserStats.
+ */
+public class UserStatsTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void noAttempts_scoresAreZero() {
+        UserStats userStats = new UserStats(1);
+        assertEquals(0, userStats.getCountAttempts());
+        assertEquals(0, userStats.getAverageScore(), DELTA);
+        assertEquals(0, UserStats.getScore(0, 0), DELTA);
+    }
+
+    @Test
+    public void firstResult_setsEveryScore() {
+        UserStats userStats = new UserStats(1);
+        userStats.addResult(100, 3, 5);
+        assertEquals(1, userStats.getCountAttempts());
+        assertEquals(0.6, userStats.getBestScore(), DELTA);
+        assertEquals(100, userStats.getBestTimestamp());
+        assertEquals(0.6, userStats.getLastScore(), DELTA);
+        assertEquals(100, userStats.getLastTimestamp());
+        assertEquals(0.6, userStats.getRollingAverageScore(), DELTA);
+        assertEquals(0.6, userStats.getAverageScore(), DELTA);
+    }
+
+    @Test
+    public void laterResults_updateBestLastAndAverages() {
+        UserStats userStats = new UserStats(1);
+        userStats.addResult(100, 3, 5);
+        userStats.addResult(200, 5, 5);
+        userStats.addResult(300, 1, 5);
+
+        assertEquals(3, userStats.getCountAttempts());
+        assertEquals(9, userStats.getSumQuestionsCorrect());
+        assertEquals(15, userStats.getSumTotalQuestions());
+        assertEquals(1.0, userStats.getBestScore(), DELTA);
+        assertEquals(200, userStats.getBestTimestamp());
+        assertEquals(0.2, userStats.getLastScore(), DELTA);
+        assertEquals(300, userStats.getLastTimestamp());
+        assertEquals(0.6, userStats.getAverageScore(), DELTA);
+
+        double rolling = 0.6;
+        rolling += UserStats.ROLLING_AVERAGE_WEIGHT * (1.0 - rolling);
+        rolling += UserStats.ROLLING_AVERAGE_WEIGHT * (0.2 - rolling);
+        assertEquals(rolling, userStats.getRollingAverageScore(), DELTA);
+    }
+
+    @Test
+    public void tiedBestScore_keepsEarliestTimestamp() {
+        UserStats userStats = new UserStats(1);
+        userStats.addResult(200, 4, 5);
+        userStats.addResult(100, 4, 5);
+        userStats.addResult(300, 4, 5);
+        assertEquals(100, userStats.getBestTimestamp());
+    }
+
+    @Test
+    public void olderResult_doesNotReplaceLast() {
+        UserStats userStats = new UserStats(1);
+        userStats.addResult(200, 4, 5);
+        userStats.addResult(100, 1, 5);
+        assertEquals(0.8, userStats.getLastScore(), DELTA);
+        assertEquals(200, userStats.getLastTimestamp());
+    }
+
+    @Test
+    public void averageScore_weightsByQuestionCount() {
+        UserStats userStats = new UserStats(1);
+        userStats.addResult(100, 1, 1);
+        userStats.addResult(200, 0, 9);
+        assertEquals(0.1, userStats.getAverageScore(), DELTA);
+    }
+}
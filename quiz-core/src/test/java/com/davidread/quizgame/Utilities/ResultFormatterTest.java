@@ -0,0 +1,56 @@
+package com.davidread.quizgame.Utilities;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for ResultFormatter. The formatters use the default locale and time zone, so
+ * both are fixed for the duration of each test.
+ */
+public class ResultFormatterTest {
+
+    // 2021-03-04 15:05:00 UTC.
+    private static final long TIMESTAMP = 1614870300000L;
+
+    private Locale defaultLocale;
+    private TimeZone defaultTimeZone;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        defaultTimeZone = TimeZone.getDefault();
+        Locale.setDefault(Locale.US);
+        TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+        TimeZone.setDefault(defaultTimeZone);
+    }
+
+    @Test
+    public void formatTime_usesTwelveHourClock() {
+        assertEquals("03:05 PM", new ResultFormatter().formatTime(TIMESTAMP));
+    }
+
+    @Test
+    public void formatDate_hasNoLeadingZeros() {
+        assertEquals("3/4/2021", new ResultFormatter().formatDate(TIMESTAMP));
+    }
+
+    @Test
+    public void reusedFormatter_formatsEachTimestamp() {
+        ResultFormatter formatter = new ResultFormatter();
+        assertEquals("3/4/2021", formatter.formatDate(TIMESTAMP));
+        assertEquals("1/1/1970", formatter.formatDate(0));
+        assertEquals("12:00 AM", formatter.formatTime(0));
+        assertEquals("03:05 PM", formatter.formatTime(TIMESTAMP));
+    }
+}
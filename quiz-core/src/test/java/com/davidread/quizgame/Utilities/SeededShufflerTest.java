@@ -0,0 +1,95 @@
+package com.davidread.quizgame.Utilities;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Local unit tests for SeededShuffler.
+ */
+public class SeededShufflerTest {
+
+    @Test
+    public void nextLong_matchesSplitMix64ReferenceOutput() {
+        // First outputs of the reference SplitMix64 generator seeded with 0.
+        SeededShuffler shuffler = new SeededShuffler(0);
+        assertEquals(0xE220A8397B1DCDAFL, shuffler.nextLong());
+        assertEquals(0x6E789E6AA1B965F4L, shuffler.nextLong());
+        assertEquals(0x06C45D188009454FL, shuffler.nextLong());
+    }
+
+    @Test
+    public void sameSeed_sameSequence() {
+        SeededShuffler first = new SeededShuffler(42);
+        SeededShuffler second = new SeededShuffler(42);
+        for (int i = 0; i < 100; i++)
+            assertEquals(first.nextLong(), second.nextLong());
+    }
+
+    @Test
+    public void reseed_restartsSequence() {
+        SeededShuffler shuffler = new SeededShuffler(7);
+        long firstValue = shuffler.nextLong();
+        shuffler.nextLong();
+        shuffler.reseed(7);
+        assertEquals(firstValue, shuffler.nextLong());
+    }
+
+    @Test
+    public void nextInt_staysWithinBound() {
+        SeededShuffler shuffler = new SeededShuffler(1);
+        for (int bound : new int[]{1, 2, 3, 10, 64, Integer.MAX_VALUE}) {
+            for (int i = 0; i < 1000; i++) {
+                int value = shuffler.nextInt(bound);
+                assertTrue(value >= 0 && value < bound);
+            }
+        }
+    }
+
+    @Test
+    public void shuffle_sameSeedSamePermutation() {
+        long[] first = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10};
+        long[] second = first.clone();
+        new SeededShuffler(123).shuffle(first);
+        new SeededShuffler(123).shuffle(second);
+        assertArrayEquals(first, second);
+    }
+
+    @Test
+    public void shuffle_isPermutation() {
+        long[] array = new long[50];
+        for (int i = 0; i < array.length; i++)
+            array[i] = i;
+        new SeededShuffler(99).shuffle(array);
+        assertFalse(Arrays.equals(array, sortedCopy(array)) && isIdentity(array));
+        long[] sorted = sortedCopy(array);
+        for (int i = 0; i < sorted.length; i++)
+            assertEquals(i, sorted[i]);
+    }
+
+    @Test
+    public void shuffle_onlyTouchesGivenLength() {
+        int[] array = {0, 1, 2, 3, 4, 5, 6, 7};
+        new SeededShuffler(5).shuffle(array, 4);
+        assertArrayEquals(new int[]{4, 5, 6, 7}, Arrays.copyOfRange(array, 4, 8));
+        int[] prefix = Arrays.copyOf(array, 4);
+        Arrays.sort(prefix);
+        assertArrayEquals(new int[]{0, 1, 2, 3}, prefix);
+    }
+
+    private static long[] sortedCopy(long[] array) {
+        long[] copy = array.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static boolean isIdentity(long[] array) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != i)
+                return false;
+        }
+        return true;
+    }
+}